@@ -12,7 +12,9 @@ package cs4347.jdbcGame.dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import cs4347.jdbcGame.entity.CreditCard;
 import cs4347.jdbcGame.util.DAOException;
@@ -32,17 +34,48 @@ public interface CreditCardDAO
      */
     CreditCard create(Connection connection, CreditCard creditCard, Long playerID) throws SQLException, DAOException;
 
+    /**
+     * Inserts all of the given CreditCards using JDBC batching, sending
+     * DAOUtil.DEFAULT_BATCH_SIZE rows per round trip. The ID of each CreditCard is set
+     * to its generated key and the keys are returned in input order. Each CreditCard must have its
+     * player ID populated.
+     * 
+     * @throws DAOException if any of the given CreditCards has a non-null id.
+     */
+    List<Long> createAll(Connection connection, List<CreditCard> creditCards) throws SQLException, DAOException;
+
+    /**
+     * Same as createAll(Connection, List) but sends batchSize rows per round
+     * trip.
+     */
+    List<Long> createAll(Connection connection, List<CreditCard> creditCards, int batchSize)
+            throws SQLException, DAOException;
+
     /**
      * The update method must throw DAOException if the provided ID is null.
      */
     CreditCard retrieve(Connection connection, Long ccID) throws SQLException, DAOException;
 
+    /**
+     * Returns the CreditCards with the given IDs keyed by ID, in the order the IDs were
+     * given. IDs with no matching row are left out of the map. The IDs are
+     * fetched with IN-lists of at most DAOUtil.MAX_IN_LIST_SIZE values.
+     */
+    Map<Long, CreditCard> retrieveAll(Connection connection, Collection<Long> ccIDs) throws SQLException, DAOException;
+
     /**
      * Returns the CC associated with the given player id.
      */
     List<CreditCard> retrieveCreditCardsForPlayer(Connection connection, Long playerID)
             throws SQLException, DAOException;
 
+    /**
+     * Returns the CC's of each of the given players, keyed by player ID. Players
+     * without cards map to an empty list.
+     */
+    Map<Long, List<CreditCard>> retrieveCreditCardsForPlayers(Connection connection, Collection<Long> playerIDs)
+            throws SQLException, DAOException;
+
     /**
      * The update method must throw DAOException if the provided CreditCard has a
      * NULL id.
@@ -54,11 +87,31 @@ public interface CreditCardDAO
      */
     int delete(Connection connection, Long creditCardID) throws SQLException, DAOException;
 
+    /**
+     * Updates all of the given CreditCards with one JDBC batch and returns the
+     * number of rows updated.
+     * 
+     * @throws DAOException if any of the given CreditCards has a NULL id.
+     */
+    int updateAll(Connection connection, List<CreditCard> creditCards) throws SQLException, DAOException;
+
+    /**
+     * Deletes the CreditCards with the given IDs using IN-list deletes and
+     * returns the number of rows deleted.
+     */
+    int deleteAll(Connection connection, Collection<Long> creditCardIDs) throws SQLException, DAOException;
+
     /**
      * Delete all CC associated with the given playerID
      */
     int deleteForPlayer(Connection connection, Long playerID) throws SQLException, DAOException;
 
+    /**
+     * Delete all CC associated with any of the given player IDs, using IN-list
+     * deletes.
+     */
+    int deleteForPlayers(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException;
+
     /**
      * Returns the number of credit cards i.e. the number of rows
      */
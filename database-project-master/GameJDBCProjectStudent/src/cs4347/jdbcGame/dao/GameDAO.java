@@ -13,11 +13,14 @@ package cs4347.jdbcGame.dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import cs4347.jdbcGame.entity.Game;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.Page;
 
 /**
  * The GameDAO exclusively updates the GAME table.
@@ -34,11 +37,34 @@ public interface GameDAO
      */
     Game create(Connection connection, Game game) throws SQLException, DAOException;
 
+    /**
+     * Inserts all of the given Games using JDBC batching, sending
+     * DAOUtil.DEFAULT_BATCH_SIZE rows per round trip. The ID of each Game is set
+     * to its generated key and the keys are returned in input order.
+     * 
+     * @throws DAOException if any of the given Games has a non-null id.
+     */
+    List<Long> createAll(Connection connection, List<Game> games) throws SQLException, DAOException;
+
+    /**
+     * Same as createAll(Connection, List) but sends batchSize rows per round
+     * trip.
+     */
+    List<Long> createAll(Connection connection, List<Game> games, int batchSize)
+            throws SQLException, DAOException;
+
     /**
      * The update method must throw DAOException if the provided ID is null.
      */
     Game retrieve(Connection connection, Long gameID) throws SQLException, DAOException;
 
+    /**
+     * Returns the Games with the given IDs keyed by ID, in the order the IDs were
+     * given. IDs with no matching row are left out of the map. The IDs are
+     * fetched with IN-lists of at most DAOUtil.MAX_IN_LIST_SIZE values.
+     */
+    Map<Long, Game> retrieveAll(Connection connection, Collection<Long> gameIDs) throws SQLException, DAOException;
+
     /**
      * The update method must throw DAOException if the provided Game has a NULL id.
      */
@@ -54,6 +80,14 @@ public interface GameDAO
      */
     int count(Connection connection) throws SQLException, DAOException;
 
+    /**
+     * Calls the visitor once per row of the Game table without building an
+     * entity per row; meant for building in-memory indexes. Rows are read
+     * fetchSize at a time (see DAOUtil.STREAM_ROW_BY_ROW) in no particular
+     * order. Returns the number of rows visited.
+     */
+    long forEach(Connection connection, int fetchSize, GameVisitor visitor) throws SQLException, DAOException;
+
     /**
      * Retrieve games with the given title. Title can contain SQL wildcards
      */
@@ -64,4 +98,13 @@ public interface GameDAO
      */
     List<Game> retrieveByReleaseDate(Connection connection, Date start, Date end) throws SQLException, DAOException;
 
+    /**
+     * Returns up to pageSize games released in the range, ordered by
+     * (release_date, id). Pass null as 'after' for the first page and the
+     * previous page's next cursor afterwards. Uses a seek predicate rather than
+     * OFFSET, so each page costs the same however deep it is.
+     */
+    Page<Game> retrieveByReleaseDatePage(Connection connection, Date start, Date end, int pageSize, String after)
+            throws SQLException, DAOException;
+
 }
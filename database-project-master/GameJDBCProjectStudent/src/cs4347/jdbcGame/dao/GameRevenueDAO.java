@@ -0,0 +1,74 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import cs4347.jdbcGame.entity.GameRevenue;
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.util.DAOException;
+
+/**
+ * The GameRevenueDAO exclusively updates the GAME_REVENUE_DAILY table, which
+ * holds the purchase count and revenue of every game for every day it was
+ * bought. purchaseAdded() and purchaseRemoved() must run in the transaction
+ * that writes the GamesOwned row.
+ */
+public interface GameRevenueDAO
+{
+    /**
+     * Adds a purchase to the bucket of its game and purchase date, creating the
+     * bucket if needed.
+     */
+    void purchaseAdded(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException;
+
+    /**
+     * Removes a purchase from the bucket of its game and purchase date. A bucket
+     * left without purchases is deleted.
+     */
+    void purchaseRemoved(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException;
+
+    /**
+     * Removes every purchase of the given players from the buckets. Must run
+     * before their GAMES_OWNED rows are deleted.
+     */
+    int purchasesRemovedForPlayers(Connection connection, Collection<Long> playerIDs)
+            throws SQLException, DAOException;
+
+    /**
+     * Returns the daily buckets of the given game from start to end, inclusive,
+     * ordered by day. Days without purchases have no bucket.
+     */
+    List<GameRevenue> retrieveDaily(Connection connection, Long gameID, Date start, Date end)
+            throws SQLException, DAOException;
+
+    /**
+     * Returns the daily buckets of every game from start to end, inclusive,
+     * ordered by game ID and day.
+     */
+    List<GameRevenue> retrieveDaily(Connection connection, Date start, Date end) throws SQLException, DAOException;
+
+    /**
+     * Returns the smallest and largest game ID, or null if there are no games.
+     */
+    long[] gameIDRange(Connection connection) throws SQLException, DAOException;
+
+    /**
+     * Replaces the buckets of every game with an ID between fromID and toID,
+     * inclusive, with totals computed from GAMES_OWNED. Returns the number of
+     * buckets written.
+     */
+    int backfill(Connection connection, long fromID, long toID) throws SQLException, DAOException;
+}
@@ -12,7 +12,10 @@ package cs4347.jdbcGame.dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import cs4347.jdbcGame.entity.GamesOwned;
 import cs4347.jdbcGame.util.DAOException;
@@ -29,12 +32,43 @@ public interface GamesOwnedDAO
      */
     GamesOwned create(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException;
 
+    /**
+     * Inserts all of the given GamesOwneds using JDBC batching, sending
+     * DAOUtil.DEFAULT_BATCH_SIZE rows per round trip. The ID of each GamesOwned is set
+     * to its generated key and the keys are returned in input order.
+     * 
+     * @throws DAOException if any of the given GamesOwneds has a non-null id.
+     */
+    List<Long> createAll(Connection connection, List<GamesOwned> gamesOwnedList) throws SQLException, DAOException;
+
+    /**
+     * Same as createAll(Connection, List) but sends batchSize rows per round
+     * trip.
+     */
+    List<Long> createAll(Connection connection, List<GamesOwned> gamesOwnedList, int batchSize)
+            throws SQLException, DAOException;
+
     /**
      * Return the single instance by GameOwned ID. Return null if no GameOwned
      * exist.
      */
     GamesOwned retrieveID(Connection connection, Long gamesOwnedID) throws SQLException, DAOException;
 
+    /**
+     * Same as retrieveID, but reads the row with SELECT ... FOR UPDATE so it stays
+     * locked until the connection's transaction ends. Used before an update or
+     * delete whose delta depends on the old row.
+     */
+    GamesOwned retrieveForUpdate(Connection connection, Long gamesOwnedID) throws SQLException, DAOException;
+
+    /**
+     * Returns the GamesOwned rows with the given IDs keyed by ID, in the order the
+     * IDs were given. IDs with no matching row are left out of the map. The IDs
+     * are fetched with IN-lists of at most DAOUtil.MAX_IN_LIST_SIZE values.
+     */
+    Map<Long, GamesOwned> retrieveAll(Connection connection, Collection<Long> gamesOwnedIDs)
+            throws SQLException, DAOException;
+
     /**
      * Return the single instance by Player and Game ID. Return null if no GameOwned
      * exist.
@@ -47,6 +81,29 @@ public interface GamesOwnedDAO
      */
     List<GamesOwned> retrieveByGame(Connection connection, Long gameID) throws SQLException, DAOException;
 
+    /**
+     * Streams the GamesOwned rows of the given Game ID instead of loading them into a
+     * list. Rows are read from the driver fetchSize at a time as the stream is
+     * consumed (see DAOUtil.STREAM_ROW_BY_ROW). The caller must close the
+     * stream, which closes the underlying statement; the connection cannot run
+     * other statements until then.
+     */
+    Stream<GamesOwned> streamByGame(Connection connection, Long gameID, int fetchSize) throws SQLException, DAOException;
+
+    /**
+     * Calls the visitor once per row of the GamesOwned table without building an
+     * entity per row; meant for aggregate jobs. Rows are read fetchSize at a
+     * time (see DAOUtil.STREAM_ROW_BY_ROW) in no particular order. Returns the
+     * number of rows visited.
+     */
+    long forEach(Connection connection, int fetchSize, GamesOwnedVisitor visitor) throws SQLException, DAOException;
+
+    /**
+     * Same as forEach() but only visits the rows of the given Game ID.
+     */
+    long forEachByGame(Connection connection, Long gameID, int fetchSize, GamesOwnedVisitor visitor)
+            throws SQLException, DAOException;
+
     /**
      * Returns a list of GamesOwned associated with the given Player ID
      */
@@ -62,6 +119,17 @@ public interface GamesOwnedDAO
      */
     int delete(Connection connection, Long gameOwnedID) throws SQLException, DAOException;
 
+    /**
+     * Delete all GamesOwned associated with the given playerID
+     */
+    int deleteForPlayer(Connection connection, Long playerID) throws SQLException, DAOException;
+
+    /**
+     * Delete all GamesOwned associated with any of the given player IDs, using
+     * IN-list deletes.
+     */
+    int deleteForPlayers(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException;
+
     /**
      * Returns the number of gamesOwned i.e. the number of rows
      */
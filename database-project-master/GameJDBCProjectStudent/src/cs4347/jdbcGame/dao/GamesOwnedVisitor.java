@@ -0,0 +1,22 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.dao;
+
+/**
+ * Row callback for GamesOwnedDAO.forEach(). Column values are passed as
+ * primitives so a scan builds no GamesOwned or boxed Long per row. The
+ * purchase date is given as days since 1970-01-01, and the DECIMAL purchase
+ * price as a whole number of cents so that no precision is lost.
+ */
+public interface GamesOwnedVisitor
+{
+    void visit(long id, long playerID, long gameID, long purchaseEpochDay, long purchaseCents);
+}
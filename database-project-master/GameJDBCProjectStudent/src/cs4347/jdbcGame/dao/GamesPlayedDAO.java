@@ -12,7 +12,10 @@ package cs4347.jdbcGame.dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import cs4347.jdbcGame.entity.GamesPlayed;
 import cs4347.jdbcGame.util.DAOException;
@@ -29,11 +32,42 @@ public interface GamesPlayedDAO
      */
     GamesPlayed create(Connection connection, GamesPlayed gamesPlayed) throws SQLException, DAOException;
 
+    /**
+     * Inserts all of the given GamesPlayeds using JDBC batching, sending
+     * DAOUtil.DEFAULT_BATCH_SIZE rows per round trip. The ID of each GamesPlayed is set
+     * to its generated key and the keys are returned in input order.
+     * 
+     * @throws DAOException if any of the given GamesPlayeds has a non-null id.
+     */
+    List<Long> createAll(Connection connection, List<GamesPlayed> gamesPlayedList) throws SQLException, DAOException;
+
+    /**
+     * Same as createAll(Connection, List) but sends batchSize rows per round
+     * trip.
+     */
+    List<Long> createAll(Connection connection, List<GamesPlayed> gamesPlayedList, int batchSize)
+            throws SQLException, DAOException;
+
     /**
      * Return the single instance by ID. Return null if no GamesPlayed exist.
      */
     GamesPlayed retrieveID(Connection connection, Long gamePlayedID) throws SQLException, DAOException;
 
+    /**
+     * Same as retrieveID, but reads the row with SELECT ... FOR UPDATE so it stays
+     * locked until the connection's transaction ends. Used before an update or
+     * delete whose delta depends on the old row.
+     */
+    GamesPlayed retrieveForUpdate(Connection connection, Long gamePlayedID) throws SQLException, DAOException;
+
+    /**
+     * Returns the GamesPlayed rows with the given IDs keyed by ID, in the order the
+     * IDs were given. IDs with no matching row are left out of the map. The IDs
+     * are fetched with IN-lists of at most DAOUtil.MAX_IN_LIST_SIZE values.
+     */
+    Map<Long, GamesPlayed> retrieveAll(Connection connection, Collection<Long> gamesPlayedIDs)
+            throws SQLException, DAOException;
+
     /**
      * Returns a list of GamesPlayed associated with the given Game ID
      */
@@ -45,6 +79,54 @@ public interface GamesPlayedDAO
      */
     List<GamesPlayed> retrieveByGame(Connection connection, Long gameID) throws SQLException, DAOException;
 
+    /**
+     * Streams the GamesPlayed rows of the given Game ID instead of loading them into a
+     * list. Rows are read from the driver fetchSize at a time as the stream is
+     * consumed (see DAOUtil.STREAM_ROW_BY_ROW). The caller must close the
+     * stream, which closes the underlying statement; the connection cannot run
+     * other statements until then.
+     */
+    Stream<GamesPlayed> streamByGame(Connection connection, Long gameID, int fetchSize) throws SQLException, DAOException;
+
+    /**
+     * Calls the visitor once per row of the GamesPlayed table without building an
+     * entity per row; meant for aggregate jobs. Rows are read fetchSize at a
+     * time (see DAOUtil.STREAM_ROW_BY_ROW) in no particular order. Returns the
+     * number of rows visited.
+     */
+    long forEach(Connection connection, int fetchSize, GamesPlayedVisitor visitor) throws SQLException, DAOException;
+
+    /**
+     * Same as forEach() but only visits the rows of the given Game ID.
+     */
+    long forEachByGame(Connection connection, Long gameID, int fetchSize, GamesPlayedVisitor visitor)
+            throws SQLException, DAOException;
+
+    /**
+     * Returns the n best plays of the given game, highest score first. Plays
+     * with equal scores are ordered by ID, so the earlier play ranks higher.
+     * Plays without a score are not ranked. The rows are read in order from
+     * the (game_ID, score DESC, id) index, so the cost does not depend on how
+     * often the game has been played.
+     */
+    List<GamesPlayed> topScores(Connection connection, Long gameID, int n) throws SQLException, DAOException;
+
+    /**
+     * Returns the 1-based leaderboard position of the player's best play of
+     * the given game, in the order of topScores(), or null if the player has
+     * no scored play of it. Counts the plays ranked ahead with an index range
+     * scan.
+     */
+    Long rankOf(Connection connection, Long playerID, Long gameID) throws SQLException, DAOException;
+
+    /**
+     * Returns the player's best play of the given game together with up to
+     * window plays ranked directly above and below it, in leaderboard order.
+     * Returns an empty list if the player has no scored play of the game.
+     */
+    List<GamesPlayed> scoresAround(Connection connection, Long playerID, Long gameID, int window)
+            throws SQLException, DAOException;
+
     /**
      * Returns a list of GamesPlayed associated with the given Player ID
      */
@@ -60,6 +142,17 @@ public interface GamesPlayedDAO
      */
     int delete(Connection connection, Long gamePlayedID) throws SQLException, DAOException;
 
+    /**
+     * Delete all GamesPlayed associated with the given playerID
+     */
+    int deleteForPlayer(Connection connection, Long playerID) throws SQLException, DAOException;
+
+    /**
+     * Delete all GamesPlayed associated with any of the given player IDs, using
+     * IN-list deletes.
+     */
+    int deleteForPlayers(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException;
+
     /**
      * Returns the number of GamesPlayed i.e. the number of rows
      */
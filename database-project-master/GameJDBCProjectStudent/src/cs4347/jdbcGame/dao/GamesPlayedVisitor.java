@@ -0,0 +1,24 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.dao;
+
+/**
+ * Row callback for GamesPlayedDAO.forEach(). Column values are passed as
+ * primitives so a scan builds no GamesPlayed or boxed Long per row. Dates are
+ * given as days since 1970-01-01, or NULL_DAY when the column is NULL. A
+ * NULL score is passed as 0 with scoreNull set.
+ */
+public interface GamesPlayedVisitor
+{
+    long NULL_DAY = Long.MIN_VALUE;
+
+    void visit(long id, long playerID, long gameID, long finishedEpochDay, int score, boolean scoreNull);
+}
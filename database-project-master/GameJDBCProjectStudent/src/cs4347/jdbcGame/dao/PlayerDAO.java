@@ -12,11 +12,14 @@ package cs4347.jdbcGame.dao;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import cs4347.jdbcGame.entity.Player;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.Page;
 
 /**
  * The PlayerDAO exclusively updates the PLAYER table.
@@ -33,11 +36,41 @@ public interface PlayerDAO
      */
     Player create(Connection connection, Player player) throws SQLException, DAOException;
 
+    /**
+     * Inserts all of the given Players using JDBC batching, sending
+     * DAOUtil.DEFAULT_BATCH_SIZE rows per round trip. The ID of each Player is set
+     * to its generated key and the keys are returned in input order.
+     * 
+     * @throws DAOException if any of the given Players has a non-null id.
+     */
+    List<Long> createAll(Connection connection, List<Player> players) throws SQLException, DAOException;
+
+    /**
+     * Same as createAll(Connection, List) but sends batchSize rows per round
+     * trip.
+     */
+    List<Long> createAll(Connection connection, List<Player> players, int batchSize)
+            throws SQLException, DAOException;
+
     /**
      * The update method must throw DAOException if the provided ID is null.
      */
     Player retrieve(Connection connection, Long playerID) throws SQLException, DAOException;
 
+    /**
+     * Returns the Players with the given IDs keyed by ID, in the order the IDs were
+     * given. IDs with no matching row are left out of the map. The IDs are
+     * fetched with IN-lists of at most DAOUtil.MAX_IN_LIST_SIZE values.
+     */
+    Map<Long, Player> retrieveAll(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException;
+
+    /**
+     * Same as retrieve() but also fills in the Player's creditCards, reading the
+     * player and its cards from a single LEFT JOIN result set. A player without
+     * cards gets an empty list.
+     */
+    Player retrieveWithCreditCards(Connection connection, Long playerID) throws SQLException, DAOException;
+
     /**
      * The update method must throw DAOException if the provided Player has a NULL
      * id.
@@ -49,14 +82,37 @@ public interface PlayerDAO
      */
     int delete(Connection connection, Long playerID) throws SQLException, DAOException;
 
+    /**
+     * Deletes the Players with the given IDs using IN-list deletes and returns
+     * the number of rows deleted. Dependent rows must be deleted first.
+     */
+    int deleteAll(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException;
+
     /**
      * Returns the number of players i.e. the number of rows
      */
     int count(Connection connection) throws SQLException, DAOException;
 
     /**
-     * Retrieve players in the given join date range
+     * Retrieve players in the given join date range. Returns an empty list if
+     * no player joined in the range.
      */
     List<Player> retrieveByJoinDate(Connection connection, Date start, Date end) throws SQLException, DAOException;
 
+    /**
+     * Same as retrieveByJoinDate() but also fills in each Player's creditCards
+     * from a single LEFT JOIN result set.
+     */
+    List<Player> retrieveByJoinDateWithCreditCards(Connection connection, Date start, Date end)
+            throws SQLException, DAOException;
+
+    /**
+     * Returns up to pageSize players that joined in the range, ordered by
+     * (join_date, id). Pass null as 'after' for the first page and the previous
+     * page's next cursor afterwards. Uses a seek predicate rather than OFFSET,
+     * so each page costs the same however deep it is.
+     */
+    Page<Player> retrieveByJoinDatePage(Connection connection, Date start, Date end, int pageSize, String after)
+            throws SQLException, DAOException;
+
 }
@@ -0,0 +1,93 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.dao;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.entity.PlayerStats;
+import cs4347.jdbcGame.util.DAOException;
+
+/**
+ * The PlayerStatsDAO exclusively updates the PLAYER_STATS table. The
+ * ownedAdded/ownedRemoved and playedAdded/playedRemoved methods must run in
+ * the transaction that writes the GamesOwned or GamesPlayed row, after that
+ * write, so the totals never drift from the tables they summarize.
+ */
+public interface PlayerStatsDAO
+{
+    /**
+     * Adds a purchase to the totals of its player, creating the player's row if
+     * needed.
+     */
+    void ownedAdded(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException;
+
+    /**
+     * Removes a purchase, which must already be deleted or changed in
+     * GAMES_OWNED, from the totals of its player. The last activity date is
+     * recomputed from the remaining rows.
+     */
+    void ownedRemoved(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException;
+
+    /**
+     * Adds a play to the totals of its player, creating the player's row if
+     * needed.
+     */
+    void playedAdded(Connection connection, GamesPlayed gamesPlayed) throws SQLException, DAOException;
+
+    /**
+     * Removes a play, which must already be deleted or changed in GAMES_PLAYED,
+     * from the totals of its player. The best score and last activity date are
+     * recomputed from the remaining rows.
+     */
+    void playedRemoved(Connection connection, GamesPlayed gamesPlayed) throws SQLException, DAOException;
+
+    /**
+     * Returns the stored totals of the player, or null if the player has no row.
+     */
+    PlayerStats retrieve(Connection connection, Long playerID) throws SQLException, DAOException;
+
+    /**
+     * Returns the stored totals keyed by player ID, in the order the IDs were
+     * given. Players without a row are left out of the map. The IDs are fetched
+     * with IN-lists of at most DAOUtil.MAX_IN_LIST_SIZE values.
+     */
+    Map<Long, PlayerStats> retrieveAll(Connection connection, Collection<Long> playerIDs)
+            throws SQLException, DAOException;
+
+    /**
+     * Returns the smallest and largest player ID, or null if there are no
+     * players.
+     */
+    long[] playerIDRange(Connection connection) throws SQLException, DAOException;
+
+    /**
+     * Recomputes the rows of every player with an ID between fromID and toID,
+     * inclusive, from GAMES_OWNED and GAMES_PLAYED. Returns the number of
+     * players rebuilt.
+     */
+    int rebuild(Connection connection, long fromID, long toID) throws SQLException, DAOException;
+
+    /**
+     * Delete the row of the given player. Must run before the player is deleted.
+     */
+    int delete(Connection connection, Long playerID) throws SQLException, DAOException;
+
+    /**
+     * Deletes the rows of all of the given players with IN-lists of at most
+     * DAOUtil.MAX_IN_LIST_SIZE IDs.
+     */
+    int deleteForPlayers(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException;
+}
@@ -16,11 +16,17 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import cs4347.jdbcGame.dao.CreditCardDAO;
 import cs4347.jdbcGame.entity.CreditCard;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.StatementCache;
 
 public class CreditCardDAOImpl implements CreditCardDAO
 {
@@ -37,11 +43,11 @@ public class CreditCardDAOImpl implements CreditCardDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS);
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
 
             ps.setString(1, creditCard.getCcName());
             ps.setString(2, creditCard.getCcNumber());
-            ps.setString(3, creditCard.getExpDate());
+            ps.setDate(3, DAOUtil.toExpDate(creditCard.getExpDate()));
             ps.setInt(4, creditCard.getSecurityCode());
             ps.setLong(5, playerID);
             ps.executeUpdate();
@@ -61,6 +67,63 @@ public class CreditCardDAOImpl implements CreditCardDAO
         }
     }
 
+    @Override
+    public List<Long> createAll(Connection connection, List<CreditCard> creditCards) throws SQLException, DAOException
+    {
+        return createAll(connection, creditCards, DAOUtil.DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public List<Long> createAll(Connection connection, List<CreditCard> creditCards, int batchSize)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkBatchSize(batchSize);
+        for (CreditCard creditCard : creditCards) {
+            if (creditCard.getId() != null) {
+                throw new DAOException("Trying to insert CreditCard with NON-NULL ID");
+            }
+            if (creditCard.getPlayerID() == null) {
+                throw new DAOException("Trying to insert CreditCard with NULL player ID");
+            }
+        }
+
+        List<Long> keys = new ArrayList<Long>(creditCards.size());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
+            int pending = 0;
+            for (CreditCard creditCard : creditCards) {
+                ps.setString(1, creditCard.getCcName());
+                ps.setString(2, creditCard.getCcNumber());
+                ps.setDate(3, DAOUtil.toExpDate(creditCard.getExpDate()));
+                ps.setInt(4, creditCard.getSecurityCode());
+                ps.setLong(5, creditCard.getPlayerID());
+                ps.addBatch();
+
+                if (++pending == batchSize) {
+                    ps.executeBatch();
+                    DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+                DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+            }
+
+            // Copy the assigned IDs back to the creditCard instances.
+            for (int idx = 0; idx < keys.size(); idx++) {
+                creditCards.get(idx).setId(keys.get(idx));
+            }
+            return keys;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
     final static String selectSQL = "SELECT id, player_id, cc_name, cc_number, exp_date, security_code FROM creditcard where id = ?";
     
     @Override
@@ -72,7 +135,7 @@ public class CreditCardDAOImpl implements CreditCardDAO
     	
     	PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(selectSQL);
+            ps = StatementCache.prepareStatement(connection, selectSQL);
             ps.setLong(1, ccID);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) {
@@ -89,6 +152,19 @@ public class CreditCardDAOImpl implements CreditCardDAO
         }
     } 
     
+    final static String retrieveAllSQL = "SELECT id, player_id, cc_name, cc_number, exp_date, security_code FROM creditcard where id in (%s)";
+
+    @Override
+    public Map<Long, CreditCard> retrieveAll(Connection connection, Collection<Long> ccIDs)
+            throws SQLException, DAOException
+    {
+        Map<Long, CreditCard> found = new HashMap<Long, CreditCard>();
+        for (CreditCard item : DAOUtil.executeInListQuery(connection, retrieveAllSQL, ccIDs, this::extractFromRS)) {
+            found.put(item.getId(), item);
+        }
+        return DAOUtil.inRequestOrder(ccIDs, found);
+    }
+
     final static String retrieveCardsForPlayerSQL = "select id, cc_name, cc_number, exp_date, security_code, player_id FROM creditcard where player_id = ?";
     
     @Override
@@ -98,7 +174,7 @@ public class CreditCardDAOImpl implements CreditCardDAO
     	List<CreditCard> result = new ArrayList<CreditCard>();
     	PreparedStatement ps = null;
     	try {
-    		ps = connection.prepareStatement(retrieveCardsForPlayerSQL);
+    		ps = StatementCache.prepareStatement(connection, retrieveCardsForPlayerSQL);
     		ps.setLong(1, playerID);
     		ResultSet rs = ps.executeQuery();
     		
@@ -115,6 +191,23 @@ public class CreditCardDAOImpl implements CreditCardDAO
     	}
     }
 
+    final static String retrieveCardsForPlayersSQL = "select id, cc_name, cc_number, exp_date, security_code, player_id FROM creditcard where player_id in (%s)";
+
+    @Override
+    public Map<Long, List<CreditCard>> retrieveCreditCardsForPlayers(Connection connection, Collection<Long> playerIDs)
+            throws SQLException, DAOException
+    {
+        Map<Long, List<CreditCard>> result = new LinkedHashMap<Long, List<CreditCard>>();
+        for (Long playerID : playerIDs) {
+            result.put(playerID, new ArrayList<CreditCard>());
+        }
+        for (CreditCard creditCard : DAOUtil.executeInListQuery(connection, retrieveCardsForPlayersSQL, playerIDs,
+                this::extractFromRS)) {
+            result.get(creditCard.getPlayerID()).add(creditCard);
+        }
+        return result;
+    }
+
     final static String updateSQL = "UPDATE creditcard SET cc_name = ?, cc_number = ?, exp_date = ?, security_code = ?, player_id = ? WHERE id = ?;";
     
     @Override
@@ -127,10 +220,10 @@ public class CreditCardDAOImpl implements CreditCardDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(updateSQL);
+            ps = StatementCache.prepareStatement(connection, updateSQL);
             ps.setString(1, creditCard.getCcName());
             ps.setString(2, creditCard.getCcNumber());
-            ps.setString(3, creditCard.getExpDate());
+            ps.setDate(3, DAOUtil.toExpDate(creditCard.getExpDate()));
             ps.setInt(4, creditCard.getSecurityCode());
             ps.setLong(5, creditCard.getPlayerID());
             ps.setLong(6, id);
@@ -145,6 +238,47 @@ public class CreditCardDAOImpl implements CreditCardDAO
         }
     }
     
+    @Override
+    public int updateAll(Connection connection, List<CreditCard> creditCards) throws SQLException, DAOException
+    {
+        for (CreditCard creditCard : creditCards) {
+            if (creditCard.getId() == null) {
+                throw new DAOException("Trying to update creditcard with NULL ID");
+            }
+        }
+        if (creditCards.isEmpty()) {
+            return 0;
+        }
+
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, updateSQL);
+            for (CreditCard creditCard : creditCards) {
+                ps.setString(1, creditCard.getCcName());
+                ps.setString(2, creditCard.getCcNumber());
+                ps.setDate(3, DAOUtil.toExpDate(creditCard.getExpDate()));
+                ps.setInt(4, creditCard.getSecurityCode());
+                ps.setLong(5, creditCard.getPlayerID());
+                ps.setLong(6, creditCard.getId());
+                ps.addBatch();
+            }
+            return DAOUtil.sumUpdateCounts(ps.executeBatch());
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String deleteAllSQL = "delete from creditcard where id in (%s);";
+
+    @Override
+    public int deleteAll(Connection connection, Collection<Long> ccIDs) throws SQLException, DAOException
+    {
+        return DAOUtil.executeInListUpdate(connection, deleteAllSQL, ccIDs);
+    }
+
     final static String deleteSQL = "delete from creditcard where id = ?;";
 
     @Override
@@ -156,7 +290,7 @@ public class CreditCardDAOImpl implements CreditCardDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(deleteSQL);
+            ps = StatementCache.prepareStatement(connection, deleteSQL);
             ps.setLong(1, ccID);
 
             int rows = ps.executeUpdate();
@@ -180,7 +314,7 @@ public class CreditCardDAOImpl implements CreditCardDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(deleteForPlayerSQL);
+            ps = StatementCache.prepareStatement(connection, deleteForPlayerSQL);
             ps.setLong(1, playerID);
 
             int rows = ps.executeUpdate();
@@ -193,6 +327,14 @@ public class CreditCardDAOImpl implements CreditCardDAO
         }
     }
 
+    final static String deleteForPlayersSQL = "delete from creditcard where player_id in (%s);";
+
+    @Override
+    public int deleteForPlayers(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException
+    {
+        return DAOUtil.executeInListUpdate(connection, deleteForPlayersSQL, playerIDs);
+    }
+
     final static String countSQL = "select count(*) from creditcard";
     
     @Override
@@ -200,7 +342,7 @@ public class CreditCardDAOImpl implements CreditCardDAO
     {
     	PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(countSQL);
+            ps = StatementCache.prepareStatement(connection, countSQL);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) {
                 throw new DAOException("No Count Returned");
@@ -223,7 +365,7 @@ public class CreditCardDAOImpl implements CreditCardDAO
     	creditCard.setCcName(rs.getString("cc_name"));
     	creditCard.setCcNumber(rs.getString("cc_number"));
     	creditCard.setSecurityCode(rs.getInt("security_code"));
-    	creditCard.setExpDate(rs.getString("exp_date"));
+    	creditCard.setExpDate(DAOUtil.formatExpDate(rs.getString("exp_date")));
     	return creditCard;
     }
     
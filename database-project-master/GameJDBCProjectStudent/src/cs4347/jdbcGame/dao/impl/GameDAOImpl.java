@@ -16,12 +16,20 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import cs4347.jdbcGame.dao.GameDAO;
+import cs4347.jdbcGame.dao.GameVisitor;
 import cs4347.jdbcGame.entity.Game;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.KeysetCursor;
+import cs4347.jdbcGame.util.Page;
+import cs4347.jdbcGame.util.StatementCache;
 
 public class GameDAOImpl implements GameDAO
 {
@@ -37,7 +45,7 @@ public class GameDAOImpl implements GameDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS);
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, game.getTitle());
             ps.setString(2, game.getDescription());
             ps.setDate(3, new java.sql.Date(game.getReleaseDate().getTime()));
@@ -58,6 +66,59 @@ public class GameDAOImpl implements GameDAO
         }
     }
 
+    @Override
+    public List<Long> createAll(Connection connection, List<Game> games) throws SQLException, DAOException
+    {
+        return createAll(connection, games, DAOUtil.DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public List<Long> createAll(Connection connection, List<Game> games, int batchSize)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkBatchSize(batchSize);
+        for (Game game : games) {
+            if (game.getId() != null) {
+                throw new DAOException("Trying to insert Game with NON-NULL ID");
+            }
+        }
+
+        List<Long> keys = new ArrayList<Long>(games.size());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
+            int pending = 0;
+            for (Game game : games) {
+                ps.setString(1, game.getTitle());
+                ps.setString(2, game.getDescription());
+                ps.setDate(3, new java.sql.Date(game.getReleaseDate().getTime()));
+                ps.setString(4, game.getVersion());
+                ps.addBatch();
+
+                if (++pending == batchSize) {
+                    ps.executeBatch();
+                    DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+                DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+            }
+
+            // Copy the assigned IDs back to the game instances.
+            for (int idx = 0; idx < keys.size(); idx++) {
+                games.get(idx).setId(keys.get(idx));
+            }
+            return keys;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
     final static String selectSQL = "SELECT id, title, description, release_date, version FROM game where id = ?";
 
     @Override
@@ -69,7 +130,7 @@ public class GameDAOImpl implements GameDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(selectSQL);
+            ps = StatementCache.prepareStatement(connection, selectSQL);
             ps.setLong(1, gameID);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) {
@@ -86,6 +147,19 @@ public class GameDAOImpl implements GameDAO
         }
     }
 
+    final static String retrieveAllSQL = "SELECT id, title, description, release_date, version FROM game where id in (%s)";
+
+    @Override
+    public Map<Long, Game> retrieveAll(Connection connection, Collection<Long> gameIDs)
+            throws SQLException, DAOException
+    {
+        Map<Long, Game> found = new HashMap<Long, Game>();
+        for (Game item : DAOUtil.executeInListQuery(connection, retrieveAllSQL, gameIDs, this::extractFromRS)) {
+            found.put(item.getId(), item);
+        }
+        return DAOUtil.inRequestOrder(gameIDs, found);
+    }
+
     final static String updateSQL = "UPDATE game SET title = ?, description = ?, release_date = ?, version = ? WHERE id = ?;";
 
     @Override
@@ -98,7 +172,7 @@ public class GameDAOImpl implements GameDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(updateSQL);
+            ps = StatementCache.prepareStatement(connection, updateSQL);
             ps.setString(1, game.getTitle());
             ps.setString(2, game.getDescription());
             ps.setDate(3, new java.sql.Date(game.getReleaseDate().getTime()));
@@ -126,7 +200,7 @@ public class GameDAOImpl implements GameDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(deleteSQL);
+            ps = StatementCache.prepareStatement(connection, deleteSQL);
             ps.setLong(1, id);
 
             int rows = ps.executeUpdate();
@@ -146,7 +220,7 @@ public class GameDAOImpl implements GameDAO
     {
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(countSQL);
+            ps = StatementCache.prepareStatement(connection, countSQL);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) {
                 throw new DAOException("No Count Returned");
@@ -161,6 +235,31 @@ public class GameDAOImpl implements GameDAO
         }
     }
 
+    final static String forEachSQL = "SELECT id, title, description FROM game";
+
+    @Override
+    public long forEach(Connection connection, int fetchSize, GameVisitor visitor) throws SQLException, DAOException
+    {
+        DAOUtil.checkFetchSize(fetchSize);
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, forEachSQL);
+            ps.setFetchSize(fetchSize);
+            ResultSet rs = ps.executeQuery();
+            long rows = 0;
+            while (rs.next()) {
+                visitor.visit(rs.getLong(1), rs.getString(2), rs.getString(3));
+                rows++;
+            }
+            return rows;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
     final static String retrieveByTitleSQL = "select id,title,description,release_date,version from game where title like ?";
 
     @Override
@@ -169,7 +268,7 @@ public class GameDAOImpl implements GameDAO
         List<Game> result = new ArrayList<Game>();
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(retrieveByTitleSQL);
+            ps = StatementCache.prepareStatement(connection, retrieveByTitleSQL);
             ps.setString(1, title);
             ResultSet rs = ps.executeQuery();
 
@@ -195,7 +294,7 @@ public class GameDAOImpl implements GameDAO
         List<Game> result = new ArrayList<Game>();
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(retrieveByRelDate);
+            ps = StatementCache.prepareStatement(connection, retrieveByRelDate);
             ps.setDate(1, new java.sql.Date(start.getTime()));
             ps.setDate(2, new java.sql.Date(end.getTime()));
             ResultSet rs = ps.executeQuery();
@@ -212,6 +311,59 @@ public class GameDAOImpl implements GameDAO
         }
     }
 
+    final static String releaseDatePageSQL = "select id,title,description,release_date,version from game "
+            + "where release_date between ? and ? order by release_date, id limit ?";
+    final static String releaseDatePageAfterSQL = "select id,title,description,release_date,version from game "
+            + "where release_date between ? and ? and (release_date > ? or (release_date = ? and id > ?)) "
+            + "order by release_date, id limit ?";
+
+    @Override
+    public Page<Game> retrieveByReleaseDatePage(Connection connection, Date start, Date end, int pageSize, String after)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkPageSize(pageSize);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, cursor == null ? releaseDatePageSQL : releaseDatePageAfterSQL);
+            int idx = 1;
+            ps.setDate(idx++, new java.sql.Date(start.getTime()));
+            ps.setDate(idx++, new java.sql.Date(end.getTime()));
+            if (cursor != null) {
+                java.sql.Date afterDate = new java.sql.Date(cursor.getDate().getTime());
+                ps.setDate(idx++, afterDate);
+                ps.setDate(idx++, afterDate);
+                ps.setLong(idx++, cursor.getId());
+            }
+            // One row more than the page tells whether another page follows.
+            ps.setInt(idx, pageSize + 1);
+            ResultSet rs = ps.executeQuery();
+
+            List<Game> items = new ArrayList<Game>(pageSize);
+            boolean more = false;
+            while (rs.next()) {
+                if (items.size() == pageSize) {
+                    more = true;
+                    break;
+                }
+                items.add(extractFromRS(rs));
+            }
+
+            String next = null;
+            if (more) {
+                Game last = items.get(items.size() - 1);
+                next = new KeysetCursor(last.getReleaseDate(), last.getId()).encode();
+            }
+            return new Page<Game>(items, next);
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
     private Game extractFromRS(ResultSet rs) throws SQLException
     {
         Game game = new Game();
@@ -0,0 +1,221 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import cs4347.jdbcGame.dao.GameRevenueDAO;
+import cs4347.jdbcGame.entity.GameRevenue;
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.StatementCache;
+
+public class GameRevenueDAOImpl implements GameRevenueDAO
+{
+    final static String purchaseAddedSQL = "INSERT INTO gamerevenuedaily (game_ID, day, purchases, revenue) "
+            + "VALUES (?, ?, 1, ?) ON DUPLICATE KEY UPDATE purchases = purchases + 1, "
+            + "revenue = revenue + VALUES(revenue)";
+    @Override
+    public void purchaseAdded(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException
+    {
+        checkPurchase(gamesOwned);
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, purchaseAddedSQL);
+            ps.setLong(1, gamesOwned.getGameID());
+            ps.setDate(2, new java.sql.Date(gamesOwned.getPurchaseDate().getTime()));
+            ps.setBigDecimal(3, DAOUtil.toPrice(gamesOwned.getPurchasePrice()));
+            ps.executeUpdate();
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String purchaseRemovedSQL = "UPDATE gamerevenuedaily SET purchases = purchases - 1, "
+            + "revenue = revenue - ? WHERE game_ID = ? AND day = ?";
+    // Keeps buckets from piling up for purchases that were moved or deleted.
+    final static String deleteEmptySQL = "DELETE FROM gamerevenuedaily "
+            + "WHERE game_ID = ? AND day = ? AND purchases <= 0";
+    @Override
+    public void purchaseRemoved(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException
+    {
+        checkPurchase(gamesOwned);
+        java.sql.Date day = new java.sql.Date(gamesOwned.getPurchaseDate().getTime());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, purchaseRemovedSQL);
+            ps.setBigDecimal(1, DAOUtil.toPrice(gamesOwned.getPurchasePrice()));
+            ps.setLong(2, gamesOwned.getGameID());
+            ps.setDate(3, day);
+            ps.executeUpdate();
+            ps.close();
+
+            ps = StatementCache.prepareStatement(connection, deleteEmptySQL);
+            ps.setLong(1, gamesOwned.getGameID());
+            ps.setDate(2, day);
+            ps.executeUpdate();
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String purchasesRemovedForPlayersSQL = "UPDATE gamerevenuedaily r JOIN "
+            + "(SELECT game_ID, purchase_date, COUNT(*) AS purchases, SUM(purchase_price) AS revenue FROM gamesowned "
+            + "WHERE player_ID IN (%s) GROUP BY game_ID, purchase_date) o "
+            + "ON r.game_ID = o.game_ID AND r.day = o.purchase_date "
+            + "SET r.purchases = r.purchases - o.purchases, r.revenue = r.revenue - o.revenue";
+    final static String deleteEmptyForPlayersSQL = "DELETE r FROM gamerevenuedaily r JOIN "
+            + "(SELECT DISTINCT game_ID, purchase_date FROM gamesowned WHERE player_ID IN (%s)) o "
+            + "ON r.game_ID = o.game_ID AND r.day = o.purchase_date WHERE r.purchases <= 0";
+    @Override
+    public int purchasesRemovedForPlayers(Connection connection, Collection<Long> playerIDs)
+            throws SQLException, DAOException
+    {
+        int rows = DAOUtil.executeInListUpdate(connection, purchasesRemovedForPlayersSQL, playerIDs);
+        DAOUtil.executeInListUpdate(connection, deleteEmptyForPlayersSQL, playerIDs);
+        return rows;
+    }
+
+    final static String dailyForGameSQL = "SELECT game_ID, day, purchases, revenue FROM gamerevenuedaily "
+            + "WHERE game_ID = ? AND day BETWEEN ? AND ? ORDER BY day";
+    @Override
+    public List<GameRevenue> retrieveDaily(Connection connection, Long gameID, Date start, Date end)
+            throws SQLException, DAOException
+    {
+        if (gameID == null) {
+            throw new DAOException("Trying to retrieve revenue of NULL game ID");
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, dailyForGameSQL);
+            ps.setLong(1, gameID);
+            ps.setDate(2, new java.sql.Date(start.getTime()));
+            ps.setDate(3, new java.sql.Date(end.getTime()));
+            return extractAll(ps.executeQuery());
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String dailySQL = "SELECT game_ID, day, purchases, revenue FROM gamerevenuedaily "
+            + "WHERE day BETWEEN ? AND ? ORDER BY game_ID, day";
+    @Override
+    public List<GameRevenue> retrieveDaily(Connection connection, Date start, Date end)
+            throws SQLException, DAOException
+    {
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, dailySQL);
+            ps.setDate(1, new java.sql.Date(start.getTime()));
+            ps.setDate(2, new java.sql.Date(end.getTime()));
+            return extractAll(ps.executeQuery());
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String gameIDRangeSQL = "SELECT MIN(id), MAX(id) FROM game";
+    @Override
+    public long[] gameIDRange(Connection connection) throws SQLException, DAOException
+    {
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, gameIDRangeSQL);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            long minID = rs.getLong(1);
+            if (rs.wasNull()) {
+                return null;
+            }
+            return new long[] { minID, rs.getLong(2) };
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String deleteRangeSQL = "DELETE FROM gamerevenuedaily WHERE game_ID BETWEEN ? AND ?";
+    // INSERT ... SELECT locks the GAMES_OWNED rows it reads, so a purchase
+    // written while a range is backfilled waits and is then counted once.
+    final static String backfillSQL = "INSERT INTO gamerevenuedaily (game_ID, day, purchases, revenue) "
+            + "SELECT game_ID, purchase_date, COUNT(*), SUM(purchase_price) FROM gamesowned "
+            + "WHERE game_ID BETWEEN ? AND ? GROUP BY game_ID, purchase_date";
+    @Override
+    public int backfill(Connection connection, long fromID, long toID) throws SQLException, DAOException
+    {
+        if (fromID > toID) {
+            throw new DAOException("Empty game ID range: " + fromID + " to " + toID);
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, deleteRangeSQL);
+            ps.setLong(1, fromID);
+            ps.setLong(2, toID);
+            ps.executeUpdate();
+            ps.close();
+
+            ps = StatementCache.prepareStatement(connection, backfillSQL);
+            ps.setLong(1, fromID);
+            ps.setLong(2, toID);
+            return ps.executeUpdate();
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    private static void checkPurchase(GamesOwned gamesOwned) throws DAOException
+    {
+        if (gamesOwned.getGameID() == null || gamesOwned.getPurchaseDate() == null) {
+            throw new DAOException("Trying to record revenue of a GamesOwned without game ID or purchase date");
+        }
+    }
+
+    private List<GameRevenue> extractAll(ResultSet rs) throws SQLException
+    {
+        List<GameRevenue> result = new ArrayList<GameRevenue>();
+        while (rs.next()) {
+            GameRevenue revenue = new GameRevenue();
+            revenue.setGameID(rs.getLong("game_ID"));
+            revenue.setPeriodStart(rs.getDate("day"));
+            revenue.setPurchases(rs.getInt("purchases"));
+            revenue.setRevenue(rs.getBigDecimal("revenue"));
+            result.add(revenue);
+        }
+        return result;
+    }
+}
@@ -16,12 +16,19 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 
 import cs4347.jdbcGame.dao.GamesOwnedDAO;
+import cs4347.jdbcGame.dao.GamesOwnedVisitor;
 import cs4347.jdbcGame.entity.GamesOwned;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.StatementCache;
 
 public class GamesOwnedDAOImpl implements GamesOwnedDAO{
 
@@ -34,12 +41,12 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS);
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
 
             ps.setLong(1, gamesOwned.getPlayerID());
             ps.setLong(2, gamesOwned.getGameID());
             ps.setDate(3, new java.sql.Date(gamesOwned.getPurchaseDate().getTime()));
-            ps.setFloat(4, gamesOwned.getPurchasePrice());
+            ps.setBigDecimal(4, DAOUtil.toPrice(gamesOwned.getPurchasePrice()));
             ps.executeUpdate();
 
             // Copy the assigned ID to the game instance.
@@ -56,6 +63,59 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
         }
     }
 
+    @Override
+    public List<Long> createAll(Connection connection, List<GamesOwned> gamesOwnedList) throws SQLException, DAOException
+    {
+        return createAll(connection, gamesOwnedList, DAOUtil.DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public List<Long> createAll(Connection connection, List<GamesOwned> gamesOwnedList, int batchSize)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkBatchSize(batchSize);
+        for (GamesOwned gamesOwned : gamesOwnedList) {
+            if (gamesOwned.getId() != null) {
+                throw new DAOException("Trying to insert GamesOwned with NON-NULL ID");
+            }
+        }
+
+        List<Long> keys = new ArrayList<Long>(gamesOwnedList.size());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
+            int pending = 0;
+            for (GamesOwned gamesOwned : gamesOwnedList) {
+                ps.setLong(1, gamesOwned.getPlayerID());
+                ps.setLong(2, gamesOwned.getGameID());
+                ps.setDate(3, new java.sql.Date(gamesOwned.getPurchaseDate().getTime()));
+                ps.setBigDecimal(4, DAOUtil.toPrice(gamesOwned.getPurchasePrice()));
+                ps.addBatch();
+
+                if (++pending == batchSize) {
+                    ps.executeBatch();
+                    DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+                DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+            }
+
+            // Copy the assigned IDs back to the gamesOwned instances.
+            for (int idx = 0; idx < keys.size(); idx++) {
+                gamesOwnedList.get(idx).setId(keys.get(idx));
+            }
+            return keys;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
 	 final static String selectSQL = "SELECT id, player_ID, game_ID, purchase_date, purchase_price FROM gamesowned where id = ?";
     @Override
     public GamesOwned retrieveID(Connection connection, Long gamesOwnedID) throws SQLException, DAOException{
@@ -65,7 +125,7 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
 
            PreparedStatement ps = null;
            try {
-               ps = connection.prepareStatement(selectSQL);
+               ps = StatementCache.prepareStatement(connection, selectSQL);
                ps.setLong(1, gamesOwnedID);
                ResultSet rs = ps.executeQuery();
                if (!rs.next()) {
@@ -82,6 +142,45 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
            }
     }
 
+    final static String retrieveForUpdateSQL = "SELECT id, player_ID, game_ID, purchase_date, purchase_price FROM gamesowned where id = ? FOR UPDATE";
+
+    @Override
+    public GamesOwned retrieveForUpdate(Connection connection, Long gamesOwnedID) throws SQLException, DAOException
+    {
+        if (gamesOwnedID == null) {
+            throw new DAOException("Trying to retrieve Game with NULL ID");
+        }
+
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, retrieveForUpdateSQL);
+            ps.setLong(1, gamesOwnedID);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            return extractFromRS(rs);
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String retrieveAllSQL = "SELECT id, player_ID, game_ID, purchase_date, purchase_price FROM gamesowned where id in (%s)";
+
+    @Override
+    public Map<Long, GamesOwned> retrieveAll(Connection connection, Collection<Long> gamesOwnedIDs)
+            throws SQLException, DAOException
+    {
+        Map<Long, GamesOwned> found = new HashMap<Long, GamesOwned>();
+        for (GamesOwned item : DAOUtil.executeInListQuery(connection, retrieveAllSQL, gamesOwnedIDs, this::extractFromRS)) {
+            found.put(item.getId(), item);
+        }
+        return DAOUtil.inRequestOrder(gamesOwnedIDs, found);
+    }
+
     public static final String retrievePlayerGameID = "SELECT * FROM gamesowned WHERE player_ID = ? AND game_ID = ?";
     @Override
     public GamesOwned retrievePlayerGameID(Connection connection, Long playerID, Long gameID)
@@ -90,7 +189,7 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(retrievePlayerGameID);
+            ps = StatementCache.prepareStatement(connection, retrievePlayerGameID);
             ps.setLong(1, playerID);
             ps.setLong(2, gameID);
             ResultSet rs = ps.executeQuery();
@@ -108,7 +207,7 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
         }
     }
     
-    final static String retrieveByGameSQL = "SELECT id,player_ID,game_ID,purchase_date,purchase_price FROM gamesowned WHERE game_ID like ?";
+    final static String retrieveByGameSQL = "SELECT id,player_ID,game_ID,purchase_date,purchase_price FROM gamesowned WHERE game_ID = ?";
     @Override
     public List<GamesOwned> retrieveByGame(Connection connection, Long gameID) throws SQLException, DAOException
     {
@@ -117,7 +216,7 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
     	PreparedStatement ps = null;
     	
         try {
-        	ps = connection.prepareStatement(retrieveByGameSQL);
+        	ps = StatementCache.prepareStatement(connection, retrieveByGameSQL);
     		ps.setLong(1, gameID);
     		ResultSet rs = ps.executeQuery();
 
@@ -135,7 +234,80 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
     }
 
 
-    final static String retrieveByPlayerSQL = "SELECT id,player_ID,game_ID,purchase_date,purchase_price FROM gamesowned where player_ID like ?";
+    final static String streamByGameSQL = "SELECT id, player_ID, game_ID, purchase_date, purchase_price FROM gamesowned WHERE game_ID = ?";
+
+    @Override
+    public Stream<GamesOwned> streamByGame(Connection connection, Long gameID, int fetchSize)
+            throws SQLException, DAOException
+    {
+        if (gameID == null) {
+            throw new DAOException("Trying to stream GamesOwned with NULL game ID");
+        }
+        DAOUtil.checkFetchSize(fetchSize);
+
+        // Not taken from the StatementCache: the statement stays busy until the
+        // caller closes the stream.
+        PreparedStatement ps = connection.prepareStatement(streamByGameSQL, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        try {
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, gameID);
+        }
+        catch (SQLException ex) {
+            ps.close();
+            throw ex;
+        }
+        return DAOUtil.stream(ps, this::extractFromRS);
+    }
+
+    // Dates come back as day numbers and prices as cents so that reading a row
+    // allocates nothing.
+    final static String forEachSQL = "SELECT id, player_ID, game_ID, DATEDIFF(purchase_date, '1970-01-01'), CAST(ROUND(purchase_price * 100) AS SIGNED) FROM gamesowned";
+    final static String forEachByGameSQL = forEachSQL + " WHERE game_ID = ?";
+
+    @Override
+    public long forEach(Connection connection, int fetchSize, GamesOwnedVisitor visitor) throws SQLException, DAOException
+    {
+        return scan(connection, forEachSQL, null, fetchSize, visitor);
+    }
+
+    @Override
+    public long forEachByGame(Connection connection, Long gameID, int fetchSize, GamesOwnedVisitor visitor)
+            throws SQLException, DAOException
+    {
+        if (gameID == null) {
+            throw new DAOException("Trying to scan GamesOwned with NULL game ID");
+        }
+        return scan(connection, forEachByGameSQL, gameID, fetchSize, visitor);
+    }
+
+    private long scan(Connection connection, String sql, Long gameID, int fetchSize, GamesOwnedVisitor visitor)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkFetchSize(fetchSize);
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, sql);
+            ps.setFetchSize(fetchSize);
+            if (gameID != null) {
+                ps.setLong(1, gameID);
+            }
+            ResultSet rs = ps.executeQuery();
+            long rows = 0;
+            while (rs.next()) {
+                visitor.visit(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5));
+                rows++;
+            }
+            return rows;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String retrieveByPlayerSQL = "SELECT id,player_ID,game_ID,purchase_date,purchase_price FROM gamesowned where player_ID = ?";
     @Override
     public List<GamesOwned> retrieveByPlayer(Connection connection, Long playerID) throws SQLException, DAOException
     {
@@ -143,7 +315,7 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
     	List<GamesOwned> result = new ArrayList<GamesOwned>();
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(retrieveByPlayerSQL);
+            ps = StatementCache.prepareStatement(connection, retrieveByPlayerSQL);
             ps.setLong(1, playerID);
             ResultSet rs = ps.executeQuery();
 
@@ -171,12 +343,12 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(updateSQL);
+            ps = StatementCache.prepareStatement(connection, updateSQL);
 
             ps.setLong(1, gamesOwned.getPlayerID());
             ps.setLong(2, gamesOwned.getGameID());
             ps.setDate(3,  new java.sql.Date(gamesOwned.getPurchaseDate().getTime()));
-            ps.setFloat(4, gamesOwned.getPurchasePrice());
+            ps.setBigDecimal(4, DAOUtil.toPrice(gamesOwned.getPurchasePrice()));
             ps.setLong(5, id);
 
             int rows = ps.executeUpdate();
@@ -195,7 +367,7 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
 
          PreparedStatement ps = null;
          try {
-             ps = connection.prepareStatement(deleteSQL);
+             ps = StatementCache.prepareStatement(connection, deleteSQL);
              ps.setLong(1, gameOwnedID);
 
              int rows = ps.executeUpdate();
@@ -209,13 +381,45 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
     }
 
    
+    final static String deleteForPlayerSQL = "delete from gamesowned where player_ID = ?;";
+
+    @Override
+    public int deleteForPlayer(Connection connection, Long playerID) throws SQLException, DAOException
+    {
+        if (playerID == null) {
+            throw new DAOException("Trying to delete GamesOwned with NULL player_ID");
+        }
+
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, deleteForPlayerSQL);
+            ps.setLong(1, playerID);
+
+            int rows = ps.executeUpdate();
+            return rows;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String deleteForPlayersSQL = "delete from gamesowned where player_ID in (%s);";
+
+    @Override
+    public int deleteForPlayers(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException
+    {
+        return DAOUtil.executeInListUpdate(connection, deleteForPlayersSQL, playerIDs);
+    }
+
     final static String countSQL = "select count(*) from gamesowned";
     @Override
     public int count(Connection connection) throws SQLException, DAOException{
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(countSQL);
+            ps = StatementCache.prepareStatement(connection, countSQL);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) {
                 throw new DAOException("No Count Returned");
@@ -237,7 +441,9 @@ public class GamesOwnedDAOImpl implements GamesOwnedDAO{
         game.setPlayerID(rs.getLong("player_ID"));
         game.setGameID(rs.getLong("game_ID"));
         game.setPurchaseDate(rs.getDate("purchase_date"));
-        game.setPurchasePrice(rs.getFloat("purchase_price"));
+        // DECIMAL(10,2) column: written through DAOUtil.toPrice() like the
+        // summary tables, read back as the float nearest the stored cents.
+        game.setPurchasePrice(rs.getBigDecimal("purchase_price").floatValue());
         return game;
     }
 
@@ -16,14 +16,22 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import cs4347.jdbcGame.dao.GamesPlayedDAO;
+import cs4347.jdbcGame.dao.GamesPlayedVisitor;
 import cs4347.jdbcGame.entity.CreditCard;
 import cs4347.jdbcGame.entity.Game;
 import cs4347.jdbcGame.entity.GamesPlayed;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.StatementCache;
 
 public class GamesPlayedDAOImpl implements GamesPlayedDAO
 {
@@ -38,7 +46,7 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
     	
     	PreparedStatement ps = null;
     	try {
-    		ps = connection.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS);
+    		ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
     		ps.setLong(1, gamesPlayed.getPlayerID());
     		ps.setLong(2, gamesPlayed.getGameID());
     		ps.setDate(3, new java.sql.Date(gamesPlayed.getTimeFinished().getTime()));
@@ -60,6 +68,59 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
      
     }
 
+    @Override
+    public List<Long> createAll(Connection connection, List<GamesPlayed> gamesPlayedList) throws SQLException, DAOException
+    {
+        return createAll(connection, gamesPlayedList, DAOUtil.DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public List<Long> createAll(Connection connection, List<GamesPlayed> gamesPlayedList, int batchSize)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkBatchSize(batchSize);
+        for (GamesPlayed gamesPlayed : gamesPlayedList) {
+            if (gamesPlayed.getId() != null) {
+                throw new DAOException("Trying to insert GamesPlayed with NON-NULL ID");
+            }
+        }
+
+        List<Long> keys = new ArrayList<Long>(gamesPlayedList.size());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
+            int pending = 0;
+            for (GamesPlayed gamesPlayed : gamesPlayedList) {
+                ps.setLong(1, gamesPlayed.getPlayerID());
+                ps.setLong(2, gamesPlayed.getGameID());
+                ps.setDate(3, new java.sql.Date(gamesPlayed.getTimeFinished().getTime()));
+                ps.setInt(4, gamesPlayed.getScore());
+                ps.addBatch();
+
+                if (++pending == batchSize) {
+                    ps.executeBatch();
+                    DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+                DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+            }
+
+            // Copy the assigned IDs back to the gamesPlayed instances.
+            for (int idx = 0; idx < keys.size(); idx++) {
+                gamesPlayedList.get(idx).setId(keys.get(idx));
+            }
+            return keys;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
     final static String selectSQL = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed where id = ?";
     @Override
     public GamesPlayed retrieveID(Connection connection, Long gamePlayedID) throws SQLException, DAOException
@@ -69,7 +130,7 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
     	}
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(selectSQL);
+            ps = StatementCache.prepareStatement(connection, selectSQL);
             ps.setLong(1, gamePlayedID);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) {
@@ -86,6 +147,44 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
         }
     }
 
+    final static String retrieveForUpdateSQL = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed where id = ? FOR UPDATE";
+
+    @Override
+    public GamesPlayed retrieveForUpdate(Connection connection, Long gamePlayedID) throws SQLException, DAOException
+    {
+        if (gamePlayedID == null) {
+            throw new DAOException("Trying to retrieve game with NULL ID");
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, retrieveForUpdateSQL);
+            ps.setLong(1, gamePlayedID);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            return extractFromRS(rs);
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String retrieveAllSQL = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed where id in (%s)";
+
+    @Override
+    public Map<Long, GamesPlayed> retrieveAll(Connection connection, Collection<Long> gamesPlayedIDs)
+            throws SQLException, DAOException
+    {
+        Map<Long, GamesPlayed> found = new HashMap<Long, GamesPlayed>();
+        for (GamesPlayed item : DAOUtil.executeInListQuery(connection, retrieveAllSQL, gamesPlayedIDs, this::extractFromRS)) {
+            found.put(item.getId(), item);
+        }
+        return DAOUtil.inRequestOrder(gamesPlayedIDs, found);
+    }
+
 	public static final String retrievePlayerGameID = "SELECT * FROM GamesPlayed WHERE player_ID = ? AND game_ID = ?";
     @Override
     public List<GamesPlayed> retrieveByPlayerGameID(Connection connection, Long player_ID, Long game_ID)
@@ -94,7 +193,7 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
     	PreparedStatement ps = null;
     	List<GamesPlayed> gamesList = new ArrayList<GamesPlayed>();
     	try {
-    		ps = connection.prepareStatement(retrievePlayerGameID);
+    		ps = StatementCache.prepareStatement(connection, retrievePlayerGameID);
     		ps.setLong(1, player_ID);
     		ps.setLong(2, game_ID);
     		ResultSet rs = ps.executeQuery();
@@ -112,6 +211,83 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
         }
     }
 
+    final static String streamByGameSQL = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed WHERE game_ID = ?";
+
+    @Override
+    public Stream<GamesPlayed> streamByGame(Connection connection, Long gameID, int fetchSize)
+            throws SQLException, DAOException
+    {
+        if (gameID == null) {
+            throw new DAOException("Trying to stream GamesPlayed with NULL game ID");
+        }
+        DAOUtil.checkFetchSize(fetchSize);
+
+        // Not taken from the StatementCache: the statement stays busy until the
+        // caller closes the stream.
+        PreparedStatement ps = connection.prepareStatement(streamByGameSQL, ResultSet.TYPE_FORWARD_ONLY,
+                ResultSet.CONCUR_READ_ONLY);
+        try {
+            ps.setFetchSize(fetchSize);
+            ps.setLong(1, gameID);
+        }
+        catch (SQLException ex) {
+            ps.close();
+            throw ex;
+        }
+        return DAOUtil.stream(ps, this::extractFromRS);
+    }
+
+    // Dates come back as day numbers so that reading a row allocates nothing.
+    final static String forEachSQL = "SELECT id, player_ID, game_ID, DATEDIFF(time_finished, '1970-01-01'), score FROM gamesPlayed";
+    final static String forEachByGameSQL = forEachSQL + " WHERE game_ID = ?";
+
+    @Override
+    public long forEach(Connection connection, int fetchSize, GamesPlayedVisitor visitor) throws SQLException, DAOException
+    {
+        return scan(connection, forEachSQL, null, fetchSize, visitor);
+    }
+
+    @Override
+    public long forEachByGame(Connection connection, Long gameID, int fetchSize, GamesPlayedVisitor visitor)
+            throws SQLException, DAOException
+    {
+        if (gameID == null) {
+            throw new DAOException("Trying to scan GamesPlayed with NULL game ID");
+        }
+        return scan(connection, forEachByGameSQL, gameID, fetchSize, visitor);
+    }
+
+    private long scan(Connection connection, String sql, Long gameID, int fetchSize, GamesPlayedVisitor visitor)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkFetchSize(fetchSize);
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, sql);
+            ps.setFetchSize(fetchSize);
+            if (gameID != null) {
+                ps.setLong(1, gameID);
+            }
+            ResultSet rs = ps.executeQuery();
+            long rows = 0;
+            while (rs.next()) {
+                long day = rs.getLong(4);
+                if (rs.wasNull()) {
+                    day = GamesPlayedVisitor.NULL_DAY;
+                }
+                int score = rs.getInt(5);
+                visitor.visit(rs.getLong(1), rs.getLong(2), rs.getLong(3), day, score, rs.wasNull());
+                rows++;
+            }
+            return rows;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
     public static final String retrievePlayerID = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed where player_ID = ?";
     @Override
     public List<GamesPlayed> retrieveByPlayer(Connection connection, Long player_ID) throws SQLException, DAOException
@@ -119,7 +295,7 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
     	PreparedStatement ps = null;
     	List<GamesPlayed> gamesList = new ArrayList<GamesPlayed>();
     	try {
-    		ps = connection.prepareStatement(retrievePlayerID);
+    		ps = StatementCache.prepareStatement(connection, retrievePlayerID);
     		ps.setLong(1, player_ID);
     		ResultSet rs = ps.executeQuery();
     		
@@ -144,7 +320,7 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
     	List<GamesPlayed> gamesList = new ArrayList<GamesPlayed>();
     	PreparedStatement ps = null;
     	try {
-    		ps = connection.prepareStatement(retrieveGameID);
+    		ps = StatementCache.prepareStatement(connection, retrieveGameID);
     		ps.setLong(1, game_ID);
     		ResultSet rs = ps.executeQuery();
     		
@@ -161,6 +337,132 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
         }
     }
 
+    final static String topScoresSQL = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed "
+            + "WHERE game_ID = ? AND score IS NOT NULL ORDER BY score DESC, id LIMIT ?";
+    @Override
+    public List<GamesPlayed> topScores(Connection connection, Long gameID, int n) throws SQLException, DAOException
+    {
+        if (n <= 0) {
+            throw new DAOException("Number of scores must be positive: " + n);
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, topScoresSQL);
+            ps.setLong(1, gameID);
+            ps.setInt(2, n);
+            return extractAll(ps.executeQuery());
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String bestScoreSQL = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed "
+            + "WHERE player_ID = ? AND game_ID = ? AND score IS NOT NULL ORDER BY score DESC, id LIMIT 1";
+
+    /**
+     * Returns the player's highest ranked play of the game, or null.
+     */
+    private GamesPlayed bestScore(Connection connection, Long playerID, Long gameID) throws SQLException
+    {
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, bestScoreSQL);
+            ps.setLong(1, playerID);
+            ps.setLong(2, gameID);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? extractFromRS(rs) : null;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String countAheadSQL = "SELECT COUNT(*) FROM gamesPlayed "
+            + "WHERE game_ID = ? AND (score > ? OR (score = ? AND id < ?))";
+    @Override
+    public Long rankOf(Connection connection, Long playerID, Long gameID) throws SQLException, DAOException
+    {
+        GamesPlayed best = bestScore(connection, playerID, gameID);
+        if (best == null) {
+            return null;
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, countAheadSQL);
+            bindPosition(ps, best);
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getLong(1) + 1;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    // Read backwards from the play, so the nearest rows come first.
+    final static String scoresAboveSQL = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed "
+            + "WHERE game_ID = ? AND (score > ? OR (score = ? AND id < ?)) ORDER BY score, id DESC LIMIT ?";
+    final static String scoresBelowSQL = "SELECT id, player_ID, game_ID, time_finished, score FROM gamesPlayed "
+            + "WHERE game_ID = ? AND (score < ? OR (score = ? AND id > ?)) ORDER BY score DESC, id LIMIT ?";
+    @Override
+    public List<GamesPlayed> scoresAround(Connection connection, Long playerID, Long gameID, int window)
+            throws SQLException, DAOException
+    {
+        if (window < 0) {
+            throw new DAOException("Window must not be negative: " + window);
+        }
+        List<GamesPlayed> result = new ArrayList<GamesPlayed>();
+        GamesPlayed best = bestScore(connection, playerID, gameID);
+        if (best == null) {
+            return result;
+        }
+        if (window == 0) {
+            result.add(best);
+            return result;
+        }
+
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, scoresAboveSQL);
+            bindPosition(ps, best);
+            ps.setInt(5, window);
+            result.addAll(extractAll(ps.executeQuery()));
+            Collections.reverse(result);
+            ps.close();
+            result.add(best);
+
+            ps = StatementCache.prepareStatement(connection, scoresBelowSQL);
+            bindPosition(ps, best);
+            ps.setInt(5, window);
+            result.addAll(extractAll(ps.executeQuery()));
+            return result;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    /**
+     * Binds game_ID, score, score and id of the given play as the first four
+     * parameters of a leaderboard position predicate.
+     */
+    private void bindPosition(PreparedStatement ps, GamesPlayed play) throws SQLException
+    {
+        ps.setLong(1, play.getGameID());
+        ps.setInt(2, play.getScore());
+        ps.setInt(3, play.getScore());
+        ps.setLong(4, play.getId());
+    }
+
     final static String updateSQL = "UPDATE GamesPlayed SET player_ID = ?, game_ID = ?, time_finished = ?, score = ? WHERE id = ?;";
     @Override
     public int update(Connection connection, GamesPlayed gamesPlayed) throws SQLException, DAOException
@@ -172,7 +474,7 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(updateSQL);
+            ps = StatementCache.prepareStatement(connection, updateSQL);
     		ps.setLong(1, gamesPlayed.getPlayerID());
     		ps.setLong(2, gamesPlayed.getGameID());
     		ps.setDate(3, new java.sql.Date(gamesPlayed.getTimeFinished().getTime()));
@@ -201,7 +503,7 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(deleteSQL);
+            ps = StatementCache.prepareStatement(connection, deleteSQL);
             ps.setLong(1, gamePlayedID);
 
             int rows = ps.executeUpdate();
@@ -214,13 +516,45 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
         }
     }
 
+    final static String deleteForPlayerSQL = "delete from gamesplayed where player_ID = ?;";
+
+    @Override
+    public int deleteForPlayer(Connection connection, Long playerID) throws SQLException, DAOException
+    {
+        if (playerID == null) {
+            throw new DAOException("Trying to delete GamesPlayed with NULL player_ID");
+        }
+
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, deleteForPlayerSQL);
+            ps.setLong(1, playerID);
+
+            int rows = ps.executeUpdate();
+            return rows;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String deleteForPlayersSQL = "delete from gamesplayed where player_ID in (%s);";
+
+    @Override
+    public int deleteForPlayers(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException
+    {
+        return DAOUtil.executeInListUpdate(connection, deleteForPlayersSQL, playerIDs);
+    }
+
     final static String countSQL = "select count(*) from GamesPlayed";
     @Override
     public int count(Connection connection) throws SQLException, DAOException
     {
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(countSQL);
+            ps = StatementCache.prepareStatement(connection, countSQL);
             ResultSet rs = ps.executeQuery();
             if (!rs.next()) {
                 throw new DAOException("No Count Returned");
@@ -234,6 +568,15 @@ public class GamesPlayedDAOImpl implements GamesPlayedDAO
             }
         }
     }
+    private List<GamesPlayed> extractAll(ResultSet rs) throws SQLException
+    {
+        List<GamesPlayed> result = new ArrayList<GamesPlayed>();
+        while (rs.next()) {
+            result.add(extractFromRS(rs));
+        }
+        return result;
+    }
+
     private GamesPlayed extractFromRS(ResultSet rs) throws SQLException
     {
         GamesPlayed game = new GamesPlayed();
@@ -15,13 +15,22 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import cs4347.jdbcGame.dao.PlayerDAO;
+import cs4347.jdbcGame.entity.CreditCard;
 import cs4347.jdbcGame.entity.Player;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.KeysetCursor;
+import cs4347.jdbcGame.util.Page;
+import cs4347.jdbcGame.util.StatementCache;
 
 public class PlayerDAOImpl implements PlayerDAO
 {
@@ -37,7 +46,7 @@ public class PlayerDAOImpl implements PlayerDAO
 
         PreparedStatement ps = null;
         try {
-            ps = connection.prepareStatement(insertSQL, Statement.RETURN_GENERATED_KEYS);
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
             ps.setString(1, player.getFirstName());
             ps.setString(2, player.getLastName());
             ps.setDate(3, new java.sql.Date(player.getJoinDate().getTime()));
@@ -60,13 +69,67 @@ public class PlayerDAOImpl implements PlayerDAO
 
     
     
+    @Override
+    public List<Long> createAll(Connection connection, List<Player> players) throws SQLException, DAOException
+    {
+        return createAll(connection, players, DAOUtil.DEFAULT_BATCH_SIZE);
+    }
+
+    @Override
+    public List<Long> createAll(Connection connection, List<Player> players, int batchSize)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkBatchSize(batchSize);
+        for (Player player : players) {
+            if (player.getId() != null) {
+                throw new DAOException("Trying to insert Player with NON-NULL ID");
+            }
+        }
+
+        List<Long> keys = new ArrayList<Long>(players.size());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, insertSQL, Statement.RETURN_GENERATED_KEYS);
+            int pending = 0;
+            for (Player player : players) {
+                ps.setString(1, player.getFirstName());
+                ps.setString(2, player.getLastName());
+                ps.setDate(3, new java.sql.Date(player.getJoinDate().getTime()));
+                ps.setString(4, player.getEmail());
+                ps.addBatch();
+
+                if (++pending == batchSize) {
+                    ps.executeBatch();
+                    DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                ps.executeBatch();
+                DAOUtil.collectKeys(ps.getGeneratedKeys(), keys, pending);
+            }
+
+            // Copy the assigned IDs back to the player instances.
+            for (int idx = 0; idx < keys.size(); idx++) {
+                players.get(idx).setId(keys.get(idx));
+            }
+            return keys;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    private static final String retrieveSQL = "SELECT * FROM player WHERE id = ?;";
+
     @Override
     public Player retrieve(Connection connection, Long playerID) throws SQLException, DAOException
     {
-        final String retrieveSQL = "SELECT * FROM player WHERE id = ?;";
     	PreparedStatement ps = null;
     	try {
-    		ps = connection.prepareStatement(retrieveSQL);
+    		ps = StatementCache.prepareStatement(connection, retrieveSQL);
         	ps.setLong(1, playerID);
         	ResultSet rs = ps.executeQuery();
     		
@@ -75,13 +138,7 @@ public class PlayerDAOImpl implements PlayerDAO
         	}
         	
         	//Build a new object based on the result
-        	Player player = new Player();
-        	player.setId(rs.getLong("id"));
-        	player.setFirstName(rs.getString("first_name"));
-        	player.setLastName(rs.getString("last_name"));
-        	player.setJoinDate(rs.getDate("join_date"));
-        	player.setEmail(rs.getString("email"));
-        	
+        	Player player = extractFromRS(rs);
         	return player;
     	}
     	finally {
@@ -91,14 +148,43 @@ public class PlayerDAOImpl implements PlayerDAO
     	}
     }
 
+    // c.id is aliased so that "id" still names the player column.
+    private static final String selectWithCardsSQL = "SELECT p.id, p.first_name, p.last_name, p.join_date, p.email, "
+            + "c.id AS cc_id, c.cc_name, c.cc_number, c.exp_date, c.security_code "
+            + "FROM player p LEFT JOIN creditcard c ON c.player_id = p.id ";
+
+    private static final String retrieveWithCardsSQL = selectWithCardsSQL + "WHERE p.id = ? ORDER BY c.id";
+
+    @Override
+    public Player retrieveWithCreditCards(Connection connection, Long playerID) throws SQLException, DAOException
+    {
+        if (playerID == null) {
+            throw new DAOException("Trying to retrieve Player with NULL ID");
+        }
+
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, retrieveWithCardsSQL);
+            ps.setLong(1, playerID);
+            ResultSet rs = ps.executeQuery();
+            List<Player> players = extractWithCreditCards(rs);
+            return players.isEmpty() ? null : players.get(0);
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    private static final String updateSQL = "UPDATE player SET first_name = ?, last_name = ?, join_date = ?, email = ? WHERE id = ?;";
+
     @Override
     public int update(Connection connection, Player player) throws SQLException, DAOException
     {
-    	final String updateSQL = "UPDATE player SET first_name = ?, last_name = ?, join_date = ?, email = ? WHERE id = ?;";
-    	
     	PreparedStatement ps = null;
     	try {
-    		ps = connection.prepareStatement(updateSQL);
+    		ps = StatementCache.prepareStatement(connection, updateSQL);
     		ps.setString(1, player.getFirstName());
     		ps.setString(2, player.getLastName());
     		ps.setDate(3, new java.sql.Date(player.getJoinDate().getTime()));
@@ -122,14 +208,14 @@ public class PlayerDAOImpl implements PlayerDAO
     	}
     }
 
+    private static final String deleteSQL = "DELETE FROM player WHERE id = ?";
+
     @Override
     public int delete(Connection connection, Long playerID) throws SQLException, DAOException
     {
-        final String deleteSQL = "DELETE FROM player WHERE id = ?";
-        
         PreparedStatement ps = null;
         try {
-        	ps = connection.prepareStatement(deleteSQL);
+        	ps = StatementCache.prepareStatement(connection, deleteSQL);
         	ps.setLong(1, playerID);
         	
         	int count = ps.executeUpdate();
@@ -150,15 +236,35 @@ public class PlayerDAOImpl implements PlayerDAO
     	}
     }
 
-    
+    private static final String retrieveAllSQL = "SELECT id, first_name, last_name, join_date, email FROM player WHERE id IN (%s)";
+
+    @Override
+    public Map<Long, Player> retrieveAll(Connection connection, Collection<Long> playerIDs)
+            throws SQLException, DAOException
+    {
+        Map<Long, Player> found = new HashMap<Long, Player>();
+        for (Player player : DAOUtil.executeInListQuery(connection, retrieveAllSQL, playerIDs, this::extractFromRS)) {
+            found.put(player.getId(), player);
+        }
+        return DAOUtil.inRequestOrder(playerIDs, found);
+    }
+
+    private static final String deleteAllSQL = "DELETE FROM player WHERE id IN (%s)";
+
+    @Override
+    public int deleteAll(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException
+    {
+        return DAOUtil.executeInListUpdate(connection, deleteAllSQL, playerIDs);
+    }
+
+    private static final String countSQL = "SELECT COUNT(*) FROM player;";
+
     @Override
     public int count(Connection connection) throws SQLException, DAOException
     {
-    	final String countSQL = "SELECT COUNT(*) FROM player;";
-    	
     	PreparedStatement ps = null;
     	try {
-    		ps = connection.prepareStatement(countSQL);
+    		ps = StatementCache.prepareStatement(connection, countSQL);
         	ResultSet rs = ps.executeQuery();	
         	rs.next();
         	
@@ -177,34 +283,24 @@ public class PlayerDAOImpl implements PlayerDAO
     	}    	
     }
 
+    //Get all the players that joined during a date range
+    private static final String retrieveByJoinDateSQL = "SELECT * FROM player WHERE join_date > ? AND join_date < ?";
+
     @Override
     public List<Player> retrieveByJoinDate(Connection connection, Date start, Date end)
             throws SQLException, DAOException
     {
-    	//Get all the players that joined during a date range
-    	final String retrieveString = "SELECT * FROM player WHERE join_date > ? AND join_date < ?";
-    	
     	PreparedStatement ps = null;
-    	List<Player> playerList = null;
+    	List<Player> playerList = new LinkedList<Player>();
     	try {
-    		ps = connection.prepareStatement(retrieveString);
+    		ps = StatementCache.prepareStatement(connection, retrieveByJoinDateSQL);
     		ps.setDate(1, new java.sql.Date(start.getTime()));
     		ps.setDate(2, new java.sql.Date(end.getTime()));
     		ResultSet rs = ps.executeQuery();
 
     		//Iterate through all the results
     		while(rs.next()) {
-    			if(playerList == null) {
-    				playerList = new LinkedList<Player>();
-    			}
-    			
-    			Player player = new Player();
-            	player.setId(rs.getLong("id"));
-            	player.setFirstName(rs.getString("first_name"));
-            	player.setLastName(rs.getString("last_name"));
-            	player.setJoinDate(rs.getDate("join_date"));
-            	player.setEmail(rs.getString("email"));
-            	
+    			Player player = extractFromRS(rs);
             	playerList.add(player);
     		}
     		
@@ -216,4 +312,122 @@ public class PlayerDAOImpl implements PlayerDAO
     		}
     	}
     }
+
+    private static final String joinDatePageSQL = "SELECT id, first_name, last_name, join_date, email FROM player "
+            + "WHERE join_date > ? AND join_date < ? ORDER BY join_date, id LIMIT ?";
+    private static final String joinDatePageAfterSQL = "SELECT id, first_name, last_name, join_date, email FROM player "
+            + "WHERE join_date > ? AND join_date < ? AND (join_date > ? OR (join_date = ? AND id > ?)) "
+            + "ORDER BY join_date, id LIMIT ?";
+
+    @Override
+    public Page<Player> retrieveByJoinDatePage(Connection connection, Date start, Date end, int pageSize, String after)
+            throws SQLException, DAOException
+    {
+        DAOUtil.checkPageSize(pageSize);
+        KeysetCursor cursor = KeysetCursor.decode(after);
+
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, cursor == null ? joinDatePageSQL : joinDatePageAfterSQL);
+            int idx = 1;
+            ps.setDate(idx++, new java.sql.Date(start.getTime()));
+            ps.setDate(idx++, new java.sql.Date(end.getTime()));
+            if (cursor != null) {
+                java.sql.Date afterDate = new java.sql.Date(cursor.getDate().getTime());
+                ps.setDate(idx++, afterDate);
+                ps.setDate(idx++, afterDate);
+                ps.setLong(idx++, cursor.getId());
+            }
+            // One row more than the page tells whether another page follows.
+            ps.setInt(idx, pageSize + 1);
+            ResultSet rs = ps.executeQuery();
+
+            List<Player> items = new ArrayList<Player>(pageSize);
+            boolean more = false;
+            while (rs.next()) {
+                if (items.size() == pageSize) {
+                    more = true;
+                    break;
+                }
+                items.add(extractFromRS(rs));
+            }
+
+            String next = null;
+            if (more) {
+                Player last = items.get(items.size() - 1);
+                next = new KeysetCursor(last.getJoinDate(), last.getId()).encode();
+            }
+            return new Page<Player>(items, next);
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    private static final String retrieveByJoinDateWithCardsSQL = selectWithCardsSQL
+            + "WHERE p.join_date > ? AND p.join_date < ? ORDER BY p.id, c.id";
+
+    @Override
+    public List<Player> retrieveByJoinDateWithCreditCards(Connection connection, Date start, Date end)
+            throws SQLException, DAOException
+    {
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, retrieveByJoinDateWithCardsSQL);
+            ps.setDate(1, new java.sql.Date(start.getTime()));
+            ps.setDate(2, new java.sql.Date(end.getTime()));
+            ResultSet rs = ps.executeQuery();
+            return extractWithCreditCards(rs);
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    private Player extractFromRS(ResultSet rs) throws SQLException
+    {
+        Player player = new Player();
+        player.setId(rs.getLong("id"));
+        player.setFirstName(rs.getString("first_name"));
+        player.setLastName(rs.getString("last_name"));
+        player.setJoinDate(rs.getDate("join_date"));
+        player.setEmail(rs.getString("email"));
+        return player;
+    }
+
+    /**
+     * Builds Players from a result set of selectWithCardsSQL ordered by player
+     * ID. Each player spans one row per card, or a single row with NULL card
+     * columns if it has none.
+     */
+    private List<Player> extractWithCreditCards(ResultSet rs) throws SQLException
+    {
+        List<Player> players = new ArrayList<Player>();
+        Player player = null;
+        while (rs.next()) {
+            long playerID = rs.getLong("id");
+            if (player == null || player.getId() != playerID) {
+                player = extractFromRS(rs);
+                player.setCreditCards(new ArrayList<CreditCard>());
+                players.add(player);
+            }
+
+            long ccID = rs.getLong("cc_id");
+            if (!rs.wasNull()) {
+                CreditCard creditCard = new CreditCard();
+                creditCard.setId(ccID);
+                creditCard.setPlayerID(playerID);
+                creditCard.setCcName(rs.getString("cc_name"));
+                creditCard.setCcNumber(rs.getString("cc_number"));
+                creditCard.setExpDate(DAOUtil.formatExpDate(rs.getString("exp_date")));
+                creditCard.setSecurityCode(rs.getInt("security_code"));
+                player.getCreditCards().add(creditCard);
+            }
+        }
+        return players;
+    }
 }
@@ -0,0 +1,301 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import cs4347.jdbcGame.dao.PlayerStatsDAO;
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.entity.PlayerStats;
+import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.StatementCache;
+
+public class PlayerStatsDAOImpl implements PlayerStatsDAO
+{
+    // Latest purchase or play of the player, or NULL if there is neither.
+    // GREATEST() is NULL if any argument is, so missing dates sort first.
+    private static final String lastActivity = "NULLIF(GREATEST("
+            + "COALESCE((SELECT MAX(purchase_date) FROM gamesowned WHERE player_ID = ?), DATE '1000-01-01'), "
+            + "COALESCE((SELECT MAX(time_finished) FROM gamesplayed WHERE player_ID = ?), DATE '1000-01-01')), "
+            + "DATE '1000-01-01')";
+
+    // Keeps the later of the stored and the new date, either of which may be NULL.
+    private static final String laterActivity = "GREATEST(COALESCE(last_activity, VALUES(last_activity)), "
+            + "COALESCE(VALUES(last_activity), last_activity))";
+
+    final static String ownedAddedSQL = "INSERT INTO playerstats "
+            + "(player_ID, games_owned, total_spend, games_played, best_score, last_activity) "
+            + "VALUES (?, 1, ?, 0, NULL, ?) ON DUPLICATE KEY UPDATE games_owned = games_owned + 1, "
+            + "total_spend = total_spend + VALUES(total_spend), last_activity = " + laterActivity;
+    @Override
+    public void ownedAdded(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException
+    {
+        checkPlayer(gamesOwned.getPlayerID());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, ownedAddedSQL);
+            ps.setLong(1, gamesOwned.getPlayerID());
+            ps.setBigDecimal(2, DAOUtil.toPrice(gamesOwned.getPurchasePrice()));
+            setDate(ps, 3, gamesOwned.getPurchaseDate());
+            ps.executeUpdate();
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String ownedRemovedSQL = "UPDATE playerstats SET games_owned = games_owned - 1, "
+            + "total_spend = total_spend - ?, last_activity = " + lastActivity + " WHERE player_ID = ?";
+    @Override
+    public void ownedRemoved(Connection connection, GamesOwned gamesOwned) throws SQLException, DAOException
+    {
+        checkPlayer(gamesOwned.getPlayerID());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, ownedRemovedSQL);
+            ps.setBigDecimal(1, DAOUtil.toPrice(gamesOwned.getPurchasePrice()));
+            ps.setLong(2, gamesOwned.getPlayerID());
+            ps.setLong(3, gamesOwned.getPlayerID());
+            ps.setLong(4, gamesOwned.getPlayerID());
+            ps.executeUpdate();
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String playedAddedSQL = "INSERT INTO playerstats "
+            + "(player_ID, games_owned, total_spend, games_played, best_score, last_activity) "
+            + "VALUES (?, 0, 0, 1, ?, ?) ON DUPLICATE KEY UPDATE games_played = games_played + 1, "
+            + "best_score = GREATEST(COALESCE(best_score, VALUES(best_score)), VALUES(best_score)), "
+            + "last_activity = " + laterActivity;
+    @Override
+    public void playedAdded(Connection connection, GamesPlayed gamesPlayed) throws SQLException, DAOException
+    {
+        checkPlayer(gamesPlayed.getPlayerID());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, playedAddedSQL);
+            ps.setLong(1, gamesPlayed.getPlayerID());
+            ps.setInt(2, gamesPlayed.getScore());
+            setDate(ps, 3, gamesPlayed.getTimeFinished());
+            ps.executeUpdate();
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String playedRemovedSQL = "UPDATE playerstats SET games_played = games_played - 1, "
+            + "best_score = (SELECT MAX(score) FROM gamesplayed WHERE player_ID = ?), "
+            + "last_activity = " + lastActivity + " WHERE player_ID = ?";
+    @Override
+    public void playedRemoved(Connection connection, GamesPlayed gamesPlayed) throws SQLException, DAOException
+    {
+        checkPlayer(gamesPlayed.getPlayerID());
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, playedRemovedSQL);
+            for (int idx = 1; idx <= 4; idx++) {
+                ps.setLong(idx, gamesPlayed.getPlayerID());
+            }
+            ps.executeUpdate();
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String retrieveSQL = "SELECT player_ID, games_owned, total_spend, games_played, best_score, "
+            + "last_activity FROM playerstats WHERE player_ID = ?";
+    @Override
+    public PlayerStats retrieve(Connection connection, Long playerID) throws SQLException, DAOException
+    {
+        checkPlayer(playerID);
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, retrieveSQL);
+            ps.setLong(1, playerID);
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? extractFromRS(rs) : null;
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String retrieveAllSQL = "SELECT player_ID, games_owned, total_spend, games_played, best_score, "
+            + "last_activity FROM playerstats WHERE player_ID IN (%s)";
+    @Override
+    public Map<Long, PlayerStats> retrieveAll(Connection connection, Collection<Long> playerIDs)
+            throws SQLException, DAOException
+    {
+        Map<Long, PlayerStats> found = new HashMap<Long, PlayerStats>();
+        for (PlayerStats stats : DAOUtil.executeInListQuery(connection, retrieveAllSQL, playerIDs, this::extractFromRS)) {
+            found.put(stats.getPlayerID(), stats);
+        }
+        return DAOUtil.inRequestOrder(playerIDs, found);
+    }
+
+    final static String playerIDRangeSQL = "SELECT MIN(id), MAX(id) FROM player";
+    @Override
+    public long[] playerIDRange(Connection connection) throws SQLException, DAOException
+    {
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, playerIDRangeSQL);
+            ResultSet rs = ps.executeQuery();
+            if (!rs.next()) {
+                return null;
+            }
+            long minID = rs.getLong(1);
+            if (rs.wasNull()) {
+                return null;
+            }
+            return new long[] { minID, rs.getLong(2) };
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    // Players with no purchases or plays get a row of zeros, so a rebuilt
+    // range has a row for every player.
+    final static String rebuildSQL = "REPLACE INTO playerstats "
+            + "(player_ID, games_owned, total_spend, games_played, best_score, last_activity) SELECT p.id, "
+            + "(SELECT COUNT(*) FROM gamesowned o WHERE o.player_ID = p.id), "
+            + "(SELECT COALESCE(SUM(o.purchase_price), 0) FROM gamesowned o WHERE o.player_ID = p.id), "
+            + "(SELECT COUNT(*) FROM gamesplayed g WHERE g.player_ID = p.id), "
+            + "(SELECT MAX(g.score) FROM gamesplayed g WHERE g.player_ID = p.id), "
+            + "NULLIF(GREATEST("
+            + "COALESCE((SELECT MAX(o.purchase_date) FROM gamesowned o WHERE o.player_ID = p.id), DATE '1000-01-01'), "
+            + "COALESCE((SELECT MAX(g.time_finished) FROM gamesplayed g WHERE g.player_ID = p.id), DATE '1000-01-01')), "
+            + "DATE '1000-01-01') "
+            + "FROM player p WHERE p.id BETWEEN ? AND ?";
+    @Override
+    public int rebuild(Connection connection, long fromID, long toID) throws SQLException, DAOException
+    {
+        if (fromID > toID) {
+            throw new DAOException("Empty player ID range: " + fromID + " to " + toID);
+        }
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, rebuildSQL);
+            ps.setLong(1, fromID);
+            ps.setLong(2, toID);
+            // REPLACE counts a replaced row twice, once for the delete.
+            ps.executeUpdate();
+            return countRange(connection, fromID, toID);
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String countRangeSQL = "SELECT COUNT(*) FROM playerstats WHERE player_ID BETWEEN ? AND ?";
+
+    private int countRange(Connection connection, long fromID, long toID) throws SQLException
+    {
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, countRangeSQL);
+            ps.setLong(1, fromID);
+            ps.setLong(2, toID);
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getInt(1);
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String deleteSQL = "DELETE FROM playerstats WHERE player_ID = ?";
+    @Override
+    public int delete(Connection connection, Long playerID) throws SQLException, DAOException
+    {
+        checkPlayer(playerID);
+        PreparedStatement ps = null;
+        try {
+            ps = StatementCache.prepareStatement(connection, deleteSQL);
+            ps.setLong(1, playerID);
+            return ps.executeUpdate();
+        }
+        finally {
+            if (ps != null && !ps.isClosed()) {
+                ps.close();
+            }
+        }
+    }
+
+    final static String deleteForPlayersSQL = "DELETE FROM playerstats WHERE player_ID IN (%s)";
+    @Override
+    public int deleteForPlayers(Connection connection, Collection<Long> playerIDs) throws SQLException, DAOException
+    {
+        return DAOUtil.executeInListUpdate(connection, deleteForPlayersSQL, playerIDs);
+    }
+
+    private static void checkPlayer(Long playerID) throws DAOException
+    {
+        if (playerID == null) {
+            throw new DAOException("Trying to update PlayerStats with NULL player ID");
+        }
+    }
+
+    private static void setDate(PreparedStatement ps, int index, Date date) throws SQLException
+    {
+        if (date == null) {
+            ps.setNull(index, Types.DATE);
+        }
+        else {
+            ps.setDate(index, new java.sql.Date(date.getTime()));
+        }
+    }
+
+    private PlayerStats extractFromRS(ResultSet rs) throws SQLException
+    {
+        PlayerStats stats = new PlayerStats();
+        stats.setPlayerID(rs.getLong("player_ID"));
+        stats.setGamesOwned(rs.getInt("games_owned"));
+        stats.setTotalSpend(rs.getBigDecimal("total_spend"));
+        stats.setGamesPlayed(rs.getInt("games_played"));
+        int bestScore = rs.getInt("best_score");
+        stats.setBestScore(rs.wasNull() ? null : bestScore);
+        stats.setLastActivity(rs.getDate("last_activity"));
+        return stats;
+    }
+}
@@ -0,0 +1,66 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Purchases and revenue of one game over one period: a day as stored in the
+ * GAME_REVENUE_DAILY table, or a week or month merged from those days.
+ */
+public class GameRevenue
+{
+    private Long gameID;
+    private Date periodStart;
+    private int purchases;
+    private BigDecimal revenue;
+
+    public Long getGameID()
+    {
+        return gameID;
+    }
+
+    public void setGameID(Long gameID)
+    {
+        this.gameID = gameID;
+    }
+
+    public Date getPeriodStart()
+    {
+        return periodStart;
+    }
+
+    public void setPeriodStart(Date periodStart)
+    {
+        this.periodStart = periodStart;
+    }
+
+    public int getPurchases()
+    {
+        return purchases;
+    }
+
+    public void setPurchases(int purchases)
+    {
+        this.purchases = purchases;
+    }
+
+    public BigDecimal getRevenue()
+    {
+        return revenue;
+    }
+
+    public void setRevenue(BigDecimal revenue)
+    {
+        this.revenue = revenue;
+    }
+}
@@ -0,0 +1,89 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.entity;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Per-player totals kept in the PLAYER_STATS table. bestScore and
+ * lastActivity are null while the player has no scored play, or no purchase
+ * or play, respectively.
+ */
+public class PlayerStats
+{
+    private Long playerID;
+    private int gamesOwned;
+    private BigDecimal totalSpend;
+    private int gamesPlayed;
+    private Integer bestScore;
+    private Date lastActivity;
+
+    public Long getPlayerID()
+    {
+        return playerID;
+    }
+
+    public void setPlayerID(Long playerID)
+    {
+        this.playerID = playerID;
+    }
+
+    public int getGamesOwned()
+    {
+        return gamesOwned;
+    }
+
+    public void setGamesOwned(int gamesOwned)
+    {
+        this.gamesOwned = gamesOwned;
+    }
+
+    public BigDecimal getTotalSpend()
+    {
+        return totalSpend;
+    }
+
+    public void setTotalSpend(BigDecimal totalSpend)
+    {
+        this.totalSpend = totalSpend;
+    }
+
+    public int getGamesPlayed()
+    {
+        return gamesPlayed;
+    }
+
+    public void setGamesPlayed(int gamesPlayed)
+    {
+        this.gamesPlayed = gamesPlayed;
+    }
+
+    public Integer getBestScore()
+    {
+        return bestScore;
+    }
+
+    public void setBestScore(Integer bestScore)
+    {
+        this.bestScore = bestScore;
+    }
+
+    public Date getLastActivity()
+    {
+        return lastActivity;
+    }
+
+    public void setLastActivity(Date lastActivity)
+    {
+        this.lastActivity = lastActivity;
+    }
+}
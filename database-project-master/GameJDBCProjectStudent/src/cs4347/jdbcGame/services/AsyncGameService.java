@@ -0,0 +1,46 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.util.Page;
+
+/**
+ * Asynchronous form of GameService. Each method runs the blocking one on a
+ * ServiceExecutor and completes the returned future with its result, or with
+ * the DAOException or SQLException it threw.
+ */
+public interface AsyncGameService
+{
+    CompletableFuture<Game> create(Game game);
+
+    CompletableFuture<Game> retrieve(long gameID);
+
+    CompletableFuture<Map<Long, Game>> retrieveAll(Collection<Long> gameIDs);
+
+    CompletableFuture<Integer> update(Game game);
+
+    CompletableFuture<Integer> delete(long gameID);
+
+    CompletableFuture<Integer> count();
+
+    CompletableFuture<List<Game>> retrieveByTitle(String titlePattern);
+
+    CompletableFuture<List<Game>> retrieveByReleaseDate(Date start, Date end);
+
+    CompletableFuture<Page<Game>> retrieveByReleaseDatePage(Date start, Date end, int pageSize, String after);
+}
@@ -0,0 +1,46 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import cs4347.jdbcGame.entity.GamesOwned;
+
+/**
+ * Asynchronous form of GamesOwnedService. Each method runs the blocking one on
+ * a ServiceExecutor and completes the returned future with its result, or with
+ * the DAOException or SQLException it threw. streamByGame() has no
+ * asynchronous form, since its Stream already reads rows as the caller
+ * consumes them.
+ */
+public interface AsyncGamesOwnedService
+{
+    CompletableFuture<GamesOwned> create(GamesOwned gamesOwned);
+
+    CompletableFuture<GamesOwned> retrieveByID(long gamesOwnedID);
+
+    CompletableFuture<Map<Long, GamesOwned>> retrieveAll(Collection<Long> gamesOwnedIDs);
+
+    CompletableFuture<GamesOwned> retrievePlayerGameID(long playerID, long gameID);
+
+    CompletableFuture<List<GamesOwned>> retrieveByGame(long gameID);
+
+    CompletableFuture<List<GamesOwned>> retrieveByPlayer(long playerID);
+
+    CompletableFuture<Integer> update(GamesOwned gamesOwned);
+
+    CompletableFuture<Integer> delete(long gamesOwnedID);
+
+    CompletableFuture<Integer> count();
+}
@@ -0,0 +1,89 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services;
+
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Date;
+import java.util.List;
+
+import cs4347.jdbcGame.entity.GameRevenue;
+import cs4347.jdbcGame.util.DAOException;
+
+/**
+ * Revenue reports read from the daily per-game buckets that
+ * GamesOwnedService keeps up to date, so their cost depends on the number of
+ * days and games reported rather than on the number of purchases.
+ */
+public interface GameRevenueService
+{
+    /**
+     * Report granularity. Weeks start on Monday.
+     */
+    enum Period
+    {
+        DAY, WEEK, MONTH;
+
+        /**
+         * Returns the first day of the period containing the given day.
+         */
+        public LocalDate start(LocalDate day)
+        {
+            switch (this) {
+            case WEEK:
+                return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return day.withDayOfMonth(1);
+            default:
+                return day;
+            }
+        }
+
+        /**
+         * Returns the last day of the period containing the given day.
+         */
+        public LocalDate end(LocalDate day)
+        {
+            switch (this) {
+            case WEEK:
+                return day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+            case MONTH:
+                return day.with(TemporalAdjusters.lastDayOfMonth());
+            default:
+                return day;
+            }
+        }
+    }
+
+    /**
+     * Returns the revenue of the given game for every period that overlaps
+     * start to end, ordered by period. The range is widened to whole periods,
+     * so the first and last week or month are complete. Periods without
+     * purchases are left out.
+     */
+    List<GameRevenue> revenue(long gameID, Date start, Date end, Period period) throws DAOException, SQLException;
+
+    /**
+     * Same as revenue(long, Date, Date, Period) for every game, ordered by game
+     * ID and period.
+     */
+    List<GameRevenue> revenueForAllGames(Date start, Date end, Period period) throws DAOException, SQLException;
+
+    /**
+     * Recomputes the buckets from GAMES_OWNED, chunkSize game IDs per
+     * transaction. Needed once for purchases written before the buckets
+     * existed or without going through GamesOwnedService. Returns the number of
+     * buckets written.
+     */
+    int backfill(int chunkSize) throws DAOException, SQLException;
+}
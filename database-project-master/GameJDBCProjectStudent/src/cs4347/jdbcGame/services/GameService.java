@@ -11,11 +11,14 @@
 package cs4347.jdbcGame.services;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import cs4347.jdbcGame.entity.Game;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.Page;
 
 public interface GameService
 {
@@ -23,6 +26,12 @@ public interface GameService
 
     Game retrieve(long gameID) throws DAOException, SQLException;
 
+    /**
+     * Retrieves many games with IN-list queries. Keyed by game ID in request
+     * order; unknown IDs are left out.
+     */
+    Map<Long, Game> retrieveAll(Collection<Long> gameIDs) throws DAOException, SQLException;
+
     int update(Game game) throws DAOException, SQLException;
 
     int delete(long gameID) throws DAOException, SQLException;
@@ -33,4 +42,9 @@ public interface GameService
 
     List<Game> retrieveByReleaseDate(Date start, Date end) throws DAOException, SQLException;
 
+    /**
+     * One page of retrieveByReleaseDate(). See GameDAO.retrieveByReleaseDatePage().
+     */
+    Page<Game> retrieveByReleaseDatePage(Date start, Date end, int pageSize, String after)
+            throws DAOException, SQLException;
 }
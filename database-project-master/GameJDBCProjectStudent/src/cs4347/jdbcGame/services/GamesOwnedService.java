@@ -11,7 +11,10 @@
 package cs4347.jdbcGame.services;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import cs4347.jdbcGame.entity.GamesOwned;
 import cs4347.jdbcGame.util.DAOException;
@@ -22,10 +25,24 @@ public interface GamesOwnedService
 
     GamesOwned retrieveByID(long gamesOwnedID) throws DAOException, SQLException;
 
+    /**
+     * Retrieves many GamesOwned rows by ID with IN-list queries. Keyed by ID in
+     * request order; unknown IDs are left out.
+     */
+    Map<Long, GamesOwned> retrieveAll(Collection<Long> gamesOwnedIDs) throws DAOException, SQLException;
+
     GamesOwned retrievePlayerGameID(long playerID, long gameID) throws DAOException, SQLException;
 
     List<GamesOwned> retrieveByGame(long gameID) throws DAOException, SQLException;
 
+    /**
+     * Streams the rows of the given game on a connection of its own, reading
+     * fetchSize rows per round trip. The connection is returned to the pool when
+     * the stream is closed, so always use try-with-resources. See
+     * GamesOwnedDAO.streamByGame().
+     */
+    Stream<GamesOwned> streamByGame(long gameID, int fetchSize) throws DAOException, SQLException;
+
     List<GamesOwned> retrieveByPlayer(long playerID) throws DAOException, SQLException;
 
     int update(GamesOwned gamesOwned) throws DAOException, SQLException;
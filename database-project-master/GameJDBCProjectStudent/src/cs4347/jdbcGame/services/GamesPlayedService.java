@@ -11,7 +11,10 @@
 package cs4347.jdbcGame.services;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import cs4347.jdbcGame.entity.GamesPlayed;
 import cs4347.jdbcGame.util.DAOException;
@@ -22,10 +25,35 @@ public interface GamesPlayedService
 
     GamesPlayed retrieveByID(long gamePlayedID) throws DAOException, SQLException;
 
+    /**
+     * Retrieves many GamesPlayed rows by ID with IN-list queries. Keyed by ID in
+     * request order; unknown IDs are left out.
+     */
+    Map<Long, GamesPlayed> retrieveAll(Collection<Long> gamesPlayedIDs) throws DAOException, SQLException;
+
     List<GamesPlayed> retrieveByPlayerGameID(long playerID, long gameID) throws DAOException, SQLException;
 
     List<GamesPlayed> retrieveByGame(long gameID) throws DAOException, SQLException;
 
+    /**
+     * Streams the rows of the given game on a connection of its own, reading
+     * fetchSize rows per round trip. The connection is returned to the pool when
+     * the stream is closed, so always use try-with-resources. See
+     * GamesPlayedDAO.streamByGame().
+     */
+    Stream<GamesPlayed> streamByGame(long gameID, int fetchSize) throws DAOException, SQLException;
+
+    /**
+     * Leaderboard reads; see GamesPlayedDAO.topScores(), rankOf() and
+     * scoresAround(). rankOf() returns null if the player has no scored play
+     * of the game.
+     */
+    List<GamesPlayed> topScores(long gameID, int n) throws DAOException, SQLException;
+
+    Long rankOf(long playerID, long gameID) throws DAOException, SQLException;
+
+    List<GamesPlayed> scoresAround(long playerID, long gameID, int window) throws DAOException, SQLException;
+
     List<GamesPlayed> retrieveByPlayer(long playerID) throws DAOException, SQLException;
 
     int update(GamesPlayed gamesPlayed) throws DAOException, SQLException;
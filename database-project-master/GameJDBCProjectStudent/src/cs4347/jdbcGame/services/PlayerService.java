@@ -11,22 +11,52 @@
 package cs4347.jdbcGame.services;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import cs4347.jdbcGame.entity.Player;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.Page;
 
 public interface PlayerService
 {
     Player create(Player player) throws DAOException, SQLException;
 
+    /**
+     * Retrieves the player with its credit cards.
+     */
     Player retrieve(Long playerID) throws DAOException, SQLException;
 
+    /**
+     * Retrieves the player in one query. Its creditCards are filled in only if
+     * withCreditCards is set, and left null otherwise.
+     */
+    Player retrieve(Long playerID, boolean withCreditCards) throws DAOException, SQLException;
+
+    /**
+     * Retrieves many players, with their credit cards, in a fixed number of
+     * round trips per MAX_IN_LIST_SIZE IDs. Keyed by player ID in request order;
+     * unknown IDs are left out.
+     */
+    Map<Long, Player> retrieveAll(Collection<Long> playerIDs) throws DAOException, SQLException;
+
     int update(Player player) throws DAOException, SQLException;
 
+    /**
+     * Deletes the player together with its credit cards, games owned and games
+     * played.
+     */
     int delete(Long playerID) throws DAOException, SQLException;
 
+    /**
+     * Deletes many players and their dependent rows in one transaction, using
+     * a fixed number of statements per MAX_IN_LIST_SIZE players. Returns the
+     * number of players deleted.
+     */
+    int deletePlayers(Collection<Long> playerIDs) throws DAOException, SQLException;
+
     int count() throws DAOException, SQLException;
 
     /**
@@ -34,6 +64,24 @@ public interface PlayerService
      */
     int countCreditCardsForPlayer(Long playerID) throws DAOException, SQLException;
 
+    /**
+     * Retrieves the players that joined in the range, without their credit
+     * cards.
+     */
     List<Player> retrieveByJoinDate(Date start, Date end) throws DAOException, SQLException;
 
+    /**
+     * Retrieves the players that joined in the range in one query, including
+     * their credit cards if withCreditCards is set. Either way the list is
+     * empty, not null, if no player joined in the range.
+     */
+    List<Player> retrieveByJoinDate(Date start, Date end, boolean withCreditCards)
+            throws DAOException, SQLException;
+
+    /**
+     * One page of retrieveByJoinDate(), without credit cards. See
+     * PlayerDAO.retrieveByJoinDatePage().
+     */
+    Page<Player> retrieveByJoinDatePage(Date start, Date end, int pageSize, String after)
+            throws DAOException, SQLException;
 }
@@ -0,0 +1,46 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+
+import cs4347.jdbcGame.entity.PlayerStats;
+import cs4347.jdbcGame.util.DAOException;
+
+/**
+ * Reads the per-player totals that GamesOwnedService and GamesPlayedService
+ * keep up to date as they write, and rebuilds them from scratch.
+ */
+public interface PlayerStatsService
+{
+    /**
+     * Returns the totals of the given player. A player with no purchases or
+     * plays gets zero counts and a null best score and last activity.
+     */
+    PlayerStats retrieve(long playerID) throws DAOException, SQLException;
+
+    /**
+     * Retrieves the totals of many players with IN-list queries. Keyed by
+     * player ID in request order; players without a stored row are left out.
+     */
+    Map<Long, PlayerStats> retrieveAll(Collection<Long> playerIDs) throws DAOException, SQLException;
+
+    /**
+     * Recomputes the totals of every player from GAMES_OWNED and GAMES_PLAYED.
+     * The player ID range is split into chunks of chunkSize IDs, each rebuilt in
+     * a transaction of its own on one of the given number of threads. Needed
+     * after rows were written without going through the services, such as by
+     * the bulk loaders. Returns the number of players rebuilt.
+     */
+    int rebuildAll(int threads, int chunkSize) throws DAOException, SQLException;
+}
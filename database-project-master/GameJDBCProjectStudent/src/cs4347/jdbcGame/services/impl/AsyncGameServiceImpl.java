@@ -0,0 +1,92 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.services.AsyncGameService;
+import cs4347.jdbcGame.services.GameService;
+import cs4347.jdbcGame.util.Page;
+import cs4347.jdbcGame.util.ServiceExecutor;
+
+/**
+ * Runs the calls of a blocking GameService on a ServiceExecutor.
+ */
+public class AsyncGameServiceImpl implements AsyncGameService
+{
+    private GameService delegate;
+    private ServiceExecutor executor;
+
+    public AsyncGameServiceImpl(GameService delegate, ServiceExecutor executor)
+    {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Game> create(Game game)
+    {
+        return executor.submit(() -> delegate.create(game));
+    }
+
+    @Override
+    public CompletableFuture<Game> retrieve(long gameID)
+    {
+        return executor.submit(() -> delegate.retrieve(gameID));
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, Game>> retrieveAll(Collection<Long> gameIDs)
+    {
+        return executor.submit(() -> delegate.retrieveAll(gameIDs));
+    }
+
+    @Override
+    public CompletableFuture<Integer> update(Game game)
+    {
+        return executor.submit(() -> delegate.update(game));
+    }
+
+    @Override
+    public CompletableFuture<Integer> delete(long gameID)
+    {
+        return executor.submit(() -> delegate.delete(gameID));
+    }
+
+    @Override
+    public CompletableFuture<Integer> count()
+    {
+        return executor.submit(() -> delegate.count());
+    }
+
+    @Override
+    public CompletableFuture<List<Game>> retrieveByTitle(String titlePattern)
+    {
+        return executor.submit(() -> delegate.retrieveByTitle(titlePattern));
+    }
+
+    @Override
+    public CompletableFuture<List<Game>> retrieveByReleaseDate(Date start, Date end)
+    {
+        return executor.submit(() -> delegate.retrieveByReleaseDate(start, end));
+    }
+
+    @Override
+    public CompletableFuture<Page<Game>> retrieveByReleaseDatePage(Date start, Date end, int pageSize, String after)
+    {
+        return executor.submit(() -> delegate.retrieveByReleaseDatePage(start, end, pageSize, after));
+    }
+}
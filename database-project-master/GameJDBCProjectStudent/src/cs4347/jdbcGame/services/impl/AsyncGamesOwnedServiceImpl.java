@@ -0,0 +1,90 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.services.AsyncGamesOwnedService;
+import cs4347.jdbcGame.services.GamesOwnedService;
+import cs4347.jdbcGame.util.ServiceExecutor;
+
+/**
+ * Runs the calls of a blocking GamesOwnedService on a ServiceExecutor.
+ */
+public class AsyncGamesOwnedServiceImpl implements AsyncGamesOwnedService
+{
+    private GamesOwnedService delegate;
+    private ServiceExecutor executor;
+
+    public AsyncGamesOwnedServiceImpl(GamesOwnedService delegate, ServiceExecutor executor)
+    {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<GamesOwned> create(GamesOwned gamesOwned)
+    {
+        return executor.submit(() -> delegate.create(gamesOwned));
+    }
+
+    @Override
+    public CompletableFuture<GamesOwned> retrieveByID(long gamesOwnedID)
+    {
+        return executor.submit(() -> delegate.retrieveByID(gamesOwnedID));
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, GamesOwned>> retrieveAll(Collection<Long> gamesOwnedIDs)
+    {
+        return executor.submit(() -> delegate.retrieveAll(gamesOwnedIDs));
+    }
+
+    @Override
+    public CompletableFuture<GamesOwned> retrievePlayerGameID(long playerID, long gameID)
+    {
+        return executor.submit(() -> delegate.retrievePlayerGameID(playerID, gameID));
+    }
+
+    @Override
+    public CompletableFuture<List<GamesOwned>> retrieveByGame(long gameID)
+    {
+        return executor.submit(() -> delegate.retrieveByGame(gameID));
+    }
+
+    @Override
+    public CompletableFuture<List<GamesOwned>> retrieveByPlayer(long playerID)
+    {
+        return executor.submit(() -> delegate.retrieveByPlayer(playerID));
+    }
+
+    @Override
+    public CompletableFuture<Integer> update(GamesOwned gamesOwned)
+    {
+        return executor.submit(() -> delegate.update(gamesOwned));
+    }
+
+    @Override
+    public CompletableFuture<Integer> delete(long gamesOwnedID)
+    {
+        return executor.submit(() -> delegate.delete(gamesOwnedID));
+    }
+
+    @Override
+    public CompletableFuture<Integer> count()
+    {
+        return executor.submit(() -> delegate.count());
+    }
+}
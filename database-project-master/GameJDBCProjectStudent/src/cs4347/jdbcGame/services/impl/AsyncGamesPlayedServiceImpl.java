@@ -0,0 +1,108 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.services.AsyncGamesPlayedService;
+import cs4347.jdbcGame.services.GamesPlayedService;
+import cs4347.jdbcGame.util.ServiceExecutor;
+
+/**
+ * Runs the calls of a blocking GamesPlayedService on a ServiceExecutor.
+ */
+public class AsyncGamesPlayedServiceImpl implements AsyncGamesPlayedService
+{
+    private GamesPlayedService delegate;
+    private ServiceExecutor executor;
+
+    public AsyncGamesPlayedServiceImpl(GamesPlayedService delegate, ServiceExecutor executor)
+    {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<GamesPlayed> create(GamesPlayed gamesPlayed)
+    {
+        return executor.submit(() -> delegate.create(gamesPlayed));
+    }
+
+    @Override
+    public CompletableFuture<GamesPlayed> retrieveByID(long gamePlayedID)
+    {
+        return executor.submit(() -> delegate.retrieveByID(gamePlayedID));
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, GamesPlayed>> retrieveAll(Collection<Long> gamesPlayedIDs)
+    {
+        return executor.submit(() -> delegate.retrieveAll(gamesPlayedIDs));
+    }
+
+    @Override
+    public CompletableFuture<List<GamesPlayed>> retrieveByPlayerGameID(long playerID, long gameID)
+    {
+        return executor.submit(() -> delegate.retrieveByPlayerGameID(playerID, gameID));
+    }
+
+    @Override
+    public CompletableFuture<List<GamesPlayed>> retrieveByGame(long gameID)
+    {
+        return executor.submit(() -> delegate.retrieveByGame(gameID));
+    }
+
+    @Override
+    public CompletableFuture<List<GamesPlayed>> topScores(long gameID, int n)
+    {
+        return executor.submit(() -> delegate.topScores(gameID, n));
+    }
+
+    @Override
+    public CompletableFuture<Long> rankOf(long playerID, long gameID)
+    {
+        return executor.submit(() -> delegate.rankOf(playerID, gameID));
+    }
+
+    @Override
+    public CompletableFuture<List<GamesPlayed>> scoresAround(long playerID, long gameID, int window)
+    {
+        return executor.submit(() -> delegate.scoresAround(playerID, gameID, window));
+    }
+
+    @Override
+    public CompletableFuture<List<GamesPlayed>> retrieveByPlayer(long playerID)
+    {
+        return executor.submit(() -> delegate.retrieveByPlayer(playerID));
+    }
+
+    @Override
+    public CompletableFuture<Integer> update(GamesPlayed gamesPlayed)
+    {
+        return executor.submit(() -> delegate.update(gamesPlayed));
+    }
+
+    @Override
+    public CompletableFuture<Integer> delete(long gamePlayedID)
+    {
+        return executor.submit(() -> delegate.delete(gamePlayedID));
+    }
+
+    @Override
+    public CompletableFuture<Integer> count()
+    {
+        return executor.submit(() -> delegate.count());
+    }
+}
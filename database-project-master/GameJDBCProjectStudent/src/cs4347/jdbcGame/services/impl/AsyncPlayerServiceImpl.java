@@ -0,0 +1,110 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import cs4347.jdbcGame.entity.Player;
+import cs4347.jdbcGame.services.AsyncPlayerService;
+import cs4347.jdbcGame.services.PlayerService;
+import cs4347.jdbcGame.util.Page;
+import cs4347.jdbcGame.util.ServiceExecutor;
+
+/**
+ * Runs the calls of a blocking PlayerService on a ServiceExecutor.
+ */
+public class AsyncPlayerServiceImpl implements AsyncPlayerService
+{
+    private PlayerService delegate;
+    private ServiceExecutor executor;
+
+    public AsyncPlayerServiceImpl(PlayerService delegate, ServiceExecutor executor)
+    {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public CompletableFuture<Player> create(Player player)
+    {
+        return executor.submit(() -> delegate.create(player));
+    }
+
+    @Override
+    public CompletableFuture<Player> retrieve(Long playerID)
+    {
+        return executor.submit(() -> delegate.retrieve(playerID));
+    }
+
+    @Override
+    public CompletableFuture<Player> retrieve(Long playerID, boolean withCreditCards)
+    {
+        return executor.submit(() -> delegate.retrieve(playerID, withCreditCards));
+    }
+
+    @Override
+    public CompletableFuture<Map<Long, Player>> retrieveAll(Collection<Long> playerIDs)
+    {
+        return executor.submit(() -> delegate.retrieveAll(playerIDs));
+    }
+
+    @Override
+    public CompletableFuture<Integer> update(Player player)
+    {
+        return executor.submit(() -> delegate.update(player));
+    }
+
+    @Override
+    public CompletableFuture<Integer> delete(Long playerID)
+    {
+        return executor.submit(() -> delegate.delete(playerID));
+    }
+
+    @Override
+    public CompletableFuture<Integer> deletePlayers(Collection<Long> playerIDs)
+    {
+        return executor.submit(() -> delegate.deletePlayers(playerIDs));
+    }
+
+    @Override
+    public CompletableFuture<Integer> count()
+    {
+        return executor.submit(() -> delegate.count());
+    }
+
+    @Override
+    public CompletableFuture<Integer> countCreditCardsForPlayer(Long playerID)
+    {
+        return executor.submit(() -> delegate.countCreditCardsForPlayer(playerID));
+    }
+
+    @Override
+    public CompletableFuture<List<Player>> retrieveByJoinDate(Date start, Date end)
+    {
+        return executor.submit(() -> delegate.retrieveByJoinDate(start, end));
+    }
+
+    @Override
+    public CompletableFuture<List<Player>> retrieveByJoinDate(Date start, Date end, boolean withCreditCards)
+    {
+        return executor.submit(() -> delegate.retrieveByJoinDate(start, end, withCreditCards));
+    }
+
+    @Override
+    public CompletableFuture<Page<Player>> retrieveByJoinDatePage(Date start, Date end, int pageSize, String after)
+    {
+        return executor.submit(() -> delegate.retrieveByJoinDatePage(start, end, pageSize, after));
+    }
+}
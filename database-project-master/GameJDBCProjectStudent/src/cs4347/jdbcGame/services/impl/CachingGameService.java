@@ -0,0 +1,293 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.services.GameService;
+import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.Page;
+import cs4347.jdbcGame.util.DAOUtil;
+
+/**
+ * Optional read-through cache in front of another GameService. retrieve() is
+ * served from memory when the game was loaded less than 'ttlMillis' ago; at
+ * most 'maxSize' games are kept, evicting the least recently used one.
+ * update() and delete() invalidate the cached entry once the delegate
+ * succeeds. Changes made to the GAME table without going through this service
+ * are only picked up when the entry expires.
+ * 
+ * Cached games are copied on the way in and out, so callers may modify the
+ * returned objects freely. Every other method is passed straight through.
+ */
+public class CachingGameService implements GameService
+{
+    private GameService delegate;
+    private int maxSize;
+    private long ttlNanos;
+
+    // Access-ordered, so iteration starts at the least recently used entry.
+    private LinkedHashMap<Long, CacheEntry> cache = new LinkedHashMap<Long, CacheEntry>(16, 0.75f, true);
+
+    // Bumped on every invalidation; a load that raced with one is not cached.
+    private long generation = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long expirations = 0;
+
+    public CachingGameService(GameService delegate, int maxSize, long ttlMillis)
+    {
+        if (maxSize <= 0 || ttlMillis <= 0) {
+            throw new IllegalArgumentException("maxSize and ttlMillis must be positive");
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    @Override
+    public Game create(Game game) throws DAOException, SQLException
+    {
+        Game g1 = delegate.create(game);
+        put(g1);
+        return g1;
+    }
+
+    @Override
+    public Game retrieve(long gameID) throws DAOException, SQLException
+    {
+        long loadGeneration;
+        synchronized (this) {
+            CacheEntry entry = cache.get(gameID);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits++;
+                    return copy(entry.game);
+                }
+                cache.remove(gameID);
+                expirations++;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        // Load outside the lock so concurrent misses do not queue up behind
+        // one another's database round trip.
+        Game g1 = delegate.retrieve(gameID);
+        if (g1 != null) {
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    put(g1);
+                }
+            }
+        }
+        return g1;
+    }
+
+    /**
+     * Answers what it can from the cache and loads the remaining IDs with a
+     * single delegate.retrieveAll() call.
+     */
+    @Override
+    public Map<Long, Game> retrieveAll(Collection<Long> gameIDs) throws DAOException, SQLException
+    {
+        Map<Long, Game> found = new HashMap<Long, Game>();
+        Set<Long> missing = new LinkedHashSet<Long>();
+        long loadGeneration;
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (Long gameID : gameIDs) {
+                if (gameID == null || found.containsKey(gameID) || missing.contains(gameID)) {
+                    continue;
+                }
+                CacheEntry entry = cache.get(gameID);
+                if (entry != null) {
+                    if (now - entry.loadedAt < ttlNanos) {
+                        hits++;
+                        found.put(gameID, copy(entry.game));
+                        continue;
+                    }
+                    cache.remove(gameID);
+                    expirations++;
+                }
+                misses++;
+                missing.add(gameID);
+            }
+            loadGeneration = generation;
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, Game> loaded = delegate.retrieveAll(missing);
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    for (Game g1 : loaded.values()) {
+                        put(g1);
+                    }
+                }
+            }
+            found.putAll(loaded);
+        }
+        return DAOUtil.inRequestOrder(gameIDs, found);
+    }
+
+    @Override
+    public int update(Game game) throws DAOException, SQLException
+    {
+        try {
+            return delegate.update(game);
+        }
+        finally {
+            // Invalidate even on failure; the row may or may not have changed.
+            invalidate(game.getId());
+        }
+    }
+
+    @Override
+    public int delete(long gameID) throws DAOException, SQLException
+    {
+        try {
+            return delegate.delete(gameID);
+        }
+        finally {
+            invalidate(gameID);
+        }
+    }
+
+    @Override
+    public int count() throws DAOException, SQLException
+    {
+        return delegate.count();
+    }
+
+    @Override
+    public List<Game> retrieveByTitle(String titlePattern) throws DAOException, SQLException
+    {
+        return delegate.retrieveByTitle(titlePattern);
+    }
+
+    @Override
+    public List<Game> retrieveByReleaseDate(Date start, Date end) throws DAOException, SQLException
+    {
+        return delegate.retrieveByReleaseDate(start, end);
+    }
+
+    @Override
+    public Page<Game> retrieveByReleaseDatePage(Date start, Date end, int pageSize, String after)
+            throws DAOException, SQLException
+    {
+        return delegate.retrieveByReleaseDatePage(start, end, pageSize, after);
+    }
+
+    /**
+     * Drops the given game from the cache.
+     */
+    public synchronized void invalidate(Long gameID)
+    {
+        generation++;
+        if (gameID != null) {
+            cache.remove(gameID);
+        }
+    }
+
+    public synchronized void invalidateAll()
+    {
+        generation++;
+        cache.clear();
+    }
+
+    public synchronized int size()
+    {
+        return cache.size();
+    }
+
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    public synchronized long getExpirations()
+    {
+        return expirations;
+    }
+
+    /**
+     * Fraction of retrieve() calls answered from the cache, 0 if there were
+     * none.
+     */
+    public synchronized double getHitRatio()
+    {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    public synchronized String getStats()
+    {
+        return "size=" + cache.size() + " hits=" + hits + " misses=" + misses + " evictions=" + evictions
+                + " expirations=" + expirations + " hitRatio=" + String.format("%.3f", getHitRatio());
+    }
+
+    private synchronized void put(Game game)
+    {
+        cache.put(game.getId(), new CacheEntry(copy(game), System.nanoTime()));
+        Iterator<CacheEntry> it = cache.values().iterator();
+        while (cache.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    private static Game copy(Game game)
+    {
+        Game result = new Game();
+        result.setId(game.getId());
+        result.setTitle(game.getTitle());
+        result.setDescription(game.getDescription());
+        result.setReleaseDate(game.getReleaseDate() == null ? null : new Date(game.getReleaseDate().getTime()));
+        result.setVersion(game.getVersion());
+        return result;
+    }
+
+    private static class CacheEntry
+    {
+        private Game game;
+        private long loadedAt;
+
+        CacheEntry(Game game, long loadedAt)
+        {
+            this.game = game;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
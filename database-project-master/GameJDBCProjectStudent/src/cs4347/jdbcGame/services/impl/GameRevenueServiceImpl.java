@@ -0,0 +1,148 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.dao.GameRevenueDAO;
+import cs4347.jdbcGame.dao.impl.GameRevenueDAOImpl;
+import cs4347.jdbcGame.entity.GameRevenue;
+import cs4347.jdbcGame.services.GameRevenueService;
+import cs4347.jdbcGame.util.DAOException;
+
+public class GameRevenueServiceImpl implements GameRevenueService
+{
+    private DataSource dataSource;
+
+    public GameRevenueServiceImpl(DataSource dataSource)
+    {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<GameRevenue> revenue(long gameID, Date start, Date end, Period period)
+            throws DAOException, SQLException
+    {
+        return retrieve(gameID, start, end, period);
+    }
+
+    @Override
+    public List<GameRevenue> revenueForAllGames(Date start, Date end, Period period) throws DAOException, SQLException
+    {
+        return retrieve(null, start, end, period);
+    }
+
+    private List<GameRevenue> retrieve(Long gameID, Date start, Date end, Period period)
+            throws DAOException, SQLException
+    {
+        if (start == null || end == null || period == null) {
+            throw new DAOException("Revenue report needs a start, an end and a period");
+        }
+        Date from = java.sql.Date.valueOf(period.start(new java.sql.Date(start.getTime()).toLocalDate()));
+        Date to = java.sql.Date.valueOf(period.end(new java.sql.Date(end.getTime()).toLocalDate()));
+
+        GameRevenueDAO revenueDAO = new GameRevenueDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            List<GameRevenue> days = gameID == null ? revenueDAO.retrieveDaily(connection, from, to)
+                    : revenueDAO.retrieveDaily(connection, gameID, from, to);
+            connection.commit();
+            return merge(days, period);
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * Adds up daily buckets, ordered by game and day, into one bucket per game
+     * and period. The days of a period are adjacent in that order.
+     */
+    static List<GameRevenue> merge(List<GameRevenue> days, Period period)
+    {
+        List<GameRevenue> result = new ArrayList<GameRevenue>();
+        GameRevenue current = null;
+        LocalDate currentStart = null;
+        for (GameRevenue day : days) {
+            LocalDate periodStart = period.start(new java.sql.Date(day.getPeriodStart().getTime()).toLocalDate());
+            if (current == null || !current.getGameID().equals(day.getGameID()) || !currentStart.equals(periodStart)) {
+                current = new GameRevenue();
+                current.setGameID(day.getGameID());
+                current.setPeriodStart(java.sql.Date.valueOf(periodStart));
+                current.setRevenue(day.getRevenue());
+                current.setPurchases(day.getPurchases());
+                currentStart = periodStart;
+                result.add(current);
+            }
+            else {
+                current.setRevenue(current.getRevenue().add(day.getRevenue()));
+                current.setPurchases(current.getPurchases() + day.getPurchases());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int backfill(int chunkSize) throws DAOException, SQLException
+    {
+        if (chunkSize <= 0) {
+            throw new DAOException("Chunk size must be positive: " + chunkSize);
+        }
+        GameRevenueDAO revenueDAO = new GameRevenueDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            long range[] = revenueDAO.gameIDRange(connection);
+            if (range == null) {
+                return 0;
+            }
+            // One short transaction per chunk keeps purchases of the other
+            // games from waiting on the backfill.
+            connection.setAutoCommit(false);
+            int buckets = 0;
+            for (long fromID = range[0]; fromID <= range[1]; fromID += chunkSize) {
+                long toID = Math.min(range[1], fromID + chunkSize - 1);
+                buckets += revenueDAO.backfill(connection, fromID, toID);
+                connection.commit();
+                if (toID == Long.MAX_VALUE) {
+                    break;
+                }
+            }
+            return buckets;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+}
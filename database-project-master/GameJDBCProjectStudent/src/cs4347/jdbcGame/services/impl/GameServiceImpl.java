@@ -12,8 +12,10 @@ package cs4347.jdbcGame.services.impl;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
@@ -22,6 +24,7 @@ import cs4347.jdbcGame.dao.impl.GameDAOImpl;
 import cs4347.jdbcGame.entity.Game;
 import cs4347.jdbcGame.services.GameService;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.Page;
 
 public class GameServiceImpl implements GameService
 {
@@ -82,6 +85,30 @@ public class GameServiceImpl implements GameService
         }
     }
 
+    @Override
+    public Map<Long, Game> retrieveAll(Collection<Long> gameIDs) throws DAOException, SQLException
+    {
+        GameDAO dao = new GameDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            Map<Long, Game> result = dao.retrieveAll(connection, gameIDs);
+            connection.commit();
+            return result;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
     @Override
     public int update(Game game) throws DAOException, SQLException
     {
@@ -207,4 +234,19 @@ public class GameServiceImpl implements GameService
         }
     }
 
-}
\ No newline at end of file
+    @Override
+    public Page<Game> retrieveByReleaseDatePage(Date start, Date end, int pageSize, String after)
+            throws DAOException, SQLException
+    {
+        GameDAO dao = new GameDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            return dao.retrieveByReleaseDatePage(connection, start, end, pageSize, after);
+        }
+        finally {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+}
@@ -11,13 +11,21 @@
 package cs4347.jdbcGame.services.impl;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
+import cs4347.jdbcGame.dao.GameRevenueDAO;
 import cs4347.jdbcGame.dao.GamesOwnedDAO;
+import cs4347.jdbcGame.dao.PlayerStatsDAO;
+import cs4347.jdbcGame.dao.impl.GameRevenueDAOImpl;
 import cs4347.jdbcGame.dao.impl.GamesOwnedDAOImpl;
+import cs4347.jdbcGame.dao.impl.PlayerStatsDAOImpl;
 import cs4347.jdbcGame.entity.GamesOwned;
 import cs4347.jdbcGame.services.GamesOwnedService;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
 
 public class GamesOwnedServiceImpl implements GamesOwnedService
 {
@@ -32,11 +40,15 @@ public class GamesOwnedServiceImpl implements GamesOwnedService
     public GamesOwned create(GamesOwned gamesOwned) throws DAOException, SQLException
     {
     	GamesOwnedDAO gamesDAO = new GamesOwnedDAOImpl();
+    	PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
+    	GameRevenueDAO revenueDAO = new GameRevenueDAOImpl();
     	Connection connection = dataSource.getConnection();
     	
         try {
             connection.setAutoCommit(false);
             GamesOwned g1 = gamesDAO.create(connection, gamesOwned);   
+            statsDAO.ownedAdded(connection, g1);
+            revenueDAO.purchaseAdded(connection, g1);
             connection.commit();
             return g1;
         } catch (Exception ex) {
@@ -79,6 +91,30 @@ public class GamesOwnedServiceImpl implements GamesOwnedService
     }
     }
 
+    @Override
+    public Map<Long, GamesOwned> retrieveAll(Collection<Long> gamesOwnedIDs) throws DAOException, SQLException
+    {
+        GamesOwnedDAO dao = new GamesOwnedDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            Map<Long, GamesOwned> result = dao.retrieveAll(connection, gamesOwnedIDs);
+            connection.commit();
+            return result;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
     @Override
     public GamesOwned retrievePlayerGameID(long playerID, long gameID) throws DAOException, SQLException
     {
@@ -131,6 +167,20 @@ public class GamesOwnedServiceImpl implements GamesOwnedService
     }
     }
 
+    @Override
+    public Stream<GamesOwned> streamByGame(long gameID, int fetchSize) throws DAOException, SQLException
+    {
+        GamesOwnedDAO gamesDAO = new GamesOwnedDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            // The stream owns the connection from here on.
+            return gamesDAO.streamByGame(connection, gameID, fetchSize).onClose(DAOUtil.closeAction(connection));
+        } catch (Exception ex) {
+            connection.close();
+            throw ex;
+        }
+    }
+
     @Override
     public List<GamesOwned> retrieveByPlayer(long playerID) throws DAOException, SQLException
     {
@@ -160,11 +210,23 @@ public class GamesOwnedServiceImpl implements GamesOwnedService
     public int update(GamesOwned gamesOwned) throws DAOException, SQLException
     {
     	GamesOwnedDAO gamesDAO = new GamesOwnedDAOImpl();
+    	PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
+    	GameRevenueDAO revenueDAO = new GameRevenueDAOImpl();
     	Connection connection = dataSource.getConnection();
     	
         try {
             connection.setAutoCommit(false);
+            // Applied as removing the old row and adding the new one, which also
+            // covers a change of player. The old row is read locked so a concurrent
+            // update of the same row waits instead of removing the same values twice.
+            GamesOwned previous = gamesOwned.getId() == null ? null : gamesDAO.retrieveForUpdate(connection, gamesOwned.getId());
             int g1 = gamesDAO.update(connection, gamesOwned);   
+            if (previous != null && g1 > 0) {
+                statsDAO.ownedRemoved(connection, previous);
+                statsDAO.ownedAdded(connection, gamesOwned);
+                revenueDAO.purchaseRemoved(connection, previous);
+                revenueDAO.purchaseAdded(connection, gamesOwned);
+            }
             connection.commit();
             return g1;
         } catch (Exception ex) {
@@ -185,11 +247,18 @@ public class GamesOwnedServiceImpl implements GamesOwnedService
     public int delete(long gameOwnedID) throws DAOException, SQLException{
     	
     	GamesOwnedDAO gamesDAO = new GamesOwnedDAOImpl();
+    	PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
+    	GameRevenueDAO revenueDAO = new GameRevenueDAOImpl();
     	Connection connection = dataSource.getConnection();
     	
         try {
             connection.setAutoCommit(false);
+            GamesOwned previous = gamesDAO.retrieveForUpdate(connection, gameOwnedID);
             int g1 = gamesDAO.delete(connection, gameOwnedID);   
+            if (previous != null && g1 > 0) {
+                statsDAO.ownedRemoved(connection, previous);
+                revenueDAO.purchaseRemoved(connection, previous);
+            }
             connection.commit();
             return g1;
         } catch (Exception ex) {
@@ -12,17 +12,23 @@ package cs4347.jdbcGame.services.impl;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
 import cs4347.jdbcGame.dao.GamesPlayedDAO;
+import cs4347.jdbcGame.dao.PlayerStatsDAO;
 import cs4347.jdbcGame.dao.impl.GamesPlayedDAOImpl;
+import cs4347.jdbcGame.dao.impl.PlayerStatsDAOImpl;
 import cs4347.jdbcGame.entity.CreditCard;
 import cs4347.jdbcGame.entity.GamesPlayed;
 import cs4347.jdbcGame.entity.Player;
 import cs4347.jdbcGame.services.GamesPlayedService;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
 
 public class GamesPlayedServiceImpl implements GamesPlayedService
 {
@@ -37,11 +43,13 @@ public class GamesPlayedServiceImpl implements GamesPlayedService
     public GamesPlayed create(GamesPlayed gamesPlayed) throws DAOException, SQLException
     {
     	GamesPlayedDAO gamesDAO = new GamesPlayedDAOImpl();
+    	PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
     	Connection connection = dataSource.getConnection();
     	
         try {
             connection.setAutoCommit(false);
             GamesPlayed g1 = gamesDAO.create(connection, gamesPlayed);   
+            statsDAO.playedAdded(connection, g1);
             connection.commit();
             return g1;
         } catch (Exception ex) {
@@ -83,6 +91,30 @@ public class GamesPlayedServiceImpl implements GamesPlayedService
         }
     }
 
+    @Override
+    public Map<Long, GamesPlayed> retrieveAll(Collection<Long> gamesPlayedIDs) throws DAOException, SQLException
+    {
+        GamesPlayedDAO dao = new GamesPlayedDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            Map<Long, GamesPlayed> result = dao.retrieveAll(connection, gamesPlayedIDs);
+            connection.commit();
+            return result;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
     @Override
     public List<GamesPlayed> retrieveByPlayerGameID(long playerID, long gameID) throws DAOException, SQLException
     {
@@ -133,6 +165,97 @@ public class GamesPlayedServiceImpl implements GamesPlayedService
         }
     }
 
+    @Override
+    public Stream<GamesPlayed> streamByGame(long gameID, int fetchSize) throws DAOException, SQLException
+    {
+        GamesPlayedDAO gamesDAO = new GamesPlayedDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            // The stream owns the connection from here on.
+            return gamesDAO.streamByGame(connection, gameID, fetchSize).onClose(DAOUtil.closeAction(connection));
+        } catch (Exception ex) {
+            connection.close();
+            throw ex;
+        }
+    }
+
+    @Override
+    public List<GamesPlayed> topScores(long gameID, int n) throws DAOException, SQLException
+    {
+        GamesPlayedDAO gamesDAO = new GamesPlayedDAOImpl();
+        Connection connection = dataSource.getConnection();
+
+        try {
+            connection.setAutoCommit(false);
+            List<GamesPlayed> scores = gamesDAO.topScores(connection, gameID, n);
+            connection.commit();
+            return scores;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
+    @Override
+    public Long rankOf(long playerID, long gameID) throws DAOException, SQLException
+    {
+        GamesPlayedDAO gamesDAO = new GamesPlayedDAOImpl();
+        Connection connection = dataSource.getConnection();
+
+        try {
+            connection.setAutoCommit(false);
+            Long rank = gamesDAO.rankOf(connection, playerID, gameID);
+            connection.commit();
+            return rank;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
+    @Override
+    public List<GamesPlayed> scoresAround(long playerID, long gameID, int window) throws DAOException, SQLException
+    {
+        GamesPlayedDAO gamesDAO = new GamesPlayedDAOImpl();
+        Connection connection = dataSource.getConnection();
+
+        try {
+            // One transaction, so the rows above and below come from the same
+            // snapshot.
+            connection.setAutoCommit(false);
+            List<GamesPlayed> scores = gamesDAO.scoresAround(connection, playerID, gameID, window);
+            connection.commit();
+            return scores;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
     @Override
     public List<GamesPlayed> retrieveByPlayer(long playerID) throws DAOException, SQLException
     {
@@ -162,11 +285,20 @@ public class GamesPlayedServiceImpl implements GamesPlayedService
     public int update(GamesPlayed gamesPlayed) throws DAOException, SQLException
     {
     	GamesPlayedDAO gamesDAO = new GamesPlayedDAOImpl();
+    	PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
     	Connection connection = dataSource.getConnection();
     	
         try {
             connection.setAutoCommit(false);
+            // Applied as removing the old row and adding the new one, which also
+            // covers a change of player. The old row is read locked so a concurrent
+            // update of the same row waits instead of removing the same values twice.
+            GamesPlayed previous = gamesPlayed.getId() == null ? null : gamesDAO.retrieveForUpdate(connection, gamesPlayed.getId());
             int g1 = gamesDAO.update(connection, gamesPlayed);   
+            if (previous != null && g1 > 0) {
+                statsDAO.playedRemoved(connection, previous);
+                statsDAO.playedAdded(connection, gamesPlayed);
+            }
             connection.commit();
             return g1;
         } catch (Exception ex) {
@@ -187,11 +319,16 @@ public class GamesPlayedServiceImpl implements GamesPlayedService
     public int delete(long gamePlayedID) throws DAOException, SQLException
     {
     	GamesPlayedDAO gamesDAO = new GamesPlayedDAOImpl();
+    	PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
     	Connection connection = dataSource.getConnection();
     	
         try {
             connection.setAutoCommit(false);
+            GamesPlayed previous = gamesDAO.retrieveForUpdate(connection, gamePlayedID);
             int g1 = gamesDAO.delete(connection, gamePlayedID);   
+            if (previous != null && g1 > 0) {
+                statsDAO.playedRemoved(connection, previous);
+            }
             connection.commit();
             return g1;
         } catch (Exception ex) {
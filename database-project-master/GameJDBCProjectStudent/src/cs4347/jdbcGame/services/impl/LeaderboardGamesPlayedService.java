@@ -0,0 +1,441 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.dao.GamesPlayedDAO;
+import cs4347.jdbcGame.dao.GamesPlayedVisitor;
+import cs4347.jdbcGame.dao.impl.GamesPlayedDAOImpl;
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.services.GamesPlayedService;
+import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.Leaderboard;
+
+/**
+ * Optional layer in front of another GamesPlayedService that answers
+ * topScores(), rankOf() and scoresAround() from an in-memory Leaderboard per
+ * game instead of the database. A game's leaderboard is loaded from the
+ * database the first time it is asked for; rebuild() loads every game with a
+ * single table scan, and is meant to be called at startup.
+ * 
+ * create(), update() and delete() change the leaderboards once the delegate
+ * has committed. Writes to the same play are serialized, so the leaderboards
+ * apply them in the order the database did. Writes that race with a load are
+ * queued and replayed on the loaded leaderboard; replaying a write the load
+ * already saw is harmless because put() and remove() are keyed by play ID.
+ * Changes made to the GAMES_PLAYED table without going through this service
+ * (for example PlayerService.delete()) are only picked up by rebuild() or
+ * invalidate().
+ * 
+ * Plays with a NULL score are left out, as GamesPlayedDAO leaves them out of
+ * its rankings. Only games with at least one scored play keep a leaderboard in
+ * memory: asking about a game without one, or an unknown game ID, reads the
+ * database each time rather than adding an empty leaderboard to the map.
+ * Every other method is passed straight through.
+ */
+public class LeaderboardGamesPlayedService implements GamesPlayedService
+{
+    private static final int WRITE_STRIPES = 64;
+
+    private GamesPlayedService delegate;
+    private DataSource dataSource;
+
+    private volatile ConcurrentHashMap<Long, Board> boards = new ConcurrentHashMap<Long, Board>();
+
+    // Serializes the writes to one play, from the delegate call through the
+    // leaderboard update. Not monitors: a virtual thread blocked in JDBC while
+    // holding a monitor would pin its carrier thread.
+    private final ReentrantLock writeLocks[] = new ReentrantLock[WRITE_STRIPES];
+
+    // Guards rebuilding and rebuildPending.
+    private final Object rebuildLock = new Object();
+    private boolean rebuilding = false;
+    private List<Write> rebuildPending = new ArrayList<Write>();
+
+    public LeaderboardGamesPlayedService(GamesPlayedService delegate, DataSource dataSource)
+    {
+        this.delegate = delegate;
+        this.dataSource = dataSource;
+        for (int idx = 0; idx < WRITE_STRIPES; idx++) {
+            writeLocks[idx] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public GamesPlayed create(GamesPlayed gamesPlayed) throws DAOException, SQLException
+    {
+        // The ID is only known afterwards, but no one else can write the play
+        // before create() returns it.
+        GamesPlayed g1 = delegate.create(gamesPlayed);
+        ReentrantLock lock = writeLock(g1.getId());
+        lock.lock();
+        try {
+            apply(new Write(g1.getGameID(), g1.getId(), g1));
+        }
+        finally {
+            lock.unlock();
+        }
+        return g1;
+    }
+
+    @Override
+    public int update(GamesPlayed gamesPlayed) throws DAOException, SQLException
+    {
+        ReentrantLock lock = writeLock(gamesPlayed.getId());
+        lock.lock();
+        try {
+            GamesPlayed old = delegate.retrieveByID(gamesPlayed.getId());
+            int rows = delegate.update(gamesPlayed);
+            if (old != null && !old.getGameID().equals(gamesPlayed.getGameID())) {
+                apply(new Write(old.getGameID(), old.getId(), null));
+            }
+            if (rows > 0) {
+                apply(new Write(gamesPlayed.getGameID(), gamesPlayed.getId(), gamesPlayed));
+            }
+            return rows;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int delete(long gamePlayedID) throws DAOException, SQLException
+    {
+        ReentrantLock lock = writeLock(gamePlayedID);
+        lock.lock();
+        try {
+            GamesPlayed old = delegate.retrieveByID(gamePlayedID);
+            int rows = delegate.delete(gamePlayedID);
+            if (old != null) {
+                apply(new Write(old.getGameID(), gamePlayedID, null));
+            }
+            return rows;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<GamesPlayed> topScores(long gameID, int n) throws DAOException, SQLException
+    {
+        if (n <= 0) {
+            throw new DAOException("Number of scores must be positive: " + n);
+        }
+        return leaderboard(gameID).top(n);
+    }
+
+    @Override
+    public Long rankOf(long playerID, long gameID) throws DAOException, SQLException
+    {
+        return leaderboard(gameID).rankOf(playerID);
+    }
+
+    @Override
+    public List<GamesPlayed> scoresAround(long playerID, long gameID, int window) throws DAOException, SQLException
+    {
+        if (window < 0) {
+            throw new DAOException("Window must not be negative: " + window);
+        }
+        return leaderboard(gameID).around(playerID, window);
+    }
+
+    @Override
+    public GamesPlayed retrieveByID(long gamePlayedID) throws DAOException, SQLException
+    {
+        return delegate.retrieveByID(gamePlayedID);
+    }
+
+    @Override
+    public Map<Long, GamesPlayed> retrieveAll(Collection<Long> gamesPlayedIDs) throws DAOException, SQLException
+    {
+        return delegate.retrieveAll(gamesPlayedIDs);
+    }
+
+    @Override
+    public List<GamesPlayed> retrieveByPlayerGameID(long playerID, long gameID) throws DAOException, SQLException
+    {
+        return delegate.retrieveByPlayerGameID(playerID, gameID);
+    }
+
+    @Override
+    public List<GamesPlayed> retrieveByGame(long gameID) throws DAOException, SQLException
+    {
+        return delegate.retrieveByGame(gameID);
+    }
+
+    @Override
+    public Stream<GamesPlayed> streamByGame(long gameID, int fetchSize) throws DAOException, SQLException
+    {
+        return delegate.streamByGame(gameID, fetchSize);
+    }
+
+    @Override
+    public List<GamesPlayed> retrieveByPlayer(long playerID) throws DAOException, SQLException
+    {
+        return delegate.retrieveByPlayer(playerID);
+    }
+
+    @Override
+    public int count() throws DAOException, SQLException
+    {
+        return delegate.count();
+    }
+
+    /**
+     * Replaces every leaderboard with one built from a single scan of the
+     * GAMES_PLAYED table. Queries keep using the old leaderboards until the
+     * scan is done.
+     */
+    public void rebuild() throws DAOException, SQLException
+    {
+        synchronized (rebuildLock) {
+            rebuilding = true;
+            rebuildPending.clear();
+        }
+        Map<Long, Leaderboard> loaded = new HashMap<Long, Leaderboard>();
+        try {
+            Connection connection = dataSource.getConnection();
+            try {
+                new GamesPlayedDAOImpl().forEach(connection, DAOUtil.STREAM_ROW_BY_ROW, loader(loaded, null));
+            }
+            finally {
+                connection.close();
+            }
+        } catch (Exception ex) {
+            synchronized (rebuildLock) {
+                rebuilding = false;
+                rebuildPending.clear();
+            }
+            throw ex;
+        }
+
+        ConcurrentHashMap<Long, Board> fresh = new ConcurrentHashMap<Long, Board>();
+        for (Map.Entry<Long, Leaderboard> entry : loaded.entrySet()) {
+            fresh.put(entry.getKey(), new Board(entry.getValue()));
+        }
+        synchronized (rebuildLock) {
+            for (Write write : rebuildPending) {
+                Board board = fresh.get(write.gameID);
+                if (board == null) {
+                    board = new Board(new Leaderboard());
+                    fresh.put(write.gameID, board);
+                }
+                write.applyTo(board.leaderboard);
+            }
+            // Writes from here on see the new map.
+            boards = fresh;
+            rebuilding = false;
+            rebuildPending.clear();
+        }
+    }
+
+    /**
+     * Drops the leaderboard of the given game; it is loaded again when next
+     * asked for.
+     */
+    public void invalidate(long gameID)
+    {
+        boards.remove(gameID);
+    }
+
+    public void invalidateAll()
+    {
+        boards.clear();
+    }
+
+    /**
+     * Number of games whose leaderboard is in memory.
+     */
+    public int size()
+    {
+        return boards.size();
+    }
+
+    private ReentrantLock writeLock(long playID)
+    {
+        return writeLocks[(int) Math.floorMod(playID, (long) WRITE_STRIPES)];
+    }
+
+    private void apply(Write write)
+    {
+        synchronized (rebuildLock) {
+            if (rebuilding) {
+                rebuildPending.add(write);
+            }
+        }
+        Board board = boards.get(write.gameID);
+        if (board != null) {
+            board.apply(write);
+        }
+    }
+
+    private Leaderboard leaderboard(long gameID) throws DAOException, SQLException
+    {
+        Board board = boards.computeIfAbsent(gameID, id -> new Board(null));
+        Leaderboard leaderboard = board.loaded(gameID);
+        if (leaderboard.size() == 0) {
+            // Dropping a board is always safe: the next read loads it again.
+            boards.remove(gameID, board);
+        }
+        return leaderboard;
+    }
+
+    private GamesPlayedVisitor loader(Map<Long, Leaderboard> leaderboards, Leaderboard only)
+    {
+        return (id, playerID, gameID, finishedEpochDay, score, scoreNull) -> {
+            if (scoreNull) {
+                return;
+            }
+            GamesPlayed play = new GamesPlayed();
+            play.setId(id);
+            play.setPlayerID(playerID);
+            play.setGameID(gameID);
+            if (finishedEpochDay != GamesPlayedVisitor.NULL_DAY) {
+                play.setTimeFinished(java.sql.Date.valueOf(LocalDate.ofEpochDay(finishedEpochDay)));
+            }
+            play.setScore(score);
+
+            Leaderboard leaderboard = only;
+            if (leaderboard == null) {
+                leaderboard = leaderboards.get(gameID);
+                if (leaderboard == null) {
+                    leaderboard = new Leaderboard();
+                    leaderboards.put(gameID, leaderboard);
+                }
+            }
+            leaderboard.put(play);
+        };
+    }
+
+    /**
+     * The leaderboard of one game, loaded on first use.
+     */
+    private class Board
+    {
+        private volatile Leaderboard leaderboard;
+
+        // Guards loading and pending; loadLock makes concurrent first readers
+        // wait for one load.
+        private final ReentrantLock loadLock = new ReentrantLock();
+        private boolean loading = false;
+        private List<Write> pending = new ArrayList<Write>();
+
+        Board(Leaderboard leaderboard)
+        {
+            this.leaderboard = leaderboard;
+        }
+
+        Leaderboard loaded(long gameID) throws DAOException, SQLException
+        {
+            Leaderboard current = leaderboard;
+            if (current != null) {
+                return current;
+            }
+            loadLock.lock();
+            try {
+                if (leaderboard != null) {
+                    return leaderboard;
+                }
+                synchronized (this) {
+                    loading = true;
+                    pending.clear();
+                }
+                Leaderboard fresh = new Leaderboard();
+                try {
+                    Connection connection = dataSource.getConnection();
+                    try {
+                        GamesPlayedDAO gamesDAO = new GamesPlayedDAOImpl();
+                        gamesDAO.forEachByGame(connection, gameID, DAOUtil.STREAM_ROW_BY_ROW, loader(null, fresh));
+                    }
+                    finally {
+                        connection.close();
+                    }
+                } catch (Exception ex) {
+                    synchronized (this) {
+                        loading = false;
+                        pending.clear();
+                    }
+                    throw ex;
+                }
+                synchronized (this) {
+                    for (Write write : pending) {
+                        write.applyTo(fresh);
+                    }
+                    leaderboard = fresh;
+                    loading = false;
+                    pending.clear();
+                }
+                return fresh;
+            }
+            finally {
+                loadLock.unlock();
+            }
+        }
+
+        /**
+         * Applies a committed write. A board that is not loading and not
+         * loaded ignores it: its load starts after the commit and sees it.
+         */
+        synchronized void apply(Write write)
+        {
+            if (leaderboard != null) {
+                write.applyTo(leaderboard);
+            }
+            else if (loading) {
+                pending.add(write);
+            }
+        }
+    }
+
+    /**
+     * A committed change to one play: the new row, or null when the play left
+     * the game.
+     */
+    private static class Write
+    {
+        private final long gameID;
+        private final long playID;
+        private final GamesPlayed play;
+
+        Write(long gameID, long playID, GamesPlayed play)
+        {
+            this.gameID = gameID;
+            this.playID = playID;
+            this.play = play;
+        }
+
+        void applyTo(Leaderboard leaderboard)
+        {
+            if (play == null) {
+                leaderboard.remove(playID);
+            }
+            else {
+                leaderboard.put(play);
+            }
+        }
+    }
+}
@@ -12,19 +12,33 @@ package cs4347.jdbcGame.services.impl;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
 import cs4347.jdbcGame.dao.CreditCardDAO;
+import cs4347.jdbcGame.dao.GameRevenueDAO;
+import cs4347.jdbcGame.dao.GamesOwnedDAO;
+import cs4347.jdbcGame.dao.GamesPlayedDAO;
 import cs4347.jdbcGame.dao.PlayerDAO;
+import cs4347.jdbcGame.dao.PlayerStatsDAO;
 import cs4347.jdbcGame.dao.impl.CreditCardDAOImpl;
+import cs4347.jdbcGame.dao.impl.GameRevenueDAOImpl;
+import cs4347.jdbcGame.dao.impl.GamesOwnedDAOImpl;
+import cs4347.jdbcGame.dao.impl.GamesPlayedDAOImpl;
 import cs4347.jdbcGame.dao.impl.PlayerDAOImpl;
+import cs4347.jdbcGame.dao.impl.PlayerStatsDAOImpl;
 import cs4347.jdbcGame.entity.CreditCard;
 import cs4347.jdbcGame.entity.Player;
 import cs4347.jdbcGame.services.PlayerService;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.Page;
 
 public class PlayerServiceImpl implements PlayerService
 {
@@ -72,23 +86,22 @@ public class PlayerServiceImpl implements PlayerService
 
     @Override
     public Player retrieve(Long playerID) throws DAOException, SQLException
+    {
+        return retrieve(playerID, true);
+    }
+
+    @Override
+    public Player retrieve(Long playerID, boolean withCreditCards) throws DAOException, SQLException
     {
     	PlayerDAO playerDAO = new PlayerDAOImpl();
-    	CreditCardDAO ccDAO = new CreditCardDAOImpl();
     	
     	Connection connection = dataSource.getConnection();
     	try {
-    		//Get the player
-    		Player p1 = playerDAO.retrieve(connection, playerID);
-    		
-    		if(p1 == null) {
-    			return null;
+    		//Get the player, and its credit cards from the same result set
+    		if (withCreditCards) {
+    			return playerDAO.retrieveWithCreditCards(connection, playerID);
     		}
-    		
-    		//Get the associated credit cards
-    		p1.setCreditCards(ccDAO.retrieveCreditCardsForPlayer(connection, playerID));
-    		
-    		return p1;
+    		return playerDAO.retrieve(connection, playerID);
     	} catch (Exception ex) {
             throw ex;
         }
@@ -102,6 +115,36 @@ public class PlayerServiceImpl implements PlayerService
         }
     }
 
+    @Override
+    public Map<Long, Player> retrieveAll(Collection<Long> playerIDs) throws DAOException, SQLException
+    {
+        PlayerDAO playerDAO = new PlayerDAOImpl();
+        CreditCardDAO ccDAO = new CreditCardDAOImpl();
+
+        Connection connection = dataSource.getConnection();
+        try {
+            Map<Long, Player> players = playerDAO.retrieveAll(connection, playerIDs);
+            if (players.isEmpty()) {
+                return players;
+            }
+
+            //Get the CC's of every found player at once
+            Map<Long, List<CreditCard>> cards = ccDAO.retrieveCreditCardsForPlayers(connection, players.keySet());
+            for (Player player : players.values()) {
+                player.setCreditCards(cards.get(player.getId()));
+            }
+            return players;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
     @Override
     public int update(Player player) throws DAOException, SQLException
     {
@@ -113,21 +156,42 @@ public class PlayerServiceImpl implements PlayerService
             connection.setAutoCommit(false);
          
             Long playerID = player.getId();
-            
-            List<CreditCard> test = player.getCreditCards();
-            //Update the CC's
-            for(CreditCard card : player.getCreditCards()) {
-            	//If the CC exists, update it
-            	if(card.getId() != null && ccDAO.retrieve(connection, card.getId()) != null) {
-            		ccDAO.update(connection, card);
-            	}
-            	//Otherwise, create a new one
-            	else {
-            		ccDAO.create(connection, card, playerID);
-            	}
-            	
+            if (playerID == null) {
+                throw new DAOException("Trying to update Player with NULL ID");
             }
-            
+            //Cards missing from the list are deleted, so an empty list would
+            //wipe them all (e.g. a Player loaded without its cards)
+            if (player.getCreditCards() == null || player.getCreditCards().size() == 0) {
+                throw new DAOException("Player must have at lease one CreditCard");
+            }
+
+            //Sync the CC's as a diff against the cards currently stored
+            Map<Long, CreditCard> existing = new HashMap<Long, CreditCard>();
+            for (CreditCard card : ccDAO.retrieveCreditCardsForPlayer(connection, playerID)) {
+                existing.put(card.getId(), card);
+            }
+
+            List<CreditCard> inserts = new ArrayList<CreditCard>();
+            List<CreditCard> updates = new ArrayList<CreditCard>();
+            for (CreditCard card : player.getCreditCards()) {
+                card.setPlayerID(playerID);
+                if (card.getId() == null) {
+                    inserts.add(card);
+                }
+                else if (existing.remove(card.getId()) != null) {
+                    updates.add(card);
+                }
+                else {
+                    throw new DAOException("CreditCard " + card.getId() + " does not belong to Player " + playerID);
+                }
+            }
+            //Whatever is left was dropped from the player's list
+            ccDAO.deleteAll(connection, existing.keySet());
+            ccDAO.updateAll(connection, updates);
+            if (!inserts.isEmpty()) {
+                ccDAO.createAll(connection, inserts);
+            }
+
             int count = playerDAO.update(connection, player);
             connection.commit();
             
@@ -151,15 +215,21 @@ public class PlayerServiceImpl implements PlayerService
     {
     	PlayerDAO playerDAO = new PlayerDAOImpl();
         CreditCardDAO ccDAO = new CreditCardDAOImpl();
+        GamesOwnedDAO gamesOwnedDAO = new GamesOwnedDAOImpl();
+        GamesPlayedDAO gamesPlayedDAO = new GamesPlayedDAOImpl();
+        PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
+        GameRevenueDAO revenueDAO = new GameRevenueDAOImpl();
 
         Connection connection = dataSource.getConnection();
         try {
             connection.setAutoCommit(false);
             
-            //Delete the CC's first because they are referencing the players
-            for(CreditCard card : ccDAO.retrieveCreditCardsForPlayer(connection, playerID)) {
-            	ccDAO.delete(connection, card.getId());
-            }
+            //Delete the rows referencing the player first, one statement per table
+            ccDAO.deleteForPlayer(connection, playerID);
+            revenueDAO.purchasesRemovedForPlayers(connection, Collections.singletonList(playerID));
+            gamesOwnedDAO.deleteForPlayer(connection, playerID);
+            gamesPlayedDAO.deleteForPlayer(connection, playerID);
+            statsDAO.delete(connection, playerID);
             
             //Finally, delete the player
             int count = playerDAO.delete(connection, playerID);
@@ -180,6 +250,44 @@ public class PlayerServiceImpl implements PlayerService
         }
     }
 
+    @Override
+    public int deletePlayers(Collection<Long> playerIDs) throws DAOException, SQLException
+    {
+    	PlayerDAO playerDAO = new PlayerDAOImpl();
+        CreditCardDAO ccDAO = new CreditCardDAOImpl();
+        GamesOwnedDAO gamesOwnedDAO = new GamesOwnedDAOImpl();
+        GamesPlayedDAO gamesPlayedDAO = new GamesPlayedDAOImpl();
+        PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
+        GameRevenueDAO revenueDAO = new GameRevenueDAOImpl();
+
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+
+            //Same order as delete(), but each table is purged with IN-lists
+            ccDAO.deleteForPlayers(connection, playerIDs);
+            revenueDAO.purchasesRemovedForPlayers(connection, playerIDs);
+            gamesOwnedDAO.deleteForPlayers(connection, playerIDs);
+            gamesPlayedDAO.deleteForPlayers(connection, playerIDs);
+            statsDAO.deleteForPlayers(connection, playerIDs);
+            int count = playerDAO.deleteAll(connection, playerIDs);
+            connection.commit();
+
+            return count;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
     @Override
     public int count() throws DAOException, SQLException
     {
@@ -204,12 +312,22 @@ public class PlayerServiceImpl implements PlayerService
 
     @Override
     public List<Player> retrieveByJoinDate(Date start, Date end) throws DAOException, SQLException
+    {
+        return retrieveByJoinDate(start, end, false);
+    }
+
+    @Override
+    public List<Player> retrieveByJoinDate(Date start, Date end, boolean withCreditCards)
+            throws DAOException, SQLException
     {
     	//Retrieve the players that joined between a certain date range
     	PlayerDAO playerDAO = new PlayerDAOImpl();
 
         Connection connection = dataSource.getConnection();
         try {
+        	if (withCreditCards) {
+        		return playerDAO.retrieveByJoinDateWithCreditCards(connection, start, end);
+        	}
         	return playerDAO.retrieveByJoinDate(connection, start, end);
         } catch (Exception ex) {
             connection.rollback();
@@ -250,4 +368,19 @@ public class PlayerServiceImpl implements PlayerService
         }
     }
 
+    @Override
+    public Page<Player> retrieveByJoinDatePage(Date start, Date end, int pageSize, String after)
+            throws DAOException, SQLException
+    {
+        PlayerDAO dao = new PlayerDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            return dao.retrieveByJoinDatePage(connection, start, end, pageSize, after);
+        }
+        finally {
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
 }
@@ -0,0 +1,188 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.dao.PlayerStatsDAO;
+import cs4347.jdbcGame.dao.impl.PlayerStatsDAOImpl;
+import cs4347.jdbcGame.entity.PlayerStats;
+import cs4347.jdbcGame.services.PlayerStatsService;
+import cs4347.jdbcGame.util.DAOException;
+
+public class PlayerStatsServiceImpl implements PlayerStatsService
+{
+    private DataSource dataSource;
+
+    public PlayerStatsServiceImpl(DataSource dataSource)
+    {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public PlayerStats retrieve(long playerID) throws DAOException, SQLException
+    {
+        PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            PlayerStats stats = statsDAO.retrieve(connection, playerID);
+            connection.commit();
+            if (stats == null) {
+                // No purchase or play has been recorded yet.
+                stats = new PlayerStats();
+                stats.setPlayerID(playerID);
+                stats.setTotalSpend(BigDecimal.ZERO.setScale(2));
+            }
+            return stats;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
+    @Override
+    public Map<Long, PlayerStats> retrieveAll(Collection<Long> playerIDs) throws DAOException, SQLException
+    {
+        PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            Map<Long, PlayerStats> result = statsDAO.retrieveAll(connection, playerIDs);
+            connection.commit();
+            return result;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
+    @Override
+    public int rebuildAll(int threads, int chunkSize) throws DAOException, SQLException
+    {
+        if (threads <= 0) {
+            throw new DAOException("Thread count must be positive: " + threads);
+        }
+        if (chunkSize <= 0) {
+            throw new DAOException("Chunk size must be positive: " + chunkSize);
+        }
+
+        long range[];
+        Connection connection = dataSource.getConnection();
+        try {
+            range = new PlayerStatsDAOImpl().playerIDRange(connection);
+        }
+        finally {
+            connection.close();
+        }
+        if (range == null) {
+            return 0;
+        }
+
+        // Each chunk is short and commits on its own, so the rebuild never
+        // holds locks on more than 'threads' chunks of players at a time.
+        List<Callable<Integer>> chunks = new ArrayList<Callable<Integer>>();
+        for (long fromID = range[0]; fromID <= range[1]; fromID += chunkSize) {
+            long start = fromID;
+            long end = Math.min(range[1], fromID + chunkSize - 1);
+            chunks.add(() -> rebuild(start, end));
+            if (end == Long.MAX_VALUE) {
+                break;
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, chunks.size()));
+        try {
+            int rebuilt = 0;
+            for (Future<Integer> future : executor.invokeAll(chunks)) {
+                rebuilt += awaitResult(future);
+            }
+            return rebuilt;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new DAOException("Interrupted while rebuilding player stats", ex);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int rebuild(long fromID, long toID) throws DAOException, SQLException
+    {
+        PlayerStatsDAO statsDAO = new PlayerStatsDAOImpl();
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            int rebuilt = statsDAO.rebuild(connection, fromID, toID);
+            connection.commit();
+            return rebuilt;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            if (connection != null) {
+                connection.setAutoCommit(true);
+            }
+            if (connection != null && !connection.isClosed()) {
+                connection.close();
+            }
+        }
+    }
+
+    private static int awaitResult(Future<Integer> future) throws DAOException, SQLException, InterruptedException
+    {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof DAOException) {
+                throw (DAOException) cause;
+            }
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DAOException("Player stats rebuild failed", cause);
+        }
+    }
+}
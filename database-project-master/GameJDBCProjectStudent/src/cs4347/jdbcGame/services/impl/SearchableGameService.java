@@ -0,0 +1,339 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.services.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.dao.impl.GameDAOImpl;
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.services.GameService;
+import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
+import cs4347.jdbcGame.util.GameSearchIndex;
+import cs4347.jdbcGame.util.Page;
+import cs4347.jdbcGame.util.TitleAutocomplete;
+
+/**
+ * Optional layer in front of another GameService that adds search(), a ranked
+ * full-text search over game titles and descriptions answered from an
+ * in-memory GameSearchIndex. The index is built with one scan of the GAME
+ * table by rebuild(), which is meant to be called at startup; otherwise the
+ * first search() builds it. The same scan fills a TitleAutocomplete behind
+ * complete(), which suggests titles for a typed prefix.
+ * 
+ * create(), update() and delete() change the index once the delegate has
+ * committed, and complete() follows them the same way. Writes to the same
+ * game are serialized, so the index applies them in the order the database
+ * did. Writes that race with a rebuild are queued and replayed on the new
+ * index. Changes made to the GAME table without going through this service
+ * are only picked up by rebuild().
+ * 
+ * Every other method is passed straight through.
+ */
+public class SearchableGameService implements GameService
+{
+    private static final int WRITE_STRIPES = 64;
+
+    private GameService delegate;
+    private DataSource dataSource;
+
+    // titles is always assigned before index, so a non-null index means both
+    // are built.
+    private volatile GameSearchIndex index = null;
+    private volatile TitleAutocomplete titles = null;
+
+    // Held across the delegate's JDBC calls, so they are ReentrantLocks for the
+    // same reason as in LeaderboardGamesPlayedService.
+    private final ReentrantLock writeLocks[] = new ReentrantLock[WRITE_STRIPES];
+
+    // Guards rebuilding and pending.
+    private final Object rebuildLock = new Object();
+    private boolean rebuilding = false;
+    private List<Write> pending = new ArrayList<Write>();
+
+    // Held for the whole of a build, so builds never overlap and the first
+    // searches wait for the build in progress instead of starting another.
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    public SearchableGameService(GameService delegate, DataSource dataSource)
+    {
+        this.delegate = delegate;
+        this.dataSource = dataSource;
+        for (int idx = 0; idx < WRITE_STRIPES; idx++) {
+            writeLocks[idx] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Game create(Game game) throws DAOException, SQLException
+    {
+        Game g1 = delegate.create(game);
+        ReentrantLock lock = writeLock(g1.getId());
+        lock.lock();
+        try {
+            apply(g1.getId(), g1);
+        }
+        finally {
+            lock.unlock();
+        }
+        return g1;
+    }
+
+    @Override
+    public int update(Game game) throws DAOException, SQLException
+    {
+        if (game.getId() == null) {
+            return delegate.update(game);
+        }
+        ReentrantLock lock = writeLock(game.getId());
+        lock.lock();
+        try {
+            int rows = delegate.update(game);
+            if (rows > 0) {
+                apply(game.getId(), game);
+            }
+            return rows;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int delete(long gameID) throws DAOException, SQLException
+    {
+        ReentrantLock lock = writeLock(gameID);
+        lock.lock();
+        try {
+            int rows = delegate.delete(gameID);
+            apply(gameID, null);
+            return rows;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of at most limit games whose title or description
+     * contains any word of the query, best match first. See GameSearchIndex for
+     * the ranking.
+     */
+    public List<Long> search(String query, int limit) throws DAOException, SQLException
+    {
+        if (limit <= 0) {
+            throw new DAOException("Limit must be positive: " + limit);
+        }
+        return loaded().search(query, limit);
+    }
+
+    /**
+     * Returns at most limit distinct titles that start with the given prefix,
+     * ignoring case, in alphabetical order. See TitleAutocomplete.
+     */
+    public List<String> complete(String prefix, int limit) throws DAOException, SQLException
+    {
+        if (limit <= 0) {
+            throw new DAOException("Limit must be positive: " + limit);
+        }
+        loaded();
+        return titles.complete(prefix, limit);
+    }
+
+    @Override
+    public Game retrieve(long gameID) throws DAOException, SQLException
+    {
+        return delegate.retrieve(gameID);
+    }
+
+    @Override
+    public Map<Long, Game> retrieveAll(Collection<Long> gameIDs) throws DAOException, SQLException
+    {
+        return delegate.retrieveAll(gameIDs);
+    }
+
+    @Override
+    public int count() throws DAOException, SQLException
+    {
+        return delegate.count();
+    }
+
+    @Override
+    public List<Game> retrieveByTitle(String titlePattern) throws DAOException, SQLException
+    {
+        return delegate.retrieveByTitle(titlePattern);
+    }
+
+    @Override
+    public List<Game> retrieveByReleaseDate(Date start, Date end) throws DAOException, SQLException
+    {
+        return delegate.retrieveByReleaseDate(start, end);
+    }
+
+    @Override
+    public Page<Game> retrieveByReleaseDatePage(Date start, Date end, int pageSize, String after)
+            throws DAOException, SQLException
+    {
+        return delegate.retrieveByReleaseDatePage(start, end, pageSize, after);
+    }
+
+    /**
+     * Replaces the index and the title completions with ones built from a
+     * single scan of the GAME table. Searches keep using the old ones until the
+     * scan is done. A rebuild that starts while another is running waits for it.
+     */
+    public void rebuild() throws DAOException, SQLException
+    {
+        loadLock.lock();
+        try {
+            build();
+        }
+        finally {
+            loadLock.unlock();
+        }
+    }
+
+    // Only called with loadLock held.
+    private void build() throws DAOException, SQLException
+    {
+        synchronized (rebuildLock) {
+            rebuilding = true;
+            pending.clear();
+        }
+        GameSearchIndex fresh = new GameSearchIndex();
+        TitleAutocomplete freshTitles = new TitleAutocomplete();
+        try {
+            // The scan is in ID order, so the titles are sorted once at the end.
+            Map<Long, String> scanned = new HashMap<Long, String>();
+            Connection connection = dataSource.getConnection();
+            try {
+                new GameDAOImpl().forEach(connection, DAOUtil.STREAM_ROW_BY_ROW, (id, title, description) -> {
+                    fresh.put(id, title, description);
+                    scanned.put(id, title);
+                });
+            }
+            finally {
+                connection.close();
+            }
+            freshTitles.putAll(scanned);
+        } catch (Exception ex) {
+            synchronized (rebuildLock) {
+                rebuilding = false;
+                pending.clear();
+            }
+            throw ex;
+        }
+
+        synchronized (rebuildLock) {
+            for (Write write : pending) {
+                write.applyTo(fresh, freshTitles);
+            }
+            // Writes from here on see the new index.
+            titles = freshTitles;
+            index = fresh;
+            rebuilding = false;
+            pending.clear();
+        }
+    }
+
+    /**
+     * Number of games in the index, 0 before it is built.
+     */
+    public int size()
+    {
+        GameSearchIndex current = index;
+        return current == null ? 0 : current.size();
+    }
+
+    private GameSearchIndex loaded() throws DAOException, SQLException
+    {
+        GameSearchIndex current = index;
+        if (current != null) {
+            return current;
+        }
+        loadLock.lock();
+        try {
+            if (index == null) {
+                build();
+            }
+            return index;
+        }
+        finally {
+            loadLock.unlock();
+        }
+    }
+
+    private ReentrantLock writeLock(long gameID)
+    {
+        return writeLocks[(int) Math.floorMod(gameID, (long) WRITE_STRIPES)];
+    }
+
+    /**
+     * Applies a committed write: the new row, or null when the game was
+     * deleted. An index that is not built and not rebuilding ignores it; its
+     * build starts after the commit and sees it.
+     */
+    private void apply(long gameID, Game game)
+    {
+        Write write = new Write(gameID, game);
+        synchronized (rebuildLock) {
+            if (rebuilding) {
+                pending.add(write);
+            }
+            GameSearchIndex current = index;
+            if (current != null) {
+                write.applyTo(current, titles);
+            }
+        }
+    }
+
+    /**
+     * A committed change to one game. The text is copied, since the caller may
+     * reuse the Game.
+     */
+    private static class Write
+    {
+        private final long gameID;
+        private final boolean deleted;
+        private final String title;
+        private final String description;
+
+        Write(long gameID, Game game)
+        {
+            this.gameID = gameID;
+            this.deleted = game == null;
+            this.title = deleted ? null : game.getTitle();
+            this.description = deleted ? null : game.getDescription();
+        }
+
+        void applyTo(GameSearchIndex target, TitleAutocomplete targetTitles)
+        {
+            if (deleted) {
+                target.remove(gameID);
+                targetTitles.remove(gameID);
+            }
+            else {
+                target.put(gameID, title, description);
+                targetTitles.put(gameID, title);
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Small helpers shared by the DAO implementations.
+ */
+public class DAOUtil
+{
+    /**
+     * Number of rows sent to the server per executeBatch() call when the caller
+     * does not specify a batch size.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * Largest number of values bound into a single "IN (?, ?, ...)" list. Longer
+     * ID collections are split into several statements.
+     */
+    public static final int MAX_IN_LIST_SIZE = 1000;
+
+    /**
+     * Fetch size that makes the MySQL driver stream a result set one row at a
+     * time on any connection. A positive fetch size only bounds memory when the
+     * connection has 'useCursorFetch' enabled; otherwise the driver reads the
+     * whole result before returning.
+     */
+    public static final int STREAM_ROW_BY_ROW = Integer.MIN_VALUE;
+
+    /**
+     * Validates the batch size passed to the createAll methods.
+     */
+    public static void checkBatchSize(int batchSize) throws DAOException
+    {
+        if (batchSize <= 0) {
+            throw new DAOException("Batch size must be positive: " + batchSize);
+        }
+    }
+
+    /**
+     * Validates the page size passed to the paginated retrieve methods.
+     */
+    public static void checkPageSize(int pageSize) throws DAOException
+    {
+        if (pageSize <= 0) {
+            throw new DAOException("Page size must be positive: " + pageSize);
+        }
+    }
+
+    /**
+     * Validates the fetch size passed to the streaming retrieve methods.
+     */
+    public static void checkFetchSize(int fetchSize) throws DAOException
+    {
+        if (fetchSize <= 0 && fetchSize != STREAM_ROW_BY_ROW) {
+            throw new DAOException("Fetch size must be positive or STREAM_ROW_BY_ROW: " + fetchSize);
+        }
+    }
+
+    /**
+     * Copies the keys generated by one executeBatch() call into the given list.
+     * The driver returns the keys in the same order the rows were added to the
+     * batch.
+     */
+    public static void collectKeys(ResultSet keyRS, List<Long> keys, int expected) throws SQLException, DAOException
+    {
+        int found = 0;
+        try {
+            while (keyRS.next()) {
+                keys.add(keyRS.getLong(1));
+                found++;
+            }
+        }
+        finally {
+            keyRS.close();
+        }
+        if (found != expected) {
+            throw new DAOException("Expected " + expected + " generated keys but received " + found);
+        }
+    }
+
+    /**
+     * Returns "?, ?, ..., ?" with the given number of placeholders, for use in
+     * an IN list.
+     */
+    public static String placeholders(int count)
+    {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int idx = 0; idx < count; idx++) {
+            if (idx > 0) {
+                sb.append(", ");
+            }
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Splits the given IDs into lists of at most MAX_IN_LIST_SIZE elements.
+     * Null IDs are rejected.
+     */
+    public static List<List<Long>> chunkIDs(Collection<Long> ids) throws DAOException
+    {
+        List<List<Long>> chunks = new ArrayList<List<Long>>();
+        List<Long> chunk = null;
+        for (Long id : ids) {
+            if (id == null) {
+                throw new DAOException("NULL ID in ID list");
+            }
+            if (chunk == null || chunk.size() == MAX_IN_LIST_SIZE) {
+                chunk = new ArrayList<Long>(Math.min(MAX_IN_LIST_SIZE, ids.size()));
+                chunks.add(chunk);
+            }
+            chunk.add(id);
+        }
+        return chunks;
+    }
+
+    /**
+     * Adds up the row counts returned by executeBatch(). The driver reports
+     * SUCCESS_NO_INFO when it rewrites a batch into one statement; each of those
+     * is counted as one row.
+     */
+    public static int sumUpdateCounts(int counts[])
+    {
+        int rows = 0;
+        for (int count : counts) {
+            if (count == Statement.SUCCESS_NO_INFO) {
+                rows++;
+            }
+            else if (count > 0) {
+                rows += count;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Runs an update statement containing one "%s" IN-list placeholder for
+     * every chunk of MAX_IN_LIST_SIZE IDs, and returns the total number of rows
+     * affected. The statements are not cached because their SQL text varies
+     * with the number of IDs.
+     */
+    public static int executeInListUpdate(Connection connection, String sqlTemplate, Collection<Long> ids)
+            throws SQLException, DAOException
+    {
+        int rows = 0;
+        for (List<Long> chunk : chunkIDs(ids)) {
+            PreparedStatement ps = null;
+            try {
+                ps = connection.prepareStatement(String.format(sqlTemplate, placeholders(chunk.size())));
+                for (int idx = 0; idx < chunk.size(); idx++) {
+                    ps.setLong(idx + 1, chunk.get(idx));
+                }
+                rows += ps.executeUpdate();
+            }
+            finally {
+                if (ps != null && !ps.isClosed()) {
+                    ps.close();
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Builds one entity from the current row of a ResultSet.
+     */
+    public interface RowMapper<T>
+    {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Runs a query containing one "%s" IN-list placeholder for every chunk of
+     * MAX_IN_LIST_SIZE distinct IDs and returns all rows, mapped in the order
+     * the server returned them.
+     */
+    public static <T> List<T> executeInListQuery(Connection connection, String sqlTemplate, Collection<Long> ids,
+            RowMapper<T> mapper) throws SQLException, DAOException
+    {
+        List<T> result = new ArrayList<T>();
+        for (List<Long> chunk : chunkIDs(new LinkedHashSet<Long>(ids))) {
+            PreparedStatement ps = null;
+            try {
+                ps = connection.prepareStatement(String.format(sqlTemplate, placeholders(chunk.size())));
+                for (int idx = 0; idx < chunk.size(); idx++) {
+                    ps.setLong(idx + 1, chunk.get(idx));
+                }
+                ResultSet rs = ps.executeQuery();
+                while (rs.next()) {
+                    result.add(mapper.map(rs));
+                }
+            }
+            finally {
+                if (ps != null && !ps.isClosed()) {
+                    ps.close();
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the found entities keyed by ID, iterating in the order of the
+     * requested IDs. IDs that were not found are left out.
+     */
+    public static <T> Map<Long, T> inRequestOrder(Collection<Long> ids, Map<Long, T> found)
+    {
+        Map<Long, T> result = new LinkedHashMap<Long, T>();
+        for (Long id : ids) {
+            T item = found.get(id);
+            if (item != null) {
+                result.put(id, item);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Executes the query and returns its rows as a lazy Stream. Rows are read
+     * from the driver only as the stream is consumed, so with a suitable fetch
+     * size heap use does not depend on the size of the result. Closing the
+     * stream closes the statement; the statement is also closed if the query
+     * fails. SQLExceptions raised while reading are wrapped in
+     * UncheckedSQLException.
+     */
+    public static <T> Stream<T> stream(PreparedStatement ps, RowMapper<T> mapper) throws SQLException
+    {
+        ResultSet rs;
+        try {
+            rs = ps.executeQuery();
+        }
+        catch (SQLException ex) {
+            ps.close();
+            throw ex;
+        }
+
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action)
+            {
+                try {
+                    if (!rs.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(rs));
+                    return true;
+                }
+                catch (SQLException ex) {
+                    throw new UncheckedSQLException(ex);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(closeAction(ps));
+    }
+
+    /**
+     * Returns a Stream.onClose() handler that closes the given statement or
+     * connection.
+     */
+    public static Runnable closeAction(AutoCloseable resource)
+    {
+        return () -> {
+            try {
+                resource.close();
+            }
+            catch (SQLException ex) {
+                throw new UncheckedSQLException(ex);
+            }
+            catch (RuntimeException ex) {
+                throw ex;
+            }
+            catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        };
+    }
+
+    /**
+     * Rounds a purchase price the way the DECIMAL(10,2) purchase_price column
+     * stores it, so totals kept in Java or in the summary tables match
+     * SUM(purchase_price).
+     */
+    public static BigDecimal toPrice(float price)
+    {
+        return new BigDecimal(Float.toString(price)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static final DateTimeFormatter EXP_DATE_FORMAT = DateTimeFormatter.ofPattern("M/yy");
+
+    // Forms accepted for a card expiry date: "12/25", "12/2025", "25-Dec" (the
+    // sample data) and the DATE column of the v2 schema read as a string.
+    private static final DateTimeFormatter EXP_DATE_INPUTS[] = { EXP_DATE_FORMAT,
+            DateTimeFormatter.ofPattern("M/yyyy"),
+            new DateTimeFormatterBuilder().parseCaseInsensitive().appendPattern("yy-MMM").toFormatter(Locale.ENGLISH),
+            DateTimeFormatter.ISO_LOCAL_DATE };
+
+    private static YearMonth parseExpDate(String expDate)
+    {
+        if (expDate == null) {
+            return null;
+        }
+        for (DateTimeFormatter format : EXP_DATE_INPUTS) {
+            try {
+                return YearMonth.parse(expDate.trim(), format);
+            }
+            catch (DateTimeParseException ex) {
+                // Try the next form.
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Converts a card expiry date to the first day of its month, for binding to
+     * CreditCard.exp_date.
+     */
+    public static java.sql.Date toExpDate(String expDate) throws DAOException
+    {
+        YearMonth month = parseExpDate(expDate);
+        if (month == null) {
+            throw new DAOException("Invalid credit card expiry date: " + expDate);
+        }
+        return java.sql.Date.valueOf(month.atDay(1));
+    }
+
+    /**
+     * Returns a stored expiry date as "M/yy". Values written before exp_date
+     * became a DATE column are returned unchanged if they cannot be parsed.
+     */
+    public static String formatExpDate(String stored)
+    {
+        YearMonth month = parseExpDate(stored);
+        return month == null ? stored : month.format(EXP_DATE_FORMAT);
+    }
+}
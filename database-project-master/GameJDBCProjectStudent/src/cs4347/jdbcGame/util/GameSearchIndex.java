@@ -0,0 +1,255 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the title and description of every game. Text is split
+ * into lower-case tokens of letters and digits; each token maps to the games
+ * containing it and a weight that counts a title occurrence TITLE_WEIGHT times
+ * and a description occurrence once.
+ * 
+ * search() ranks games by the sum over the query tokens of weight times
+ * ln(1 + games / games containing the token), so rare tokens count more than
+ * common ones. Ties go to the lowest game ID. Tokens are scored rarest first;
+ * once no game matching only the remaining tokens could reach the current
+ * top results, those tokens just add to the games already found, so a common
+ * word does not cost a pass over every game containing it.
+ * 
+ * Any number of searches run concurrently; put() and remove() take an
+ * exclusive lock.
+ */
+public class GameSearchIndex
+{
+    public static final int TITLE_WEIGHT = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, Posting> postings = new HashMap<String, Posting>();
+    // game ID -> token -> weight, to remove a game's postings
+    private Map<Long, Map<String, Integer>> games = new HashMap<Long, Map<String, Integer>>();
+
+    /**
+     * Indexes the game, replacing what was indexed for the same ID.
+     */
+    public void put(long gameID, String title, String description)
+    {
+        Map<String, Integer> weights = new HashMap<String, Integer>();
+        for (String token : tokenize(title)) {
+            weights.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : tokenize(description)) {
+            weights.merge(token, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeGame(gameID);
+            games.put(gameID, weights);
+            for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), token -> new Posting()).put(gameID, entry.getValue());
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the game with the given ID. Returns false if it was not indexed.
+     */
+    public boolean remove(long gameID)
+    {
+        lock.writeLock().lock();
+        try {
+            return removeGame(gameID);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size()
+    {
+        lock.readLock().lock();
+        try {
+            return games.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the IDs of at most limit games containing any token of the query,
+     * best match first. A query without tokens matches nothing.
+     */
+    public List<Long> search(String query, int limit)
+    {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive: " + limit);
+        }
+        Map<Long, Hit> hits = new HashMap<Long, Hit>();
+        lock.readLock().lock();
+        try {
+            List<Posting> terms = new ArrayList<Posting>();
+            for (String token : new LinkedHashSet<String>(tokenize(query))) {
+                Posting posting = postings.get(token);
+                if (posting != null) {
+                    terms.add(posting);
+                }
+            }
+            terms.sort((a, b) -> Integer.compare(a.weights.size(), b.weights.size()));
+
+            // remaining[i] is the highest score a game can get from terms i and on.
+            int total = games.size();
+            double idf[] = new double[terms.size()];
+            double remaining[] = new double[terms.size() + 1];
+            for (int idx = terms.size() - 1; idx >= 0; idx--) {
+                idf[idx] = Math.log(1.0 + (double) total / terms.get(idx).weights.size());
+                remaining[idx] = remaining[idx + 1] + terms.get(idx).maxWeight * idf[idx];
+            }
+
+            for (int idx = 0; idx < terms.size(); idx++) {
+                Map<Long, Integer> weights = terms.get(idx).weights;
+                if (hits.size() >= limit && weights.size() > hits.size()
+                        && best(hits.values(), limit).peek().score > remaining[idx]) {
+                    for (Hit hit : hits.values()) {
+                        Integer weight = weights.get(hit.gameID);
+                        if (weight != null) {
+                            hit.score += weight * idf[idx];
+                        }
+                    }
+                    continue;
+                }
+                for (Map.Entry<Long, Integer> entry : weights.entrySet()) {
+                    hits.computeIfAbsent(entry.getKey(), Hit::new).score += entry.getValue() * idf[idx];
+                }
+            }
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> ranked = new ArrayList<Hit>(best(hits.values(), limit));
+        Collections.sort(ranked);
+        List<Long> result = new ArrayList<Long>(ranked.size());
+        for (Hit hit : ranked) {
+            result.add(hit.gameID);
+        }
+        return result;
+    }
+
+    /**
+     * Splits text into lower-case runs of letters and digits. Returns an empty
+     * list for null.
+     */
+    public static List<String> tokenize(String text)
+    {
+        List<String> tokens = new ArrayList<String>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int idx = 0; idx <= text.length(); idx++) {
+            boolean word = idx < text.length() && Character.isLetterOrDigit(text.charAt(idx));
+            if (word && start < 0) {
+                start = idx;
+            }
+            else if (!word && start >= 0) {
+                tokens.add(text.substring(start, idx).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the best 'limit' hits in a heap whose head is the worst of them.
+     */
+    private static PriorityQueue<Hit> best(Collection<Hit> hits, int limit)
+    {
+        PriorityQueue<Hit> best = new PriorityQueue<Hit>(limit + 1, Collections.reverseOrder());
+        for (Hit hit : hits) {
+            best.add(hit);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        return best;
+    }
+
+    private boolean removeGame(long gameID)
+    {
+        Map<String, Integer> weights = games.remove(gameID);
+        if (weights == null) {
+            return false;
+        }
+        for (String token : weights.keySet()) {
+            Posting posting = postings.get(token);
+            posting.weights.remove(gameID);
+            if (posting.weights.isEmpty()) {
+                postings.remove(token);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The games containing one token. maxWeight is not lowered when games are
+     * removed; it only has to be at least the highest weight.
+     */
+    private static class Posting
+    {
+        private Map<Long, Integer> weights = new HashMap<Long, Integer>();
+        private int maxWeight = 0;
+
+        void put(long gameID, int weight)
+        {
+            weights.put(gameID, weight);
+            maxWeight = Math.max(maxWeight, weight);
+        }
+    }
+
+    /**
+     * A game matching at least one query token. Orders best first.
+     */
+    private static class Hit implements Comparable<Hit>
+    {
+        private final long gameID;
+        private double score = 0;
+
+        Hit(long gameID)
+        {
+            this.gameID = gameID;
+        }
+
+        @Override
+        public int compareTo(Hit other)
+        {
+            if (score != other.score) {
+                return score > other.score ? -1 : 1;
+            }
+            return Long.compare(gameID, other.gameID);
+        }
+    }
+}
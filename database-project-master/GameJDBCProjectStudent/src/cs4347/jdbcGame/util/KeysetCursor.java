@@ -0,0 +1,72 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position of the last row of a page ordered by (date, id). Callers only see
+ * the encoded form, an opaque URL-safe string; the DAOs decode it into a seek
+ * predicate "date > ? OR (date = ? AND id > ?)" so every page is an index
+ * range scan, however deep into the result it is.
+ */
+public class KeysetCursor
+{
+    private Date date;
+    private long id;
+
+    public KeysetCursor(Date date, long id)
+    {
+        this.date = date;
+        this.id = id;
+    }
+
+    public Date getDate()
+    {
+        return date;
+    }
+
+    public long getId()
+    {
+        return id;
+    }
+
+    public String encode()
+    {
+        String raw = date.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the cursor encoded by encode(), or null for a null string (the
+     * first page).
+     */
+    public static KeysetCursor decode(String cursor) throws DAOException
+    {
+        if (cursor == null) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            int colon = raw.indexOf(':');
+            if (colon < 0) {
+                throw new DAOException("Malformed page cursor: " + cursor);
+            }
+            return new KeysetCursor(new Date(Long.parseLong(raw.substring(0, colon))),
+                    Long.parseLong(raw.substring(colon + 1)));
+        }
+        catch (IllegalArgumentException ex) {
+            throw new DAOException("Malformed page cursor: " + cursor, ex);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import cs4347.jdbcGame.entity.GamesPlayed;
+
+/**
+ * The plays of one game ranked in memory, in the same order as
+ * GamesPlayedDAO.topScores(): highest score first, then lowest ID. The plays
+ * are kept in a treap whose nodes also store the size of their subtree, so
+ * the rank of a play and the play at a given rank are found in O(log n), and
+ * a neighbourhood of w plays in O(w log n).
+ * 
+ * Any number of readers run concurrently; put() and remove() take an
+ * exclusive lock. Plays are copied on the way in and out.
+ */
+public class Leaderboard
+{
+    private static final Comparator<Node> ORDER = new Comparator<Node>() {
+        @Override
+        public int compare(Node a, Node b)
+        {
+            if (a.score != b.score) {
+                return a.score > b.score ? -1 : 1;
+            }
+            return Long.compare(a.id, b.id);
+        }
+    };
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Node root = null;
+    private Map<Long, Node> byID = new HashMap<Long, Node>();
+    // Each player's plays in ranking order; first() is the best one.
+    private Map<Long, TreeSet<Node>> byPlayer = new HashMap<Long, TreeSet<Node>>();
+
+    /**
+     * Adds the play, replacing any play with the same ID.
+     */
+    public void put(GamesPlayed play)
+    {
+        Node node = new Node(play);
+        lock.writeLock().lock();
+        try {
+            removeNode(play.getId());
+            root = insert(root, node);
+            byID.put(node.id, node);
+            TreeSet<Node> plays = byPlayer.get(node.playerID);
+            if (plays == null) {
+                plays = new TreeSet<Node>(ORDER);
+                byPlayer.put(node.playerID, plays);
+            }
+            plays.add(node);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the play with the given ID. Returns false if there was none.
+     */
+    public boolean remove(long playID)
+    {
+        lock.writeLock().lock();
+        try {
+            return removeNode(playID);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size()
+    {
+        lock.readLock().lock();
+        try {
+            return size(root);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the n best plays, best first.
+     */
+    public List<GamesPlayed> top(int n)
+    {
+        lock.readLock().lock();
+        try {
+            return range(0, n);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the 1-based rank of the player's best play, or null if the
+     * player has no play here.
+     */
+    public Long rankOf(long playerID)
+    {
+        lock.readLock().lock();
+        try {
+            Node best = best(playerID);
+            return best == null ? null : Long.valueOf(rank(best) + 1);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the player's best play with up to window plays on either side,
+     * in ranking order, or an empty list if the player has no play here.
+     */
+    public List<GamesPlayed> around(long playerID, int window)
+    {
+        lock.readLock().lock();
+        try {
+            Node best = best(playerID);
+            if (best == null) {
+                return new ArrayList<GamesPlayed>();
+            }
+            int rank = rank(best);
+            int from = Math.max(0, rank - window);
+            return range(from, rank + window + 1 - from);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Node best(long playerID)
+    {
+        TreeSet<Node> plays = byPlayer.get(playerID);
+        return plays == null ? null : plays.first();
+    }
+
+    private boolean removeNode(long playID)
+    {
+        Node node = byID.remove(playID);
+        if (node == null) {
+            return false;
+        }
+        root = delete(root, node);
+        TreeSet<Node> plays = byPlayer.get(node.playerID);
+        plays.remove(node);
+        if (plays.isEmpty()) {
+            byPlayer.remove(node.playerID);
+        }
+        return true;
+    }
+
+    /**
+     * Number of plays ranked ahead of the given one.
+     */
+    private int rank(Node node)
+    {
+        int rank = 0;
+        Node current = root;
+        while (current != null) {
+            int cmp = ORDER.compare(node, current);
+            if (cmp < 0) {
+                current = current.left;
+            }
+            else {
+                rank += size(current.left);
+                if (cmp == 0) {
+                    break;
+                }
+                rank++;
+                current = current.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * The play at the given 0-based rank.
+     */
+    private Node select(int rank)
+    {
+        Node current = root;
+        while (current != null) {
+            int leftSize = size(current.left);
+            if (rank < leftSize) {
+                current = current.left;
+            }
+            else if (rank == leftSize) {
+                return current;
+            }
+            else {
+                rank -= leftSize + 1;
+                current = current.right;
+            }
+        }
+        return null;
+    }
+
+    private List<GamesPlayed> range(int from, int count)
+    {
+        int end = Math.min(size(root), from + count);
+        List<GamesPlayed> result = new ArrayList<GamesPlayed>(Math.max(0, end - from));
+        for (int rank = from; rank < end; rank++) {
+            result.add(select(rank).toGamesPlayed());
+        }
+        return result;
+    }
+
+    private static int size(Node node)
+    {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node)
+    {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static Node insert(Node tree, Node node)
+    {
+        if (tree == null) {
+            return node;
+        }
+        if (node.priority > tree.priority) {
+            Node parts[] = split(tree, node);
+            node.left = parts[0];
+            node.right = parts[1];
+            return update(node);
+        }
+        if (ORDER.compare(node, tree) < 0) {
+            tree.left = insert(tree.left, node);
+        }
+        else {
+            tree.right = insert(tree.right, node);
+        }
+        return update(tree);
+    }
+
+    /**
+     * Splits the tree into the nodes ranked ahead of key and the rest.
+     */
+    private static Node[] split(Node tree, Node key)
+    {
+        if (tree == null) {
+            return new Node[2];
+        }
+        if (ORDER.compare(tree, key) < 0) {
+            Node parts[] = split(tree.right, key);
+            tree.right = parts[0];
+            parts[0] = update(tree);
+            return parts;
+        }
+        Node parts[] = split(tree.left, key);
+        tree.left = parts[1];
+        parts[1] = update(tree);
+        return parts;
+    }
+
+    private static Node delete(Node tree, Node node)
+    {
+        if (tree == node) {
+            return merge(tree.left, tree.right);
+        }
+        if (ORDER.compare(node, tree) < 0) {
+            tree.left = delete(tree.left, node);
+        }
+        else {
+            tree.right = delete(tree.right, node);
+        }
+        return update(tree);
+    }
+
+    /**
+     * Joins two trees where every node of left ranks ahead of every node of
+     * right.
+     */
+    private static Node merge(Node left, Node right)
+    {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static class Node
+    {
+        private final long id;
+        private final long playerID;
+        private final long gameID;
+        private final Long timeFinished;
+        private final int score;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        Node(GamesPlayed play)
+        {
+            this.id = play.getId();
+            this.playerID = play.getPlayerID();
+            this.gameID = play.getGameID();
+            this.timeFinished = play.getTimeFinished() == null ? null : play.getTimeFinished().getTime();
+            this.score = play.getScore();
+        }
+
+        GamesPlayed toGamesPlayed()
+        {
+            GamesPlayed play = new GamesPlayed();
+            play.setId(id);
+            play.setPlayerID(playerID);
+            play.setGameID(gameID);
+            play.setTimeFinished(timeFinished == null ? null : new java.sql.Date(timeFinished));
+            play.setScore(score);
+            return play;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query. getNextCursor() is passed as the
+ * 'after' argument to fetch the following page; it is null on the last page.
+ */
+public class Page<T>
+{
+    private List<T> items;
+    private String nextCursor;
+
+    public Page(List<T> items, String nextCursor)
+    {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems()
+    {
+        return items;
+    }
+
+    public String getNextCursor()
+    {
+        return nextCursor;
+    }
+
+    public boolean hasNext()
+    {
+        return nextCursor != null;
+    }
+}
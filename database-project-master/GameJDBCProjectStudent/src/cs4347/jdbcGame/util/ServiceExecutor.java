@@ -0,0 +1,231 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking service calls for the Async*Service classes. The executor has
+ * a fixed number of threads, normally the size of the connection pool: each
+ * service call holds one connection, so more threads would only wait inside
+ * getConnection().
+ * 
+ * At most threads + queueCapacity calls are accepted at a time. When that many
+ * are running or queued, submit() waits up to maxWaitMillis for one to finish
+ * and then returns a future failed with a RejectedExecutionException, so a
+ * saturated pool pushes back on its callers instead of queueing without bound.
+ * Calls that fail complete their future with the DAOException or SQLException
+ * thrown by the service.
+ * 
+ * With virtualThreads set, every call gets a virtual thread of its own and a
+ * fair semaphore with 'threads' permits limits how many run at once; the
+ * queued calls wait on the semaphore instead of in the executor's queue. On a
+ * JDK without virtual threads the executor falls back to platform threads;
+ * isVirtual() tells which one is in use.
+ * 
+ * With the bundled driver this mode gains nothing. Connector/J 8.0.12 runs
+ * every statement execute inside synchronized (getConnectionMutex()), and on
+ * JDK 21 to 23 a virtual thread blocked inside a monitor pins its carrier
+ * thread, so every JDBC call pins. The service layer's own locks are
+ * ReentrantLocks, but that does not help while the driver holds a monitor.
+ * Connector/J 8.0.33 and later use locks instead; virtual threads are only
+ * worth trying after that upgrade, or on JDK 24 and later. The virtual path
+ * has not been run against a database, since no JDK 21 was at hand; it has
+ * only been compiled and exercised through the platform thread fallback.
+ */
+public class ServiceExecutor implements AutoCloseable
+{
+    /**
+     * A blocking service call.
+     */
+    public interface ServiceCall<T>
+    {
+        T call() throws DAOException, SQLException;
+    }
+
+    private final int threads;
+    private final int queueCapacity;
+    private final long maxWaitMillis;
+
+    // Executors.newVirtualThreadPerTaskExecutor(), or null before JDK 21.
+    private static final Method NEW_VIRTUAL_EXECUTOR = findVirtualExecutor();
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    // Limits the running calls when each has a virtual thread; null otherwise.
+    private final Semaphore running;
+
+    public ServiceExecutor(int threads, int queueCapacity, long maxWaitMillis)
+    {
+        this(threads, queueCapacity, maxWaitMillis, false);
+    }
+
+    public ServiceExecutor(int threads, int queueCapacity, long maxWaitMillis, boolean virtualThreads)
+    {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("Queue capacity must not be negative: " + queueCapacity);
+        }
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.permits = new Semaphore(threads + queueCapacity);
+
+        ExecutorService virtual = virtualThreads ? newVirtualExecutor() : null;
+        if (virtual != null) {
+            this.executor = virtual;
+            this.running = new Semaphore(threads, true);
+            return;
+        }
+        this.running = null;
+        AtomicInteger count = new AtomicInteger();
+        // The permits bound the queue, so it never rejects by itself.
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ServiceExecutor-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Runs the call on one of the executor threads. See the class comment for
+     * what happens when the executor is saturated.
+     */
+    public <T> CompletableFuture<T> submit(ServiceCall<T> call)
+    {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        try {
+            if (!permits.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                future.completeExceptionally(new RejectedExecutionException("Service executor saturated: " + threads
+                        + " running and " + queueCapacity + " queued calls"));
+                return future;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            future.completeExceptionally(ex);
+            return future;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    if (running != null) {
+                        running.acquire();
+                    }
+                    try {
+                        future.complete(call.call());
+                    }
+                    finally {
+                        if (running != null) {
+                            running.release();
+                        }
+                    }
+                } catch (Throwable ex) {
+                    future.completeExceptionally(ex);
+                }
+                finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // Only after close().
+            permits.release();
+            future.completeExceptionally(ex);
+        }
+        return future;
+    }
+
+    /**
+     * Returns true if this JDK has virtual threads.
+     */
+    public static boolean virtualThreadsAvailable()
+    {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Returns true if the calls run on virtual threads.
+     */
+    public boolean isVirtual()
+    {
+        return running != null;
+    }
+
+    public int getThreads()
+    {
+        return threads;
+    }
+
+    public int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+    /**
+     * Number of calls running or queued.
+     */
+    public int getInFlight()
+    {
+        return threads + queueCapacity - permits.availablePermits();
+    }
+
+    /**
+     * Stops accepting calls and waits for the accepted ones to finish. If the
+     * calling thread is interrupted while waiting, close() returns early with
+     * the interrupt flag set and the accepted calls keep running.
+     */
+    @Override
+    public void close()
+    {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Looked up by reflection so the project still builds and runs on JDK 17.
+    private static Method findVirtualExecutor()
+    {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException ex) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newVirtualExecutor()
+    {
+        if (NEW_VIRTUAL_EXECUTOR == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            // Present but unusable, e.g. preview features disabled.
+            return null;
+        }
+    }
+}
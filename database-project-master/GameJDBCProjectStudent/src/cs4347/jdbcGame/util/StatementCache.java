@@ -0,0 +1,359 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-connection cache of PreparedStatements, keyed by SQL text, used by the
+ * DAO implementations in place of connection.prepareStatement().
+ * 
+ * prepareStatement() returns a handle whose close() puts the statement back
+ * into the cache instead of closing it, so the DAOs keep their usual
+ * "close in finally" pattern. Each connection keeps at most getMaxSize()
+ * statements; the least recently used one is closed when the limit is
+ * exceeded. Caches of connections that have been closed are dropped from
+ * time to time as new caches are created. Settings a DAO changes on a
+ * statement (fetch size, max rows, max field size and query timeout) are put
+ * back when it is checked in.
+ * 
+ * The cache is off by default. A cache lives as long as the Connection object
+ * it was created for, and DBCP hands out a new wrapper on every borrow whose
+ * statements are closed when it is returned, so with a pool nothing is reused
+ * across service calls. Reuse across calls comes from the pool instead:
+ * poolPreparedStatements in dbconfig.properties and cachePrepStmts in the url
+ * (see DataSourceManager). setEnabled(true) is only worth it for code that
+ * runs many statements on one connection.
+ */
+public class StatementCache
+{
+    public static final int DEFAULT_MAX_SIZE = 32;
+
+    private static volatile boolean enabled = false;
+    private static volatile int maxSize = DEFAULT_MAX_SIZE;
+
+    // Identity based: the cache belongs to one Connection object, whatever its
+    // equals() says. Weak keys would not help, the cached statements refer back
+    // to their connection.
+    private static final Map<Connection, StatementCache> caches = new IdentityHashMap<Connection, StatementCache>();
+
+    // Size of caches at which the next removeClosed() runs, so that creating
+    // a cache does not scan all the others every time.
+    private static int sweepAt = 16;
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Equivalent to connection.prepareStatement(sql), served from the
+     * connection's cache when enabled.
+     */
+    public static PreparedStatement prepareStatement(Connection connection, String sql) throws SQLException
+    {
+        return prepareStatement(connection, sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Equivalent to connection.prepareStatement(sql, autoGeneratedKeys), served
+     * from the connection's cache when enabled.
+     */
+    public static PreparedStatement prepareStatement(Connection connection, String sql, int autoGeneratedKeys)
+            throws SQLException
+    {
+        if (!enabled) {
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+        StatementCache cache;
+        synchronized (caches) {
+            cache = caches.get(connection);
+            if (cache == null) {
+                if (caches.size() >= sweepAt) {
+                    removeClosed();
+                    sweepAt = Math.max(16, caches.size() * 2);
+                }
+                cache = new StatementCache(connection);
+                caches.put(connection, cache);
+            }
+        }
+        return cache.checkOut(sql, autoGeneratedKeys);
+    }
+
+    public static boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    /**
+     * Turning the cache off only affects later prepareStatement() calls;
+     * statements already cached stay open until their connection is closed.
+     */
+    public static void setEnabled(boolean enabled)
+    {
+        StatementCache.enabled = enabled;
+    }
+
+    public static int getMaxSize()
+    {
+        return maxSize;
+    }
+
+    /**
+     * Sets the number of statements kept per connection. Existing caches shrink
+     * on their next use.
+     */
+    public static void setMaxSize(int maxSize)
+    {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        StatementCache.maxSize = maxSize;
+    }
+
+    public static long getHits()
+    {
+        return hits.get();
+    }
+
+    public static long getMisses()
+    {
+        return misses.get();
+    }
+
+    public static long getEvictions()
+    {
+        return evictions.get();
+    }
+
+    public static void resetCounters()
+    {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+    }
+
+    public static String getStats()
+    {
+        long h = hits.get();
+        long m = misses.get();
+        long total = h + m;
+        return "hits=" + h + " misses=" + m + " evictions=" + evictions.get() + " hitRatio="
+                + (total == 0 ? 0 : (h * 100 / total)) + "%";
+    }
+
+    private static void removeClosed()
+    {
+        Iterator<Map.Entry<Connection, StatementCache>> it = caches.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Connection, StatementCache> item = it.next();
+            boolean closed;
+            try {
+                closed = item.getKey().isClosed();
+            } catch (SQLException ex) {
+                closed = true;
+            }
+            if (closed) {
+                it.remove();
+                item.getValue().closeAll();
+            }
+        }
+    }
+
+    private Connection connection;
+
+    // Access-ordered, so iteration starts at the least recently used entry.
+    private LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+
+    private StatementCache(Connection connection)
+    {
+        this.connection = connection;
+    }
+
+    private synchronized PreparedStatement checkOut(String sql, int autoGeneratedKeys) throws SQLException
+    {
+        String key = autoGeneratedKeys + ":" + sql;
+        Entry entry = entries.get(key);
+        if (entry != null && entry.statement.isClosed()) {
+            // Closed underneath us, e.g. the pool reclaimed the connection.
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry != null && entry.inUse) {
+            // Nested use of the same SQL on one connection; hand out a plain
+            // statement rather than sharing the cached one.
+            misses.incrementAndGet();
+            return connection.prepareStatement(sql, autoGeneratedKeys);
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+            entry = new Entry(key, connection.prepareStatement(sql, autoGeneratedKeys));
+            entries.put(key, entry);
+            evict();
+        }
+        else {
+            hits.incrementAndGet();
+        }
+        entry.inUse = true;
+        entry.openResults.clear();
+        return entry.newHandle();
+    }
+
+    private synchronized void checkIn(Entry entry) throws SQLException
+    {
+        entry.inUse = false;
+        for (ResultSet rs : entry.openResults) {
+            if (!rs.isClosed()) {
+                rs.close();
+            }
+        }
+        entry.openResults.clear();
+
+        if (entry.evicted || entries.get(entry.key) != entry) {
+            entry.statement.close();
+            return;
+        }
+        entry.reset();
+        evict();
+    }
+
+    private synchronized void closeAll()
+    {
+        for (Entry entry : entries.values()) {
+            try {
+                entry.statement.close();
+            } catch (SQLException ex) {
+                // The connection is gone; nothing left to release.
+            }
+        }
+        entries.clear();
+    }
+
+    private void evict() throws SQLException
+    {
+        Iterator<Entry> it = entries.values().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            Entry eldest = it.next();
+            it.remove();
+            evictions.incrementAndGet();
+            eldest.evicted = true;
+            // Statements still in use are closed when they are checked in.
+            if (!eldest.inUse) {
+                eldest.statement.close();
+            }
+        }
+    }
+
+    /**
+     * One cached statement. Each checkOut() hands out a new proxy whose close()
+     * checks the statement back in; closing the same proxy twice is a no-op.
+     */
+    private class Entry
+    {
+        private String key;
+        private PreparedStatement statement;
+        private boolean inUse = false;
+        private boolean evicted = false;
+        private List<ResultSet> openResults = new ArrayList<ResultSet>();
+
+        // The settings the statement was prepared with.
+        private int fetchSize;
+        private int maxRows;
+        private int maxFieldSize;
+        private int queryTimeout;
+
+        Entry(String key, PreparedStatement statement) throws SQLException
+        {
+            this.key = key;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        /**
+         * Clears what the last user bound or changed, so the next checkOut()
+         * gets the statement as prepared.
+         */
+        void reset() throws SQLException
+        {
+            statement.clearParameters();
+            statement.clearBatch();
+            if (statement.getFetchSize() != fetchSize) {
+                statement.setFetchSize(fetchSize);
+            }
+            if (statement.getMaxRows() != maxRows) {
+                statement.setMaxRows(maxRows);
+            }
+            if (statement.getMaxFieldSize() != maxFieldSize) {
+                statement.setMaxFieldSize(maxFieldSize);
+            }
+            if (statement.getQueryTimeout() != queryTimeout) {
+                statement.setQueryTimeout(queryTimeout);
+            }
+        }
+
+        PreparedStatement newHandle()
+        {
+            InvocationHandler handler = new InvocationHandler() {
+                private boolean closed = false;
+
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+                {
+                    String name = method.getName();
+                    if (name.equals("close")) {
+                        if (!closed) {
+                            closed = true;
+                            checkIn(Entry.this);
+                        }
+                        return null;
+                    }
+                    if (name.equals("isClosed")) {
+                        return closed || statement.isClosed();
+                    }
+                    if (closed) {
+                        throw new SQLException("PreparedStatement has been closed");
+                    }
+                    try {
+                        Object result = method.invoke(statement, args);
+                        if (result instanceof ResultSet) {
+                            synchronized (StatementCache.this) {
+                                openResults.add((ResultSet) result);
+                            }
+                        }
+                        return result;
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                }
+            };
+            return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, handler);
+        }
+    }
+}
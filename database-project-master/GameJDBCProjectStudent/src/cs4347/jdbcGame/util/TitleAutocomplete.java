@@ -0,0 +1,220 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix completion over game titles. The titles are kept in one array sorted
+ * case-insensitively, so the completions of a prefix are a contiguous run
+ * found with a binary search: complete() costs O(log n + k) and the structure
+ * holds one small entry per game next to the title strings themselves.
+ * 
+ * put() and remove() shift the tail of the array, which is cheap next to a
+ * database write at catalog sizes; bulk loads go through putAll(), which sorts
+ * once. Any number of readers run concurrently; writers take an exclusive
+ * lock.
+ */
+public class TitleAutocomplete
+{
+    private static final Comparator<Entry> ORDER = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b)
+        {
+            int result = a.key.compareTo(b.key);
+            return result != 0 ? result : Long.compare(a.gameID, b.gameID);
+        }
+    };
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Entry entries[] = new Entry[16];
+    private int size = 0;
+    private Map<Long, Entry> byID = new HashMap<Long, Entry>();
+
+    /**
+     * Adds the title of the game, replacing any title with the same ID. A null
+     * title removes the game.
+     */
+    public void put(long gameID, String title)
+    {
+        if (title == null) {
+            remove(gameID);
+            return;
+        }
+        Entry entry = new Entry(gameID, title);
+        lock.writeLock().lock();
+        try {
+            removeEntry(gameID);
+            int idx = -(Arrays.binarySearch(entries, 0, size, entry, ORDER) + 1);
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            System.arraycopy(entries, idx, entries, idx + 1, size - idx);
+            entries[idx] = entry;
+            size++;
+            byID.put(gameID, entry);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or replaces the titles of many games, keyed by game ID, with one sort
+     * instead of one array shift per game.
+     */
+    public void putAll(Map<Long, String> titles)
+    {
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, String> title : titles.entrySet()) {
+                Entry old = byID.remove(title.getKey());
+                if (old != null) {
+                    old.removed = true;
+                }
+                if (title.getValue() != null) {
+                    byID.put(title.getKey(), new Entry(title.getKey(), title.getValue()));
+                }
+            }
+            Entry merged[] = new Entry[Math.max(16, byID.size() + byID.size() / 4)];
+            int count = 0;
+            for (int idx = 0; idx < size; idx++) {
+                if (!entries[idx].removed) {
+                    merged[count++] = entries[idx];
+                }
+            }
+            for (Map.Entry<Long, String> title : titles.entrySet()) {
+                if (title.getValue() != null) {
+                    merged[count++] = byID.get(title.getKey());
+                }
+            }
+            Arrays.sort(merged, 0, count, ORDER);
+            entries = merged;
+            size = count;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the game with the given ID. Returns false if there was none.
+     */
+    public boolean remove(long gameID)
+    {
+        lock.writeLock().lock();
+        try {
+            return removeEntry(gameID);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size()
+    {
+        lock.readLock().lock();
+        try {
+            return size;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns at most k distinct titles starting with the given prefix, ignoring
+     * case, in alphabetical order.
+     */
+    public List<String> complete(String prefix, int k)
+    {
+        if (k <= 0) {
+            throw new IllegalArgumentException("Number of completions must be positive: " + k);
+        }
+        String key = normalize(prefix == null ? "" : prefix);
+        List<String> result = new ArrayList<String>(Math.min(k, 16));
+        lock.readLock().lock();
+        try {
+            // The first entry whose key is not below the prefix.
+            Entry probe = new Entry(Long.MIN_VALUE, key, key);
+            int idx = -(Arrays.binarySearch(entries, 0, size, probe, ORDER) + 1);
+            // Entries are ordered by key then ID, so case variants of one title
+            // can interleave within a run of equal keys. Titles already returned
+            // are only remembered for the current run.
+            String runKey = null;
+            Set<String> seen = new HashSet<String>();
+            for (; idx < size && result.size() < k && entries[idx].key.startsWith(key); idx++) {
+                Entry entry = entries[idx];
+                if (!entry.key.equals(runKey)) {
+                    runKey = entry.key;
+                    seen.clear();
+                }
+                if (seen.add(entry.title)) {
+                    result.add(entry.title);
+                }
+            }
+            return result;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean removeEntry(long gameID)
+    {
+        Entry entry = byID.remove(gameID);
+        if (entry == null) {
+            return false;
+        }
+        int idx = Arrays.binarySearch(entries, 0, size, entry, ORDER);
+        System.arraycopy(entries, idx + 1, entries, idx, size - idx - 1);
+        entries[--size] = null;
+        return true;
+    }
+
+    private static String normalize(String title)
+    {
+        return title.toLowerCase(Locale.ROOT);
+    }
+
+    private static class Entry
+    {
+        private final long gameID;
+        private final String title;
+        // The title itself when it is already lower case, so it is stored once.
+        private final String key;
+        // Set by putAll() on entries it replaces.
+        private boolean removed = false;
+
+        Entry(long gameID, String title)
+        {
+            this(gameID, title, normalize(title));
+        }
+
+        Entry(long gameID, String title, String key)
+        {
+            this.gameID = gameID;
+            this.title = title;
+            this.key = key.equals(title) ? title : key;
+        }
+    }
+}
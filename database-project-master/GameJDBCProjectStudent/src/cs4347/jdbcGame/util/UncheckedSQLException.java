@@ -0,0 +1,34 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package cs4347.jdbcGame.util;
+
+import java.sql.SQLException;
+
+/**
+ * Carries an SQLException out of code that cannot throw checked exceptions,
+ * such as the Streams returned by the streamByGame() methods.
+ */
+@SuppressWarnings("serial")
+public class UncheckedSQLException extends RuntimeException
+{
+
+    public UncheckedSQLException(SQLException ex)
+    {
+        super(ex.getMessage(), ex);
+    }
+
+    @Override
+    public SQLException getCause()
+    {
+        return (SQLException) super.getCause();
+    }
+
+}
@@ -0,0 +1,148 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import cs4347.jdbcGame.util.TitleAutocomplete;
+
+/**
+ * Measures TitleAutocomplete.complete() on a synthetic catalog, the structure
+ * behind SearchableGameService.complete(). No database is used: the titles are
+ * made up from a small vocabulary, so many share their first words like real
+ * series do. The prefixes are cut from random titles at a random length of 1
+ * to 8 characters, and the reader threads run while one writer thread
+ * replaces a title about every millisecond, as the service does after each
+ * committed update. Each replacement shifts part of the sorted array under the
+ * write lock, so the writer shows up in the tail latencies.
+ * 
+ * Usage: AutocompleteBenchmark [titles] [queries] [threads]
+ */
+public class AutocompleteBenchmark
+{
+    private static final String WORDS[] = { "dark", "star", "legend", "quest", "dragon", "empire", "shadow",
+            "racing", "soccer", "tactics", "knight", "galaxy", "island", "zombie", "puzzle", "battle", "city",
+            "farm", "space", "hero", "ninja", "tower", "ocean", "castle", "storm", "rogue", "cyber", "kart",
+            "dungeon", "frontier", "saga", "chronicles" };
+
+    private static final int COMPLETIONS = 10;
+
+    public static void main(String args[]) throws Exception
+    {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 200000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        Random random = new Random(4347);
+        String titles[] = new String[count];
+        Map<Long, String> byID = new HashMap<Long, String>();
+        for (int idx = 0; idx < count; idx++) {
+            titles[idx] = title(random);
+            byID.put((long) idx + 1, titles[idx]);
+        }
+
+        TitleAutocomplete autocomplete = new TitleAutocomplete();
+        long start = System.currentTimeMillis();
+        autocomplete.putAll(byID);
+        System.out.println("Loaded " + count + " titles in " + (System.currentTimeMillis() - start) + " ms");
+
+        // One untimed pass so the measured queries run compiled code.
+        query(autocomplete, titles, Math.min(queries, 100000), new Random(1));
+
+        AtomicBoolean done = new AtomicBoolean(false);
+        long updates[] = new long[1];
+        Thread writer = new Thread(() -> {
+            Random writes = new Random(2);
+            try {
+                while (!done.get()) {
+                    autocomplete.put(writes.nextInt(count) + 1, title(writes));
+                    updates[0]++;
+                    Thread.sleep(1);
+                }
+            }
+            catch (InterruptedException ex) {
+                // Stop writing.
+            }
+        });
+        writer.start();
+
+        long latencies[][] = new long[threads][];
+        Thread readers[] = new Thread[threads];
+        for (int idx = 0; idx < threads; idx++) {
+            int reader = idx;
+            readers[idx] = new Thread(() -> latencies[reader] = query(autocomplete, titles, queries / threads,
+                    new Random(100 + reader)));
+            readers[idx].start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        done.set(true);
+        writer.join();
+
+        long all[] = new long[0];
+        for (long part[] : latencies) {
+            int from = all.length;
+            all = Arrays.copyOf(all, from + part.length);
+            System.arraycopy(part, 0, all, from, part.length);
+        }
+        Arrays.sort(all);
+        long total = 0;
+        for (long latency : all) {
+            total += latency;
+        }
+        System.out.println(String.format(
+                "%d threads %8d queries  avg: %7.1f us  p50: %7.1f us  p99: %7.1f us  max: %8.1f us  updates: %d",
+                threads, all.length, total / 1e3 / all.length, percentile(all, 50) / 1e3,
+                percentile(all, 99) / 1e3, all[all.length - 1] / 1e3, updates[0]));
+    }
+
+    private static String title(Random random)
+    {
+        StringBuilder sb = new StringBuilder();
+        int words = 2 + random.nextInt(3);
+        for (int idx = 0; idx < words; idx++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            sb.append(idx == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word).append(' ');
+        }
+        return sb.append(random.nextInt(100)).toString();
+    }
+
+    private static long[] query(TitleAutocomplete autocomplete, String titles[], int queries, Random random)
+    {
+        long latencies[] = new long[queries];
+        for (int idx = 0; idx < queries; idx++) {
+            String title = titles[random.nextInt(titles.length)];
+            String prefix = title.substring(0, Math.min(title.length(), 1 + random.nextInt(8)));
+            long start = System.nanoTime();
+            List<String> completions = autocomplete.complete(prefix, COMPLETIONS);
+            latencies[idx] = System.nanoTime() - start;
+            // The writer may have replaced every title with this prefix.
+            if (completions.size() > COMPLETIONS) {
+                throw new IllegalStateException("Too many completions for " + prefix);
+            }
+        }
+        return latencies;
+    }
+
+    private static long percentile(long sorted[], int percent)
+    {
+        int idx = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,160 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.util.DAOUtil;
+
+/**
+ * Measures insert throughput into Player and Game with and without the
+ * GamesOwned_id/GamesPlayed_id/GamesPlayed_Game_id/CreditCard_id columns
+ * removed by SQLDropBackPointers.sql. For each table two scratch copies are
+ * created with "CREATE TABLE ... LIKE": one as the table is now, and one with
+ * the old columns, their indexes and their foreign keys added back. The same
+ * rows are inserted into both in batches through the bulk DataSource,
+ * committing every commitInterval rows, and the best of several rounds is
+ * printed. The columns are left NULL, as the DAOs always did, so the
+ * difference is the cost of maintaining their indexes.
+ * 
+ * Usage: BackPointerWriteBenchmark [rows] [rounds] [commitInterval]
+ */
+public class BackPointerWriteBenchmark
+{
+    private static final String PLAYER_INSERT = "INSERT INTO %s (first_name, last_name, join_date, email) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String GAME_INSERT = "INSERT INTO %s (title, description, release_date, version) "
+            + "VALUES (?, ?, ?, ?)";
+
+    private static final String PLAYER_BACK_POINTERS = "ADD COLUMN GamesOwned_id BIGINT, "
+            + "ADD COLUMN GamesPlayed_id BIGINT, ADD COLUMN GamesPlayed_Game_id BIGINT, "
+            + "ADD COLUMN CreditCard_id BIGINT, "
+            + "ADD INDEX fk_GamesOwned_idx (GamesOwned_id), "
+            + "ADD INDEX fk_GamesPlayed_idx (GamesPlayed_id, GamesPlayed_Game_id), "
+            + "ADD INDEX fk_CreditCard_idx (CreditCard_id), "
+            + "ADD FOREIGN KEY (GamesOwned_id) REFERENCES gamesowned (id), "
+            + "ADD FOREIGN KEY (GamesPlayed_id) REFERENCES gamesplayed (id), "
+            + "ADD FOREIGN KEY (CreditCard_id) REFERENCES creditcard (id)";
+    private static final String GAME_BACK_POINTERS = "ADD COLUMN GamesOwned_id BIGINT, "
+            + "ADD COLUMN GamesPlayed_id BIGINT, ADD COLUMN GamesPlayed_Game_id BIGINT, "
+            + "ADD FOREIGN KEY (GamesOwned_id) REFERENCES gamesowned (id), "
+            + "ADD FOREIGN KEY (GamesPlayed_id) REFERENCES gamesplayed (id)";
+
+    public static void main(String args[])
+    {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int commitInterval = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        try {
+            DataSource ds = DataSourceManager.getBulkDataSource();
+            Connection connection = ds.getConnection();
+            try {
+                run(connection, "player", PLAYER_INSERT, PLAYER_BACK_POINTERS, rows, rounds, commitInterval);
+                run(connection, "game", GAME_INSERT, GAME_BACK_POINTERS, rows, rounds, commitInterval);
+            }
+            finally {
+                connection.setAutoCommit(true);
+                connection.close();
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static void run(Connection connection, String table, String insertSQL, String backPointers, int rows,
+            int rounds, int commitInterval) throws Exception
+    {
+        String withTable = "bench_" + table + "_back_pointers";
+        String withoutTable = "bench_" + table;
+        try {
+            execute(connection, "DROP TABLE IF EXISTS " + withTable + ", " + withoutTable);
+            execute(connection, "CREATE TABLE " + withoutTable + " LIKE " + table);
+            execute(connection, "CREATE TABLE " + withTable + " LIKE " + table);
+            execute(connection, "ALTER TABLE " + withTable + " " + backPointers);
+
+            long bestWith = Long.MAX_VALUE;
+            long bestWithout = Long.MAX_VALUE;
+            for (int round = 0; round < rounds; round++) {
+                // Alternate the order so that neither table always runs on a
+                // warmer buffer pool.
+                if (round % 2 == 0) {
+                    bestWith = Math.min(bestWith, insert(connection, withTable, insertSQL, rows, commitInterval));
+                    bestWithout = Math.min(bestWithout, insert(connection, withoutTable, insertSQL, rows, commitInterval));
+                }
+                else {
+                    bestWithout = Math.min(bestWithout, insert(connection, withoutTable, insertSQL, rows, commitInterval));
+                    bestWith = Math.min(bestWith, insert(connection, withTable, insertSQL, rows, commitInterval));
+                }
+            }
+            System.out.println(String.format("%-7s with back-pointers: %9.0f rows/s   without: %9.0f rows/s   (%+.1f%%)",
+                    table, rows * 1e9 / bestWith, rows * 1e9 / bestWithout,
+                    100.0 * ((double) bestWith / bestWithout - 1)));
+        }
+        finally {
+            connection.setAutoCommit(true);
+            execute(connection, "DROP TABLE IF EXISTS " + withTable + ", " + withoutTable);
+        }
+    }
+
+    /**
+     * Inserts the rows into an emptied table and returns the elapsed time in
+     * nanoseconds.
+     */
+    private static long insert(Connection connection, String table, String insertSQL, int rows, int commitInterval)
+            throws Exception
+    {
+        connection.setAutoCommit(true);
+        execute(connection, "TRUNCATE TABLE " + table);
+        connection.setAutoCommit(false);
+
+        java.sql.Date date = new java.sql.Date(System.currentTimeMillis());
+        PreparedStatement ps = connection.prepareStatement(String.format(insertSQL, table));
+        try {
+            long start = System.nanoTime();
+            for (int idx = 0; idx < rows; idx++) {
+                ps.setString(1, "Name" + idx);
+                ps.setString(2, "Text" + idx);
+                ps.setDate(3, date);
+                ps.setString(4, "row" + idx + "@example.com");
+                ps.addBatch();
+                if ((idx + 1) % DAOUtil.DEFAULT_BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+                if ((idx + 1) % commitInterval == 0) {
+                    connection.commit();
+                }
+            }
+            ps.executeBatch();
+            connection.commit();
+            return System.nanoTime() - start;
+        }
+        finally {
+            ps.close();
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws Exception
+    {
+        Statement stmt = connection.createStatement();
+        try {
+            stmt.execute(sql);
+        }
+        finally {
+            stmt.close();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.dao.CreditCardDAO;
+import cs4347.jdbcGame.dao.GameDAO;
+import cs4347.jdbcGame.dao.GamesOwnedDAO;
+import cs4347.jdbcGame.dao.GamesPlayedDAO;
+import cs4347.jdbcGame.dao.PlayerDAO;
+import cs4347.jdbcGame.dao.impl.CreditCardDAOImpl;
+import cs4347.jdbcGame.dao.impl.GameDAOImpl;
+import cs4347.jdbcGame.dao.impl.GamesOwnedDAOImpl;
+import cs4347.jdbcGame.dao.impl.GamesPlayedDAOImpl;
+import cs4347.jdbcGame.dao.impl.PlayerDAOImpl;
+import cs4347.jdbcGame.entity.CreditCard;
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.entity.Player;
+
+/**
+ * High-throughput replacement for the row-at-a-time inserts in PopulateTables.
+ * The CSV files are streamed instead of being loaded into maps, rows are sent
+ * to the server in batches through the DAO createAll() methods, and the
+ * transaction is committed every 'commitInterval' rows so that no single
+ * transaction grows with the size of the data set. Connections come from
+ * DataSourceManager.getBulkDataSource(), so each batch is rewritten by the
+ * driver into multi-row INSERT statements.
+ * 
+ * Only the generated IDs (and the dates needed to build the synthetic rows)
+ * of players and games are kept in memory. GamesOwned and GamesPlayed rows are
+ * generated 'gamesPerPlayer' at a time per player and never held as a whole.
+ */
+public class BulkLoader
+{
+    public static final int DEFAULT_COMMIT_INTERVAL = 50000;
+    public static final int DEFAULT_GAMES_PER_PLAYER = 3;
+
+    private int batchSize;
+    private int commitInterval;
+    private int gamesPerPlayer;
+
+    private PopulateTables parser;
+    private Random rnGen = new Random();
+
+    // Maps the ID used in the CSV files to the ID generated by the database.
+    private Map<Long, Long> playerIDMap = new HashMap<Long, Long>();
+    private List<Long> playerIDs = new ArrayList<Long>();
+    private List<Date> playerJoinDates = new ArrayList<Date>();
+    private List<Long> gameIDs = new ArrayList<Long>();
+    private List<Date> gameReleaseDates = new ArrayList<Date>();
+
+    public BulkLoader(int batchSize, int commitInterval, int gamesPerPlayer)
+    {
+        if (batchSize <= 0 || commitInterval <= 0 || gamesPerPlayer < 0) {
+            throw new IllegalArgumentException("batchSize and commitInterval must be positive, gamesPerPlayer non-negative");
+        }
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+        this.gamesPerPlayer = gamesPerPlayer;
+
+        parser = new PopulateTables();
+        parser.initialize();
+    }
+
+    /**
+     * Builds a loader from PopulateTables command line arguments of the form
+     * "-bulk [batchSize=N] [commitInterval=N] [gamesPerPlayer=N]". The first
+     * argument ("-bulk") is ignored.
+     */
+    public static BulkLoader fromArgs(String args[])
+    {
+        Map<String, Integer> options = LoaderSupport.parseOptions(args);
+        return new BulkLoader(options.get("batchSize"), options.get("commitInterval"), options.get("gamesPerPlayer"));
+    }
+
+    public void run() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getBulkDataSource();
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            System.out.println("Bulk loading: batchSize=" + batchSize + " commitInterval=" + commitInterval
+                    + " gamesPerPlayer=" + gamesPerPlayer);
+
+            loadPlayers(connection);
+            loadCreditCards(connection);
+            loadGames(connection);
+            loadGamesOwned(connection);
+            loadGamesPlayed(connection);
+            System.out.println("Finished Initializing Database");
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    private void loadPlayers(Connection connection) throws Exception
+    {
+        PlayerDAO playerDAO = new PlayerDAOImpl();
+        TableProgress progress = new TableProgress(connection, "player");
+        List<Long> csvIDs = new ArrayList<Long>(batchSize);
+        List<Player> chunk = new ArrayList<Player>(batchSize);
+
+        BufferedReader br = new BufferedReader(new FileReader(parser.playerFile));
+        try {
+            String line = null;
+            while ((line = br.readLine()) != null) {
+                Object item[] = parser.parsePlayer(line);
+                csvIDs.add((Long) item[0]);
+                chunk.add((Player) item[1]);
+                if (chunk.size() == batchSize) {
+                    insertPlayers(connection, playerDAO, progress, csvIDs, chunk);
+                }
+            }
+            insertPlayers(connection, playerDAO, progress, csvIDs, chunk);
+        }
+        finally {
+            br.close();
+        }
+        progress.finish();
+    }
+
+    private void insertPlayers(Connection connection, PlayerDAO playerDAO, TableProgress progress, List<Long> csvIDs,
+            List<Player> chunk) throws Exception
+    {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Long> keys = playerDAO.createAll(connection, chunk, batchSize);
+        for (int idx = 0; idx < keys.size(); idx++) {
+            playerIDMap.put(csvIDs.get(idx), keys.get(idx));
+            playerIDs.add(keys.get(idx));
+            playerJoinDates.add(chunk.get(idx).getJoinDate());
+        }
+        progress.added(keys.size());
+        csvIDs.clear();
+        chunk.clear();
+    }
+
+    private void loadCreditCards(Connection connection) throws Exception
+    {
+        CreditCardDAO ccDAO = new CreditCardDAOImpl();
+        TableProgress progress = new TableProgress(connection, "creditcard");
+        List<CreditCard> chunk = new ArrayList<CreditCard>(batchSize);
+
+        BufferedReader br = new BufferedReader(new FileReader(parser.ccardFile));
+        try {
+            String line = null;
+            while ((line = br.readLine()) != null) {
+                Object items[] = parser.parseCreditCard(line);
+                CreditCard ccard = (CreditCard) items[1];
+                ccard.setPlayerID(playerIDMap.get(items[0]));
+                chunk.add(ccard);
+                if (chunk.size() == batchSize) {
+                    progress.added(ccDAO.createAll(connection, chunk, batchSize).size());
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                progress.added(ccDAO.createAll(connection, chunk, batchSize).size());
+            }
+        }
+        finally {
+            br.close();
+        }
+        progress.finish();
+    }
+
+    private void loadGames(Connection connection) throws Exception
+    {
+        GameDAO gameDAO = new GameDAOImpl();
+        TableProgress progress = new TableProgress(connection, "game");
+        List<Game> chunk = new ArrayList<Game>(batchSize);
+
+        BufferedReader br = new BufferedReader(new FileReader(parser.gameFile));
+        try {
+            String line = null;
+            while ((line = br.readLine()) != null) {
+                Object item[] = parser.parseGame(line);
+                chunk.add((Game) item[1]);
+                if (chunk.size() == batchSize) {
+                    insertGames(connection, gameDAO, progress, chunk);
+                }
+            }
+            insertGames(connection, gameDAO, progress, chunk);
+        }
+        finally {
+            br.close();
+        }
+        progress.finish();
+    }
+
+    private void insertGames(Connection connection, GameDAO gameDAO, TableProgress progress, List<Game> chunk)
+            throws Exception
+    {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<Long> keys = gameDAO.createAll(connection, chunk, batchSize);
+        for (int idx = 0; idx < keys.size(); idx++) {
+            gameIDs.add(keys.get(idx));
+            gameReleaseDates.add(chunk.get(idx).getReleaseDate());
+        }
+        progress.added(keys.size());
+        chunk.clear();
+    }
+
+    private void loadGamesOwned(Connection connection) throws Exception
+    {
+        GamesOwnedDAO gamesownedDAO = new GamesOwnedDAOImpl();
+        TableProgress progress = new TableProgress(connection, "gamesowned");
+        List<GamesOwned> chunk = new ArrayList<GamesOwned>(batchSize);
+
+        for (Long playerID : playerIDs) {
+            for (int idx = 0; idx < gamesPerPlayer; idx++) {
+                int game = rnGen.nextInt(gameIDs.size());
+                chunk.add(LoaderSupport.gamesOwned(rnGen, playerID, gameIDs.get(game), gameReleaseDates.get(game)));
+                if (chunk.size() == batchSize) {
+                    progress.added(gamesownedDAO.createAll(connection, chunk, batchSize).size());
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            progress.added(gamesownedDAO.createAll(connection, chunk, batchSize).size());
+        }
+        progress.finish();
+    }
+
+    private void loadGamesPlayed(Connection connection) throws Exception
+    {
+        GamesPlayedDAO gamesplayedDAO = new GamesPlayedDAOImpl();
+        TableProgress progress = new TableProgress(connection, "gamesplayed");
+        List<GamesPlayed> chunk = new ArrayList<GamesPlayed>(batchSize);
+
+        for (int player = 0; player < playerIDs.size(); player++) {
+            for (int idx = 0; idx < gamesPerPlayer; idx++) {
+                Long gameID = gameIDs.get(rnGen.nextInt(gameIDs.size()));
+                chunk.add(LoaderSupport.gamesPlayed(rnGen, playerIDs.get(player), gameID, playerJoinDates.get(player)));
+                if (chunk.size() == batchSize) {
+                    progress.added(gamesplayedDAO.createAll(connection, chunk, batchSize).size());
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            progress.added(gamesplayedDAO.createAll(connection, chunk, batchSize).size());
+        }
+        progress.finish();
+    }
+
+    /**
+     * Counts the rows written to one table, commits every 'commitInterval' rows
+     * and reports the load rate once the table is finished.
+     */
+    private class TableProgress
+    {
+        private Connection connection;
+        private String table;
+        private long startTime = System.currentTimeMillis();
+        private long rows = 0;
+        private long uncommitted = 0;
+
+        TableProgress(Connection connection, String table)
+        {
+            this.connection = connection;
+            this.table = table;
+        }
+
+        void added(int count) throws SQLException
+        {
+            rows += count;
+            uncommitted += count;
+            if (uncommitted >= commitInterval) {
+                connection.commit();
+                uncommitted = 0;
+            }
+        }
+
+        void finish() throws SQLException
+        {
+            connection.commit();
+            long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+            System.out.println("Loaded " + rows + " rows into " + table + " in " + elapsed + " ms ("
+                    + (rows * 1000 / elapsed) + " rows/sec)");
+        }
+    }
+}
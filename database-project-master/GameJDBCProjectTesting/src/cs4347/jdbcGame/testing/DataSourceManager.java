@@ -19,11 +19,17 @@ import java.sql.ResultSet;
 import java.sql.Statement;
 import java.util.Date;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.sql.DataSource;
 
 import org.apache.commons.dbcp2.BasicDataSource;
 
+import cs4347.jdbcGame.util.ServiceExecutor;
+
 /**
  * Application use the static method getDataSource() to obtain the singleton
  * DataSource. Data sources are used to open connections to the MySQL server.
@@ -31,39 +37,297 @@ import org.apache.commons.dbcp2.BasicDataSource;
  * property file 'dbconfig.properties'. The property file must be located on the
  * application's CLASSPATH. See the configuration property file is loaded by the
  * method getPropertiesFromClasspath().
+ * 
+ * The same file may also tune the connection pool. Every pool property is
+ * optional and falls back to the DBCP default when absent: maxTotal, minIdle,
+ * maxIdle, maxWaitMillis, validationQuery, testOnBorrow, testWhileIdle,
+ * timeBetweenEvictionRunsMillis, minEvictableIdleTimeMillis,
+ * poolPreparedStatements and maxOpenPreparedStatements. Setting
+ * statsDumpSeconds prints getPoolStats() to stdout at that interval.
+ * 
+ * getServiceExecutor() runs the Async*Service calls. It has one thread per
+ * pooled connection unless serviceThreads is set, and serviceQueueCapacity
+ * (default four times the threads) and serviceMaxWaitMillis (default 1000)
+ * set how many calls may queue and how long a caller waits for room. Setting
+ * serviceVirtualThreads runs each call on a virtual thread instead, still at
+ * most serviceThreads at a time, with a default queue of 1000 calls. With the
+ * bundled MySQL driver that only adds overhead; see ServiceExecutor.
  */
 public class DataSourceManager
 {
+    // Creates the singletons. The getters read them without locking once they
+    // exist, and a ReentrantLock rather than a synchronized method keeps a
+    // virtual thread that waits here from pinning its carrier thread.
+    private static final ReentrantLock INIT_LOCK = new ReentrantLock();
 
-    private static BasicDataSource singletonDS = null;
+    private static volatile InstrumentedDataSource singletonDS = null;
 
-    public synchronized static DataSource getDataSource() throws IOException
+    public static DataSource getDataSource() throws IOException
     {
-        if (singletonDS == null) {
-            System.out.println("Creating Datasource " + new Date());
-            Properties props = getPropertiesFromClasspath();
+        InstrumentedDataSource current = singletonDS;
+        if (current != null) {
+            return current;
+        }
+        INIT_LOCK.lock();
+        try {
+            if (singletonDS == null) {
+                System.out.println("Creating Datasource " + new Date());
+                Properties props = getPropertiesFromClasspath();
+                InstrumentedDataSource ds = buildDataSource(props);
+                startStatsDump(props, "pool", ds);
+                // Published last, since the getters do not lock.
+                singletonDS = ds;
+            }
+            return singletonDS;
+        }
+        finally {
+            INIT_LOCK.unlock();
+        }
+    }
 
-            String url = props.getProperty("url");
-            if (url == null || url.isEmpty()) {
-                throw new RuntimeException("property 'url' not found in configuration file");
+    private static volatile InstrumentedDataSource bulkDS = null;
+
+    /**
+     * Returns a second DataSource intended for bulk loading. Its connections
+     * have the MySQL driver's 'rewriteBatchedStatements' option enabled, which
+     * turns each executeBatch() of single-row INSERTs into multi-row INSERT
+     * statements. It is kept separate from getDataSource() so that regular
+     * application connections are unaffected.
+     */
+    public static DataSource getBulkDataSource() throws IOException
+    {
+        InstrumentedDataSource current = bulkDS;
+        if (current != null) {
+            return current;
+        }
+        INIT_LOCK.lock();
+        try {
+            if (bulkDS == null) {
+                System.out.println("Creating bulk Datasource " + new Date());
+                Properties props = getPropertiesFromClasspath();
+                InstrumentedDataSource ds = buildDataSource(props);
+                ds.getPool().addConnectionProperty("rewriteBatchedStatements", "true");
+                startStatsDump(props, "bulk pool", ds);
+                bulkDS = ds;
             }
+            return bulkDS;
+        }
+        finally {
+            INIT_LOCK.unlock();
+        }
+    }
 
-            String id = props.getProperty("id");
-            if (id == null || id.isEmpty()) {
-                throw new RuntimeException("property 'id' not found in configuration file");
+    private static volatile InstrumentedDataSource streamingDS = null;
+
+    /**
+     * Returns a DataSource for the streamByGame() service methods. Its
+     * connections have the MySQL driver's 'useCursorFetch' option enabled, so
+     * a statement with a positive fetch size reads its result from a
+     * server-side cursor that many rows at a time. Without it the driver
+     * buffers the whole result unless the fetch size is
+     * DAOUtil.STREAM_ROW_BY_ROW.
+     */
+    public static DataSource getStreamingDataSource() throws IOException
+    {
+        InstrumentedDataSource current = streamingDS;
+        if (current != null) {
+            return current;
+        }
+        INIT_LOCK.lock();
+        try {
+            if (streamingDS == null) {
+                System.out.println("Creating streaming Datasource " + new Date());
+                Properties props = getPropertiesFromClasspath();
+                InstrumentedDataSource ds = buildDataSource(props);
+                ds.getPool().addConnectionProperty("useCursorFetch", "true");
+                startStatsDump(props, "streaming pool", ds);
+                streamingDS = ds;
             }
+            return streamingDS;
+        }
+        finally {
+            INIT_LOCK.unlock();
+        }
+    }
+
+    // Threads used when the pool size is unlimited (a negative maxTotal).
+    private static final int DEFAULT_SERVICE_THREADS = 8;
+
+    // A queued call costs a parked virtual thread, not a platform thread.
+    private static final int DEFAULT_VIRTUAL_QUEUE_CAPACITY = 1000;
 
-            String passwd = props.getProperty("passwd");
-            if (passwd == null || passwd.isEmpty()) {
-                throw new RuntimeException("property 'passwd' not found in configuration file");
+    private static volatile ServiceExecutor serviceExecutor = null;
+
+    /**
+     * Returns the singleton executor for the Async*Service classes, sized to
+     * the getDataSource() pool so that every running call can hold a
+     * connection.
+     */
+    public static ServiceExecutor getServiceExecutor() throws IOException
+    {
+        ServiceExecutor current = serviceExecutor;
+        if (current != null) {
+            return current;
+        }
+        INIT_LOCK.lock();
+        try {
+            if (serviceExecutor == null) {
+                Properties props = getPropertiesFromClasspath();
+                getDataSource();
+                Integer threads = getIntProperty(props, "serviceThreads");
+                if (threads == null) {
+                    int maxTotal = singletonDS.getPool().getMaxTotal();
+                    threads = maxTotal > 0 ? maxTotal : DEFAULT_SERVICE_THREADS;
+                }
+                String virtual = props.getProperty("serviceVirtualThreads");
+                boolean virtualThreads = virtual != null && Boolean.parseBoolean(virtual.trim());
+                Integer queueCapacity = getIntProperty(props, "serviceQueueCapacity");
+                if (queueCapacity == null) {
+                    queueCapacity = virtualThreads ? DEFAULT_VIRTUAL_QUEUE_CAPACITY : threads * 4;
+                }
+                Long maxWaitMillis = getLongProperty(props, "serviceMaxWaitMillis");
+                serviceExecutor = new ServiceExecutor(threads, queueCapacity,
+                        maxWaitMillis != null ? maxWaitMillis : 1000, virtualThreads);
             }
+            return serviceExecutor;
+        }
+        finally {
+            INIT_LOCK.unlock();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the getDataSource() pool, or null if it has not
+     * been created yet.
+     */
+    public static PoolStats getPoolStats()
+    {
+        InstrumentedDataSource current = singletonDS;
+        return current == null ? null : current.getStats();
+    }
+
+    /**
+     * Returns a snapshot of the getBulkDataSource() pool, or null if it has not
+     * been created yet.
+     */
+    public static PoolStats getBulkPoolStats()
+    {
+        InstrumentedDataSource current = bulkDS;
+        return current == null ? null : current.getStats();
+    }
+
+    static InstrumentedDataSource buildDataSource(Properties props)
+    {
+        String url = props.getProperty("url");
+        if (url == null || url.isEmpty()) {
+            throw new RuntimeException("property 'url' not found in configuration file");
+        }
+
+        String id = props.getProperty("id");
+        if (id == null || id.isEmpty()) {
+            throw new RuntimeException("property 'id' not found in configuration file");
+        }
+
+        String passwd = props.getProperty("passwd");
+        if (passwd == null || passwd.isEmpty()) {
+            throw new RuntimeException("property 'passwd' not found in configuration file");
+        }
+
+        BasicDataSource ds = new BasicDataSource();
+        ds.setUrl(url);
+        ds.setUsername(id);
+        ds.setPassword(passwd);
+
+        Integer maxTotal = getIntProperty(props, "maxTotal");
+        if (maxTotal != null) {
+            ds.setMaxTotal(maxTotal);
+        }
+        Integer minIdle = getIntProperty(props, "minIdle");
+        if (minIdle != null) {
+            ds.setMinIdle(minIdle);
+        }
+        Integer maxIdle = getIntProperty(props, "maxIdle");
+        if (maxIdle != null) {
+            ds.setMaxIdle(maxIdle);
+        }
+        Long maxWaitMillis = getLongProperty(props, "maxWaitMillis");
+        if (maxWaitMillis != null) {
+            ds.setMaxWaitMillis(maxWaitMillis);
+        }
+        String validationQuery = props.getProperty("validationQuery");
+        if (validationQuery != null && !validationQuery.isEmpty()) {
+            ds.setValidationQuery(validationQuery);
+        }
+        String testOnBorrow = props.getProperty("testOnBorrow");
+        if (testOnBorrow != null) {
+            ds.setTestOnBorrow(Boolean.parseBoolean(testOnBorrow.trim()));
+        }
+        String testWhileIdle = props.getProperty("testWhileIdle");
+        if (testWhileIdle != null) {
+            ds.setTestWhileIdle(Boolean.parseBoolean(testWhileIdle.trim()));
+        }
+        Long evictionRunMillis = getLongProperty(props, "timeBetweenEvictionRunsMillis");
+        if (evictionRunMillis != null) {
+            ds.setTimeBetweenEvictionRunsMillis(evictionRunMillis);
+        }
+        Long minEvictableIdleMillis = getLongProperty(props, "minEvictableIdleTimeMillis");
+        if (minEvictableIdleMillis != null) {
+            ds.setMinEvictableIdleTimeMillis(minEvictableIdleMillis);
+        }
+        String poolPreparedStatements = props.getProperty("poolPreparedStatements");
+        if (poolPreparedStatements != null) {
+            ds.setPoolPreparedStatements(Boolean.parseBoolean(poolPreparedStatements.trim()));
+        }
+        Integer maxOpenPreparedStatements = getIntProperty(props, "maxOpenPreparedStatements");
+        if (maxOpenPreparedStatements != null) {
+            ds.setMaxOpenPreparedStatements(maxOpenPreparedStatements);
+        }
+        return new InstrumentedDataSource(ds);
+    }
+
+    private static Integer getIntProperty(Properties props, String name)
+    {
+        String value = props.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new RuntimeException("property '" + name + "' is not an integer: " + value);
+        }
+    }
 
-            singletonDS = new BasicDataSource();
-            singletonDS.setUrl(url);
-            singletonDS.setUsername(id);
-            singletonDS.setPassword(passwd);
+    private static Long getLongProperty(Properties props, String name)
+    {
+        String value = props.getProperty(name);
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new RuntimeException("property '" + name + "' is not an integer: " + value);
+        }
+    }
+
+    /**
+     * Starts a daemon thread printing the pool statistics every
+     * 'statsDumpSeconds' seconds, if that property is set.
+     */
+    private static void startStatsDump(Properties props, String name, InstrumentedDataSource ds)
+    {
+        Long seconds = getLongProperty(props, "statsDumpSeconds");
+        if (seconds == null || seconds <= 0) {
+            return;
         }
-        return singletonDS;
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DataSourceManager " + name + " stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(() -> System.out.println(new Date() + " " + name + ": " + ds.getStats()), seconds,
+                seconds, TimeUnit.SECONDS);
     }
 
     private static final String propFileName = "dbconfig.properties";
@@ -99,6 +363,7 @@ public class DataSourceManager
                 con.close();
             }
             System.out.println("Finished " + (System.currentTimeMillis() - startTime));
+            System.out.println("Pool: " + getPoolStats());
         } catch (Exception ex) {
             ex.printStackTrace();
         }
@@ -0,0 +1,193 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+
+import javax.sql.DataSource;
+
+/**
+ * Measures lookups of GamesOwned rows by game for the three forms the DAOs
+ * have used for their game_ID predicates:
+ * 
+ * - "game_ID like ?" on the BIGINT column, which converts every row to a
+ * string and scans the table,
+ * - "game_ID = ?" on a VARCHAR copy of the column bound with setLong(), which
+ * converts every row to a number and also scans the table,
+ * - "game_ID = ?" on the BIGINT column, which reads idx_gamesowned_game.
+ * 
+ * The rows are written to scratch tables created with "CREATE TABLE ... LIKE
+ * gamesowned", so the indexes match the real table and the application data
+ * is not touched. The scratch tables are dropped at the end. The scanning
+ * forms are run with fewer lookups because each one reads the whole table.
+ * 
+ * Usage: IDLookupBenchmark [rows] [lookups] [games]
+ */
+public class IDLookupBenchmark
+{
+    private static final String TYPED_TABLE = "bench_gamesowned";
+    private static final String VARCHAR_TABLE = "bench_gamesowned_varchar";
+
+    private static final int SEED_ROWS = 1000;
+
+    public static void main(String args[])
+    {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 10000000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int scanLookups = Math.max(5, lookups / 100);
+        try {
+            DataSource ds = DataSourceManager.getBulkDataSource();
+            Connection connection = ds.getConnection();
+            try {
+                long start = System.currentTimeMillis();
+                createTables(connection, rows, games);
+                System.out.println("Loaded " + rows + " rows in " + (System.currentTimeMillis() - start) + " ms");
+
+                Random random = new Random(4347);
+                run(connection, "BIGINT game_ID like ?", TYPED_TABLE, "game_ID like ?", scanLookups, games, random);
+                run(connection, "VARCHAR game_ID = number", VARCHAR_TABLE, "game_ID = ?", scanLookups, games, random);
+                run(connection, "BIGINT game_ID = ?", TYPED_TABLE, "game_ID = ?", lookups, games, random);
+            }
+            finally {
+                dropTables(connection);
+                connection.close();
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static void createTables(Connection connection, int rows, int games) throws Exception
+    {
+        dropTables(connection);
+        Statement stmt = connection.createStatement();
+        try {
+            stmt.execute("CREATE TABLE " + TYPED_TABLE + " LIKE gamesowned");
+        }
+        finally {
+            stmt.close();
+        }
+
+        // Seed with a batch, then double the table server side until it is
+        // large enough.
+        PreparedStatement ps = connection.prepareStatement("INSERT INTO " + TYPED_TABLE
+                + " (player_ID, game_ID, purchase_date, purchase_price) VALUES (?, ?, ?, ?)");
+        try {
+            Random random = new Random(1);
+            for (int idx = 0; idx < Math.min(SEED_ROWS, rows); idx++) {
+                ps.setLong(1, idx + 1);
+                ps.setLong(2, random.nextInt(games) + 1);
+                ps.setDate(3, new java.sql.Date(System.currentTimeMillis()));
+                ps.setFloat(4, random.nextInt(6000) / 100.0f);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+        finally {
+            ps.close();
+        }
+
+        int count = Math.min(SEED_ROWS, rows);
+        ps = connection.prepareStatement("INSERT INTO " + TYPED_TABLE
+                + " (player_ID, game_ID, purchase_date, purchase_price)"
+                + " SELECT player_ID + ?, FLOOR(1 + RAND() * ?), purchase_date, purchase_price FROM "
+                + TYPED_TABLE + " LIMIT ?");
+        try {
+            while (count < rows) {
+                ps.setLong(1, count);
+                ps.setInt(2, games);
+                ps.setInt(3, Math.min(count, rows - count));
+                count += ps.executeUpdate();
+            }
+        }
+        finally {
+            ps.close();
+        }
+
+        stmt = connection.createStatement();
+        try {
+            stmt.execute("CREATE TABLE " + VARCHAR_TABLE + " LIKE " + TYPED_TABLE);
+            stmt.execute("ALTER TABLE " + VARCHAR_TABLE + " MODIFY game_ID VARCHAR(45) NOT NULL");
+            stmt.execute("INSERT INTO " + VARCHAR_TABLE + " SELECT * FROM " + TYPED_TABLE);
+            stmt.execute("ANALYZE TABLE " + TYPED_TABLE + ", " + VARCHAR_TABLE);
+        }
+        finally {
+            stmt.close();
+        }
+    }
+
+    private static void dropTables(Connection connection) throws Exception
+    {
+        Statement stmt = connection.createStatement();
+        try {
+            stmt.execute("DROP TABLE IF EXISTS " + TYPED_TABLE + ", " + VARCHAR_TABLE);
+        }
+        finally {
+            stmt.close();
+        }
+    }
+
+    private static void run(Connection connection, String name, String table, String predicate, int lookups,
+            int games, Random random) throws Exception
+    {
+        PreparedStatement ps = connection.prepareStatement("SELECT * FROM " + table + " WHERE " + predicate);
+        try {
+            // Warm up the buffer pool before measuring.
+            lookup(ps, random.nextInt(games) + 1);
+
+            long latencies[] = new long[lookups];
+            long found = 0;
+            for (int idx = 0; idx < lookups; idx++) {
+                long start = System.nanoTime();
+                found += lookup(ps, random.nextInt(games) + 1);
+                latencies[idx] = System.nanoTime() - start;
+            }
+            Arrays.sort(latencies);
+            long total = 0;
+            for (long latency : latencies) {
+                total += latency;
+            }
+            System.out.println(String.format(
+                    "%-26s %6d lookups  avg: %9.3f ms  p50: %9.3f ms  p99: %9.3f ms  rows/lookup: %.1f", name,
+                    lookups, total / 1e6 / lookups, percentile(latencies, 50) / 1e6,
+                    percentile(latencies, 99) / 1e6, (double) found / lookups));
+        }
+        finally {
+            ps.close();
+        }
+    }
+
+    private static int lookup(PreparedStatement ps, long gameID) throws Exception
+    {
+        ps.setLong(1, gameID);
+        ResultSet rs = ps.executeQuery();
+        int count = 0;
+        while (rs.next()) {
+            count++;
+        }
+        rs.close();
+        return count;
+    }
+
+    private static long percentile(long sorted[], int percent)
+    {
+        int idx = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+}
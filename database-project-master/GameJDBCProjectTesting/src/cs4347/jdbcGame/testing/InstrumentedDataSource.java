@@ -0,0 +1,173 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+/**
+ * DataSource wrapper around a DBCP pool that times every getConnection() call.
+ * The time spent waiting for a connection is recorded in a histogram (see
+ * PoolStats.WAIT_BUCKET_LIMITS_MS) together with the number of failed borrows,
+ * so that pool exhaustion shows up in getStats() instead of as unexplained
+ * stalls.
+ */
+public class InstrumentedDataSource implements DataSource
+{
+    private BasicDataSource pool;
+
+    private AtomicLong borrows = new AtomicLong();
+    private AtomicLong borrowFailures = new AtomicLong();
+    private AtomicLong totalWaitNanos = new AtomicLong();
+    private AtomicLong maxWaitNanos = new AtomicLong();
+    private AtomicLongArray waitHistogram = new AtomicLongArray(PoolStats.WAIT_BUCKET_LIMITS_MS.length + 1);
+
+    public InstrumentedDataSource(BasicDataSource pool)
+    {
+        this.pool = pool;
+    }
+
+    /**
+     * The underlying pool, e.g. for adding connection properties before the
+     * first connection is opened.
+     */
+    public BasicDataSource getPool()
+    {
+        return pool;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException
+    {
+        long start = System.nanoTime();
+        try {
+            Connection connection = pool.getConnection();
+            borrows.incrementAndGet();
+            return connection;
+        } catch (SQLException ex) {
+            borrowFailures.incrementAndGet();
+            throw ex;
+        }
+        finally {
+            recordWait(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException
+    {
+        long start = System.nanoTime();
+        try {
+            Connection connection = pool.getConnection(username, password);
+            borrows.incrementAndGet();
+            return connection;
+        } catch (SQLException ex) {
+            borrowFailures.incrementAndGet();
+            throw ex;
+        } catch (UnsupportedOperationException ex) {
+            borrowFailures.incrementAndGet();
+            throw new SQLFeatureNotSupportedException(ex.getMessage(), ex);
+        }
+        finally {
+            recordWait(System.nanoTime() - start);
+        }
+    }
+
+    private void recordWait(long nanos)
+    {
+        totalWaitNanos.addAndGet(nanos);
+        long max = maxWaitNanos.get();
+        while (nanos > max && !maxWaitNanos.compareAndSet(max, nanos)) {
+            max = maxWaitNanos.get();
+        }
+
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        int bucket = 0;
+        while (bucket < PoolStats.WAIT_BUCKET_LIMITS_MS.length && millis >= PoolStats.WAIT_BUCKET_LIMITS_MS[bucket]) {
+            bucket++;
+        }
+        waitHistogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * Returns a snapshot of the pool counts and the borrow statistics.
+     */
+    public PoolStats getStats()
+    {
+        long histogram[] = new long[waitHistogram.length()];
+        for (int idx = 0; idx < histogram.length; idx++) {
+            histogram[idx] = waitHistogram.get(idx);
+        }
+        return new PoolStats(pool.getNumActive(), pool.getNumIdle(), pool.getMaxTotal(), borrows.get(),
+                borrowFailures.get(), TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get()),
+                TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()), histogram);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException
+    {
+        return pool.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException
+    {
+        pool.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException
+    {
+        pool.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException
+    {
+        return pool.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException
+    {
+        return pool.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException
+    {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        if (iface.isInstance(pool)) {
+            return iface.cast(pool);
+        }
+        return pool.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException
+    {
+        return iface.isInstance(this) || iface.isInstance(pool) || pool.isWrapperFor(iface);
+    }
+}
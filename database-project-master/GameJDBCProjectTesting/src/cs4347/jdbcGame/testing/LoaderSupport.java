@@ -0,0 +1,91 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.util.DAOUtil;
+
+/**
+ * Command line parsing and synthetic row generation shared by BulkLoader and
+ * ParallelLoader, so that both load modes accept the same options and produce
+ * the same data.
+ */
+final class LoaderSupport
+{
+    private LoaderSupport()
+    {
+    }
+
+    /**
+     * Parses the "name=value" options that follow args[0]. batchSize,
+     * commitInterval and gamesPerPlayer are always accepted and are present in
+     * the result, set to their defaults when not given; the names in
+     * 'extraOptions' are accepted as well and are only present when given.
+     */
+    static Map<String, Integer> parseOptions(String args[], String... extraOptions)
+    {
+        Map<String, Integer> options = new HashMap<String, Integer>();
+        options.put("batchSize", DAOUtil.DEFAULT_BATCH_SIZE);
+        options.put("commitInterval", BulkLoader.DEFAULT_COMMIT_INTERVAL);
+        options.put("gamesPerPlayer", BulkLoader.DEFAULT_GAMES_PER_PLAYER);
+        for (String name : extraOptions) {
+            options.put(name, null);
+        }
+        for (int idx = 1; idx < args.length; idx++) {
+            String arg[] = args[idx].split("=", 2);
+            if (arg.length != 2) {
+                throw new IllegalArgumentException("Expected name=value but found: " + args[idx]);
+            }
+            if (!options.containsKey(arg[0])) {
+                throw new IllegalArgumentException("Unknown option: " + arg[0]);
+            }
+            options.put(arg[0], Integer.parseInt(arg[1]));
+        }
+        options.values().remove(null);
+        return options;
+    }
+
+    /**
+     * A synthetic purchase of the game on its release date, at a random price
+     * below 100.
+     */
+    static GamesOwned gamesOwned(Random rnGen, Long playerID, Long gameID, Date releaseDate)
+    {
+        GamesOwned go = new GamesOwned();
+        go.setGameID(gameID);
+        go.setPlayerID(playerID);
+        go.setPurchaseDate(releaseDate);
+        go.setPurchasePrice(rnGen.nextFloat() * 100f);
+        return go;
+    }
+
+    /**
+     * A synthetic play of the game finished on the player's join date, with a
+     * random score below 100.
+     */
+    static GamesPlayed gamesPlayed(Random rnGen, Long playerID, Long gameID, Date joinDate)
+    {
+        GamesPlayed gp = new GamesPlayed();
+        gp.setGameID(gameID);
+        gp.setPlayerID(playerID);
+        gp.setScore(rnGen.nextInt(100));
+        gp.setTimeFinished(joinDate);
+        return gp;
+    }
+}
@@ -0,0 +1,477 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.dao.CreditCardDAO;
+import cs4347.jdbcGame.dao.GameDAO;
+import cs4347.jdbcGame.dao.GamesOwnedDAO;
+import cs4347.jdbcGame.dao.GamesPlayedDAO;
+import cs4347.jdbcGame.dao.PlayerDAO;
+import cs4347.jdbcGame.dao.impl.CreditCardDAOImpl;
+import cs4347.jdbcGame.dao.impl.GameDAOImpl;
+import cs4347.jdbcGame.dao.impl.GamesOwnedDAOImpl;
+import cs4347.jdbcGame.dao.impl.GamesPlayedDAOImpl;
+import cs4347.jdbcGame.dao.impl.PlayerDAOImpl;
+import cs4347.jdbcGame.entity.CreditCard;
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.entity.Player;
+
+/**
+ * Parallel version of BulkLoader. Each table is loaded by a pipeline made of
+ * one reader thread, a bounded queue of row chunks and 'writers' writer
+ * threads. Every writer borrows its own connection from
+ * DataSourceManager.getBulkDataSource() for the life of the pipeline, inserts
+ * chunks through the DAO createAll() methods and commits every
+ * 'commitInterval' rows.
+ * 
+ * The load runs in two phases. The parent tables (player and game) are loaded
+ * concurrently first; the child tables (creditcard, gamesowned and
+ * gamesplayed) only start once both parents are complete because they need
+ * the generated parent IDs. Every writer holds a connection, so each table
+ * of a phase gets at most maxTotal / tables writers, keeping the phase within
+ * the pool's maxTotal; the pool needs at least 3 connections.
+ * 
+ * Rows committed before a failure are not rolled back.
+ */
+public class ParallelLoader
+{
+    public static final int DEFAULT_WRITERS = Runtime.getRuntime().availableProcessors();
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    private int batchSize;
+    private int commitInterval;
+    private int gamesPerPlayer;
+    private int writers;
+    private int queueCapacity;
+
+    private PopulateTables parser;
+    private DataSource dataSource;
+
+    private PlayerDAO playerDAO = new PlayerDAOImpl();
+    private CreditCardDAO ccDAO = new CreditCardDAOImpl();
+    private GameDAO gameDAO = new GameDAOImpl();
+    private GamesOwnedDAO gamesownedDAO = new GamesOwnedDAOImpl();
+    private GamesPlayedDAO gamesplayedDAO = new GamesPlayedDAOImpl();
+
+    // Filled by the parent phase, read by the child phase.
+    private Map<Long, Long> playerIDMap = new ConcurrentHashMap<Long, Long>();
+    private Map<Long, Date> playerJoinDates = new ConcurrentHashMap<Long, Date>();
+    private Map<Long, Date> gameReleaseDates = new ConcurrentHashMap<Long, Date>();
+
+    public ParallelLoader(int batchSize, int commitInterval, int gamesPerPlayer, int writers, int queueCapacity)
+    {
+        if (batchSize <= 0 || commitInterval <= 0 || gamesPerPlayer < 0 || writers <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Loader options must be positive (gamesPerPlayer non-negative)");
+        }
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+        this.gamesPerPlayer = gamesPerPlayer;
+        this.writers = writers;
+        this.queueCapacity = queueCapacity;
+
+        parser = new PopulateTables();
+        parser.initialize();
+    }
+
+    /**
+     * Builds a loader from PopulateTables command line arguments of the form
+     * "-parallel [writers=N] [queueCapacity=N] [batchSize=N] [commitInterval=N]
+     * [gamesPerPlayer=N]". The first argument ("-parallel") is ignored.
+     */
+    public static ParallelLoader fromArgs(String args[])
+    {
+        Map<String, Integer> options = LoaderSupport.parseOptions(args, "writers", "queueCapacity");
+        return new ParallelLoader(options.get("batchSize"), options.get("commitInterval"),
+                options.get("gamesPerPlayer"), options.getOrDefault("writers", DEFAULT_WRITERS),
+                options.getOrDefault("queueCapacity", DEFAULT_QUEUE_CAPACITY));
+    }
+
+    public void run() throws Exception
+    {
+        dataSource = DataSourceManager.getBulkDataSource();
+        System.out.println("Parallel loading: writers=" + writers + " queueCapacity=" + queueCapacity + " batchSize="
+                + batchSize + " commitInterval=" + commitInterval + " gamesPerPlayer=" + gamesPerPlayer);
+        long startTime = System.currentTimeMillis();
+
+        int parentWriters = writersPerTable(2);
+        List<Callable<Void>> parents = new ArrayList<Callable<Void>>();
+        parents.add(() -> load("player", parentWriters,
+                new CsvSource(parser.playerFile, line -> parser.parsePlayer(line)), this::writePlayers));
+        parents.add(() -> load("game", parentWriters, new CsvSource(parser.gameFile, line -> parser.parseGame(line)),
+                this::writeGames));
+        runPhase(parents);
+
+        Long playerIDs[] = playerJoinDates.keySet().toArray(new Long[0]);
+        Long gameIDs[] = gameReleaseDates.keySet().toArray(new Long[0]);
+
+        int childWriters = writersPerTable(3);
+        List<Callable<Void>> children = new ArrayList<Callable<Void>>();
+        children.add(() -> load("creditcard", childWriters,
+                new CsvSource(parser.ccardFile, line -> parser.parseCreditCard(line)), this::writeCreditCards));
+        children.add(() -> load("gamesowned", childWriters, new GamesOwnedSource(playerIDs, gameIDs),
+                (connection, chunk) -> gamesownedDAO.createAll(connection, chunk, batchSize).size()));
+        children.add(() -> load("gamesplayed", childWriters, new GamesPlayedSource(playerIDs, gameIDs),
+                (connection, chunk) -> gamesplayedDAO.createAll(connection, chunk, batchSize).size()));
+        runPhase(children);
+
+        System.out.println("Finished Initializing Database in " + (System.currentTimeMillis() - startTime) + " ms");
+    }
+
+    /**
+     * Returns the number of writers for each of 'tables' concurrent loads:
+     * 'writers', lowered so that all of them fit in the bulk pool at once.
+     */
+    private int writersPerTable(int tables)
+    {
+        int maxTotal = ((InstrumentedDataSource) dataSource).getPool().getMaxTotal();
+        if (maxTotal < 0) {
+            // Unlimited pool.
+            return writers;
+        }
+        if (maxTotal < tables) {
+            throw new IllegalStateException("Pool maxTotal=" + maxTotal + " cannot give a connection to each of "
+                    + tables + " concurrent table loads");
+        }
+        return Math.min(writers, maxTotal / tables);
+    }
+
+    /**
+     * Runs the given table loads concurrently and waits for all of them.
+     */
+    private void runPhase(List<Callable<Void>> loads) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(loads.size());
+        try {
+            List<Future<Void>> futures = executor.invokeAll(loads);
+            for (Future<Void> future : futures) {
+                awaitResult(future);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int writePlayers(Connection connection, List<Object[]> chunk) throws Exception
+    {
+        List<Player> players = new ArrayList<Player>(chunk.size());
+        for (Object[] item : chunk) {
+            players.add((Player) item[1]);
+        }
+        List<Long> keys = playerDAO.createAll(connection, players, batchSize);
+        for (int idx = 0; idx < keys.size(); idx++) {
+            playerIDMap.put((Long) chunk.get(idx)[0], keys.get(idx));
+            playerJoinDates.put(keys.get(idx), players.get(idx).getJoinDate());
+        }
+        return keys.size();
+    }
+
+    private int writeGames(Connection connection, List<Object[]> chunk) throws Exception
+    {
+        List<Game> games = new ArrayList<Game>(chunk.size());
+        for (Object[] item : chunk) {
+            games.add((Game) item[1]);
+        }
+        List<Long> keys = gameDAO.createAll(connection, games, batchSize);
+        for (int idx = 0; idx < keys.size(); idx++) {
+            gameReleaseDates.put(keys.get(idx), games.get(idx).getReleaseDate());
+        }
+        return keys.size();
+    }
+
+    private int writeCreditCards(Connection connection, List<Object[]> chunk) throws Exception
+    {
+        List<CreditCard> ccards = new ArrayList<CreditCard>(chunk.size());
+        for (Object[] item : chunk) {
+            CreditCard ccard = (CreditCard) item[1];
+            ccard.setPlayerID(playerIDMap.get(item[0]));
+            ccards.add(ccard);
+        }
+        return ccDAO.createAll(connection, ccards, batchSize).size();
+    }
+
+    /**
+     * Loads one table: the calling thread reads rows from the source and queues
+     * them in chunks of 'batchSize'; 'writers' threads drain the queue.
+     */
+    private <T> Void load(String table, int writers, RowSource<T> source, ChunkWriter<T> writer) throws Exception
+    {
+        long startTime = System.currentTimeMillis();
+        BlockingQueue<List<T>> queue = new ArrayBlockingQueue<List<T>>(queueCapacity);
+        List<T> endOfData = new ArrayList<T>();
+        AtomicLong rows = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int idx = 0; idx < writers; idx++) {
+                futures.add(executor.submit(() -> drain(queue, endOfData, writer, rows)));
+            }
+
+            try {
+                List<T> chunk = new ArrayList<T>(batchSize);
+                T row = null;
+                while ((row = source.next()) != null) {
+                    chunk.add(row);
+                    if (chunk.size() == batchSize) {
+                        enqueue(queue, chunk, futures);
+                        chunk = new ArrayList<T>(batchSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    enqueue(queue, chunk, futures);
+                }
+            }
+            finally {
+                source.close();
+            }
+
+            // One end marker per writer.
+            for (int idx = 0; idx < writers; idx++) {
+                enqueue(queue, endOfData, futures);
+            }
+            for (Future<Void> future : futures) {
+                awaitResult(future);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        System.out.println("Loaded " + rows.get() + " rows into " + table + " with " + writers + " writers in "
+                + elapsed + " ms (" + (rows.get() * 1000 / elapsed) + " rows/sec)");
+        return null;
+    }
+
+    /**
+     * Body of a writer thread: inserts chunks on its own connection until the
+     * end marker is taken from the queue.
+     */
+    private <T> Void drain(BlockingQueue<List<T>> queue, List<T> endOfData, ChunkWriter<T> writer, AtomicLong rows)
+            throws Exception
+    {
+        Connection connection = dataSource.getConnection();
+        try {
+            connection.setAutoCommit(false);
+            long uncommitted = 0;
+            while (true) {
+                List<T> chunk = queue.take();
+                if (chunk == endOfData) {
+                    break;
+                }
+                int count = writer.write(connection, chunk);
+                rows.addAndGet(count);
+                uncommitted += count;
+                if (uncommitted >= commitInterval) {
+                    connection.commit();
+                    uncommitted = 0;
+                }
+            }
+            connection.commit();
+            return null;
+        } catch (Exception ex) {
+            connection.rollback();
+            throw ex;
+        }
+        finally {
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    /**
+     * Blocks until the chunk fits in the queue. A writer only finishes early
+     * when it failed, in which case its exception is rethrown here instead of
+     * waiting forever on a queue nobody drains.
+     */
+    private <T> void enqueue(BlockingQueue<List<T>> queue, List<T> chunk, List<Future<Void>> futures) throws Exception
+    {
+        while (!queue.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+            for (Future<Void> future : futures) {
+                if (future.isDone()) {
+                    awaitResult(future);
+                    throw new IllegalStateException("Writer thread finished before the end of data");
+                }
+            }
+        }
+    }
+
+    private static void awaitResult(Future<Void> future) throws Exception
+    {
+        try {
+            future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Supplies the rows of one table. next() returns null once the source is
+     * exhausted. Only the pipeline's reader thread calls a source.
+     */
+    private interface RowSource<T>
+    {
+        T next() throws Exception;
+
+        void close() throws Exception;
+    }
+
+    /**
+     * Inserts one chunk on the writer thread's connection and returns the
+     * number of rows written.
+     */
+    private interface ChunkWriter<T>
+    {
+        int write(Connection connection, List<T> chunk) throws Exception;
+    }
+
+    private interface LineParser
+    {
+        Object[] parse(String line) throws Exception;
+    }
+
+    /**
+     * Streams a CSV file, yielding the { csvID, entity } pairs produced by the
+     * PopulateTables parse methods.
+     */
+    private static class CsvSource implements RowSource<Object[]>
+    {
+        private BufferedReader br;
+        private LineParser lineParser;
+
+        CsvSource(File file, LineParser lineParser) throws Exception
+        {
+            this.br = new BufferedReader(new FileReader(file));
+            this.lineParser = lineParser;
+        }
+
+        @Override
+        public Object[] next() throws Exception
+        {
+            String line = br.readLine();
+            return line == null ? null : lineParser.parse(line);
+        }
+
+        @Override
+        public void close() throws Exception
+        {
+            br.close();
+        }
+    }
+
+    /**
+     * Generates 'gamesPerPlayer' synthetic GamesOwned rows per player.
+     */
+    private class GamesOwnedSource implements RowSource<GamesOwned>
+    {
+        private Long playerIDs[];
+        private Long gameIDs[];
+        private Random rnGen = new Random();
+        private int player = 0;
+        private int count = 0;
+
+        GamesOwnedSource(Long playerIDs[], Long gameIDs[])
+        {
+            this.playerIDs = playerIDs;
+            this.gameIDs = gameIDs;
+        }
+
+        @Override
+        public GamesOwned next()
+        {
+            if (count == gamesPerPlayer) {
+                player++;
+                count = 0;
+            }
+            if (player >= playerIDs.length || gamesPerPlayer == 0) {
+                return null;
+            }
+            count++;
+
+            Long gameID = gameIDs[rnGen.nextInt(gameIDs.length)];
+            return LoaderSupport.gamesOwned(rnGen, playerIDs[player], gameID, gameReleaseDates.get(gameID));
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+
+    /**
+     * Generates 'gamesPerPlayer' synthetic GamesPlayed rows per player.
+     */
+    private class GamesPlayedSource implements RowSource<GamesPlayed>
+    {
+        private Long playerIDs[];
+        private Long gameIDs[];
+        private Random rnGen = new Random();
+        private int player = 0;
+        private int count = 0;
+
+        GamesPlayedSource(Long playerIDs[], Long gameIDs[])
+        {
+            this.playerIDs = playerIDs;
+            this.gameIDs = gameIDs;
+        }
+
+        @Override
+        public GamesPlayed next()
+        {
+            if (count == gamesPerPlayer) {
+                player++;
+                count = 0;
+            }
+            if (player >= playerIDs.length || gamesPerPlayer == 0) {
+                return null;
+            }
+            count++;
+
+            Long gameID = gameIDs[rnGen.nextInt(gameIDs.length)];
+            return LoaderSupport.gamesPlayed(rnGen, playerIDs[player], gameID, playerJoinDates.get(playerIDs[player]));
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    }
+}
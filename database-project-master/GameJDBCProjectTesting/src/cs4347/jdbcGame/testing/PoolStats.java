@@ -0,0 +1,128 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+/**
+ * Point-in-time snapshot of a connection pool's state and the borrow
+ * statistics gathered by InstrumentedDataSource.
+ */
+public class PoolStats
+{
+    /**
+     * Upper bounds (exclusive, in milliseconds) of the wait-time histogram
+     * buckets. The last histogram bucket counts every wait at or above the last
+     * bound.
+     */
+    public static final long WAIT_BUCKET_LIMITS_MS[] = { 1, 5, 10, 50, 100, 500, 1000 };
+
+    private int numActive;
+    private int numIdle;
+    private int maxTotal;
+    private long borrows;
+    private long borrowFailures;
+    private long totalWaitMillis;
+    private long maxWaitMillis;
+    private long waitHistogram[];
+
+    public PoolStats(int numActive, int numIdle, int maxTotal, long borrows, long borrowFailures,
+            long totalWaitMillis, long maxWaitMillis, long waitHistogram[])
+    {
+        this.numActive = numActive;
+        this.numIdle = numIdle;
+        this.maxTotal = maxTotal;
+        this.borrows = borrows;
+        this.borrowFailures = borrowFailures;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.waitHistogram = waitHistogram;
+    }
+
+    public int getNumActive()
+    {
+        return numActive;
+    }
+
+    public int getNumIdle()
+    {
+        return numIdle;
+    }
+
+    public int getMaxTotal()
+    {
+        return maxTotal;
+    }
+
+    /**
+     * Number of successful getConnection() calls.
+     */
+    public long getBorrows()
+    {
+        return borrows;
+    }
+
+    /**
+     * Number of getConnection() calls that threw, e.g. because maxWaitMillis
+     * expired while the pool was exhausted.
+     */
+    public long getBorrowFailures()
+    {
+        return borrowFailures;
+    }
+
+    public long getTotalWaitMillis()
+    {
+        return totalWaitMillis;
+    }
+
+    public long getMaxWaitMillis()
+    {
+        return maxWaitMillis;
+    }
+
+    /**
+     * Count of borrows per wait-time bucket; see WAIT_BUCKET_LIMITS_MS.
+     */
+    public long[] getWaitHistogram()
+    {
+        return waitHistogram.clone();
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("active=").append(numActive);
+        sb.append(" idle=").append(numIdle);
+        sb.append(" maxTotal=").append(maxTotal);
+        sb.append(" borrows=").append(borrows);
+        sb.append(" failures=").append(borrowFailures);
+        long attempts = borrows + borrowFailures;
+        sb.append(" avgWaitMs=").append(attempts == 0 ? 0 : totalWaitMillis / attempts);
+        sb.append(" maxWaitMs=").append(maxWaitMillis);
+        sb.append(" wait[");
+        for (int idx = 0; idx < waitHistogram.length; idx++) {
+            if (idx > 0) {
+                sb.append(' ');
+            }
+            if (idx < WAIT_BUCKET_LIMITS_MS.length) {
+                sb.append('<').append(WAIT_BUCKET_LIMITS_MS[idx]);
+            }
+            else {
+                sb.append(">=").append(WAIT_BUCKET_LIMITS_MS[idx - 1]);
+            }
+            sb.append("ms:").append(waitHistogram[idx]);
+        }
+        sb.append(']');
+        return sb.toString();
+    }
+}
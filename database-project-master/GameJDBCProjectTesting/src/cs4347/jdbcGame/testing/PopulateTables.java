@@ -43,22 +43,51 @@ import cs4347.jdbcGame.entity.Game;
 import cs4347.jdbcGame.entity.GamesOwned;
 import cs4347.jdbcGame.entity.GamesPlayed;
 import cs4347.jdbcGame.entity.Player;
+import cs4347.jdbcGame.services.GameRevenueService;
+import cs4347.jdbcGame.services.PlayerStatsService;
+import cs4347.jdbcGame.services.impl.GameRevenueServiceImpl;
+import cs4347.jdbcGame.services.impl.PlayerStatsServiceImpl;
 
 public class PopulateTables
 {
-    private File playerFile;
-    private File ccardFile;
-    private File gameFile;
+    File playerFile;
+    File ccardFile;
+    File gameFile;
 
-    private void initialize()
+    void initialize()
     {
         playerFile = new File("csvData/players.csv");
         ccardFile = new File("csvData/creditCards.csv");
         gameFile = new File("csvData/games.csv");
     }
 
+    /**
+     * With no arguments every table is built in memory and inserted row by row
+     * in a single transaction. Passing "-bulk" switches to BulkLoader and
+     * "-parallel" to ParallelLoader; see their fromArgs() methods for the
+     * tuning options.
+     */
     public static void main(String args[])
     {
+        if (args.length > 0 && args[0].equals("-bulk")) {
+            try {
+                BulkLoader.fromArgs(args).run();
+                rebuildSummaries(DataSourceManager.getDataSource());
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("-parallel")) {
+            try {
+                ParallelLoader.fromArgs(args).run();
+                rebuildSummaries(DataSourceManager.getDataSource());
+            } catch (Exception ex) {
+                ex.printStackTrace();
+            }
+            return;
+        }
+
         try {
             DataSource dataSource = DataSourceManager.getDataSource();
             Connection connection = dataSource.getConnection();
@@ -90,12 +119,29 @@ public class PopulateTables
             System.out.println("Finished inserting gamesPlayed");
 
             connection.commit();
+            rebuildSummaries(dataSource);
             System.out.println("Finished Initializing Database");
         } catch (Exception ex) {
             ex.printStackTrace();
         }
     }
 
+    /**
+     * Every load path writes GAMES_OWNED and GAMES_PLAYED through the DAOs, not
+     * the services, so the player totals and revenue buckets are rebuilt once
+     * the rows are in.
+     */
+    static void rebuildSummaries(DataSource dataSource) throws Exception
+    {
+        PlayerStatsService statsService = new PlayerStatsServiceImpl(dataSource);
+        int players = statsService.rebuildAll(Runtime.getRuntime().availableProcessors(), 1000);
+        System.out.println("Finished rebuilding player stats: " + players);
+
+        GameRevenueService revenueService = new GameRevenueServiceImpl(dataSource);
+        int buckets = revenueService.backfill(1000);
+        System.out.println("Finished backfilling revenue: " + buckets);
+    }
+
     Random rnGen = new Random();
 
     private List<GamesOwned> buildGamesOwned(Player[] players, Game[] games)
@@ -164,7 +210,7 @@ public class PopulateTables
 
     SimpleDateFormat gameSDF = new SimpleDateFormat("MM/dd/yyyy");
 
-    private Object[] parseGame(String line) throws ParseException
+    Object[] parseGame(String line) throws ParseException
     {
         StringTokenizer st = new StringTokenizer(line, ",");
 
@@ -208,7 +254,7 @@ public class PopulateTables
 
     SimpleDateFormat playerSDF = new SimpleDateFormat("MM/dd/yyyy");
 
-    private Object[] parsePlayer(String line) throws ParseException
+    Object[] parsePlayer(String line) throws ParseException
     {
         StringTokenizer st = new StringTokenizer(line, ",");
         Player player = new Player();
@@ -223,7 +269,7 @@ public class PopulateTables
         return result;
     }
 
-    private Object[] parseCreditCard(String line) throws Exception
+    Object[] parseCreditCard(String line) throws Exception
     {
         StringTokenizer st = new StringTokenizer(line, ",");
 
@@ -0,0 +1,659 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+/**
+ * Moves a database created with the original schema to the typed v2 schema of
+ * SQLSchemaScript.sql without taking it offline:
+ * 
+ * - Game.release_date VARCHAR to DATE,
+ * - CreditCard.exp_date free-form VARCHAR to DATE (first day of the month),
+ * - GamesOwned.purchase_price FLOAT to DECIMAL(10,2),
+ * - GamesPlayed.game_ID VARCHAR to BIGINT,
+ * - foreign keys from GamesOwned, GamesPlayed and CreditCard to their parents.
+ * 
+ * The work is split into phases that can be run, stopped and rerun
+ * separately:
+ * 
+ * - expand: adds a nullable typed shadow column (and shadow copies of its
+ * indexes) next to each old column and installs triggers that keep the shadow
+ * column in step with every insert and update. The old column is only made
+ * nullable, so the old schema stays readable and writable throughout.
+ * - backfill: converts the existing rows into the shadow columns in primary
+ * key chunks, one autocommit UPDATE per chunk, pausing between chunks. A
+ * chunk that takes longer than maxChunkMillis halves the chunk size.
+ * - verify: reports values that could not be converted and rows that would
+ * violate the new foreign keys. Duplicates of the natural keys are reported
+ * as well, but not enforced, since the test fixtures reuse them.
+ * - cutover: after a clean verify, swaps each shadow column in under a brief
+ * table lock (triggers dropped and columns renamed, both metadata only), then
+ * drops the old columns and adds the foreign keys with online ALTERs.
+ * 
+ * The triggers are created, and the backfill run, with an empty sql_mode so
+ * that a value they cannot convert leaves the shadow column NULL, for verify
+ * to report, instead of failing the application's write. The session's own
+ * sql_mode is restored afterwards, and the cutover adds STRICT_TRANS_TABLES,
+ * without which MySQL refuses to make a column NOT NULL in place.
+ * 
+ * Usage: SchemaV2Migration status|expand|backfill|verify|cutover|all
+ * [chunkSize=N] [pauseMillis=N] [maxChunkMillis=N]
+ */
+public class SchemaV2Migration
+{
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    public static final int DEFAULT_PAUSE_MILLIS = 100;
+    public static final int DEFAULT_MAX_CHUNK_MILLIS = 500;
+
+    private static final String SHADOW = "_v2";
+    private static final String RETIRED = "_v1";
+
+    private static final String DATE_CONVERSION = "CASE"
+            + " WHEN {col} REGEXP '^[0-9]{4}-[0-9]{1,2}-[0-9]{1,2}$' THEN STR_TO_DATE({col}, '%Y-%m-%d')"
+            + " WHEN {col} REGEXP '^[0-9]{1,2}/[0-9]{1,2}/[0-9]{4}$' THEN STR_TO_DATE({col}, '%m/%d/%Y') END";
+
+    // Same forms as DAOUtil.toExpDate(): "12/25", "12/2025", "25-Dec" and ISO dates.
+    private static final String EXP_DATE_CONVERSION = "CASE"
+            + " WHEN {col} REGEXP '^[0-9]{4}-[0-9]{1,2}-[0-9]{1,2}$' THEN STR_TO_DATE({col}, '%Y-%m-%d')"
+            + " WHEN {col} REGEXP '^[0-9]{1,2}/[0-9]{2}$' THEN STR_TO_DATE(CONCAT('1/', {col}), '%d/%m/%y')"
+            + " WHEN {col} REGEXP '^[0-9]{1,2}/[0-9]{4}$' THEN STR_TO_DATE(CONCAT('1/', {col}), '%d/%m/%Y')"
+            + " WHEN {col} REGEXP '^[0-9]{2}-[A-Za-z]{3}$' THEN STR_TO_DATE(CONCAT({col}, '-1'), '%y-%b-%d') END";
+
+    private static final ColumnChange CHANGES[] = {
+            new ColumnChange("game", "release_date", "date", "DATE", DATE_CONVERSION),
+            new ColumnChange("creditcard", "exp_date", "date", "DATE", EXP_DATE_CONVERSION),
+            new ColumnChange("gamesowned", "purchase_price", "decimal", "DECIMAL(10,2)", "ROUND({col}, 2)"),
+            new ColumnChange("gamesplayed", "game_ID", "bigint", "BIGINT",
+                    "CASE WHEN {col} REGEXP '^[0-9]+$' THEN CAST({col} AS UNSIGNED) END") };
+
+    // Child table, constraint name, child column, parent table.
+    private static final String FOREIGN_KEYS[][] = {
+            { "gamesowned", "fk_gamesowned_player", "player_ID", "player" },
+            { "gamesowned", "fk_gamesowned_game", "game_ID", "game" },
+            { "gamesplayed", "fk_gamesplayed_player", "player_ID", "player" },
+            { "gamesplayed", "fk_gamesplayed_game", "game_ID", "game" },
+            { "creditcard", "fk_creditcard_player", "player_id", "player" } };
+
+    // Table and columns that should identify a row. Reported, not enforced.
+    private static final String NATURAL_KEYS[][] = {
+            { "player", "email" },
+            { "game", "title, version" },
+            { "creditcard", "player_id, cc_number" },
+            { "gamesowned", "player_ID, game_ID" } };
+
+    private static final String ALL_TABLES = "creditcard, game, gamesowned, gamesplayed, player";
+
+    private enum State
+    {
+        NOT_STARTED, EXPANDED, RENAMED, DONE
+    }
+
+    private int chunkSize;
+    private int pauseMillis;
+    private int maxChunkMillis;
+
+    public SchemaV2Migration(int chunkSize, int pauseMillis, int maxChunkMillis)
+    {
+        if (chunkSize <= 0 || pauseMillis < 0 || maxChunkMillis <= 0) {
+            throw new IllegalArgumentException("chunkSize and maxChunkMillis must be positive, pauseMillis non-negative");
+        }
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.maxChunkMillis = maxChunkMillis;
+    }
+
+    public static void main(String args[])
+    {
+        if (args.length == 0) {
+            System.out.println("Usage: SchemaV2Migration status|expand|backfill|verify|cutover|all"
+                    + " [chunkSize=N] [pauseMillis=N] [maxChunkMillis=N]");
+            return;
+        }
+        try {
+            fromArgs(args).run(args[0]);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    /**
+     * Builds a migration from command line arguments of the form "phase
+     * [chunkSize=N] [pauseMillis=N] [maxChunkMillis=N]". The first argument
+     * (the phase) is ignored.
+     */
+    public static SchemaV2Migration fromArgs(String args[])
+    {
+        int chunkSize = DEFAULT_CHUNK_SIZE;
+        int pauseMillis = DEFAULT_PAUSE_MILLIS;
+        int maxChunkMillis = DEFAULT_MAX_CHUNK_MILLIS;
+        for (int idx = 1; idx < args.length; idx++) {
+            String arg[] = args[idx].split("=", 2);
+            if (arg.length != 2) {
+                throw new IllegalArgumentException("Expected name=value but found: " + args[idx]);
+            }
+            int value = Integer.parseInt(arg[1]);
+            if (arg[0].equals("chunkSize")) {
+                chunkSize = value;
+            }
+            else if (arg[0].equals("pauseMillis")) {
+                pauseMillis = value;
+            }
+            else if (arg[0].equals("maxChunkMillis")) {
+                maxChunkMillis = value;
+            }
+            else {
+                throw new IllegalArgumentException("Unknown option: " + arg[0]);
+            }
+        }
+        return new SchemaV2Migration(chunkSize, pauseMillis, maxChunkMillis);
+    }
+
+    public void run(String phase) throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        Connection connection = dataSource.getConnection();
+        try {
+            if (phase.equals("status")) {
+                status(connection);
+            }
+            else if (phase.equals("expand")) {
+                expand(connection);
+            }
+            else if (phase.equals("backfill")) {
+                backfill(connection);
+            }
+            else if (phase.equals("verify")) {
+                verify(connection);
+            }
+            else if (phase.equals("cutover")) {
+                cutover(connection);
+            }
+            else if (phase.equals("all")) {
+                expand(connection);
+                backfill(connection);
+                cutover(connection);
+            }
+            else {
+                throw new IllegalArgumentException("Unknown phase: " + phase);
+            }
+        }
+        finally {
+            connection.close();
+        }
+    }
+
+    private void status(Connection connection) throws SQLException
+    {
+        for (ColumnChange change : CHANGES) {
+            State state = change.state(connection);
+            String detail = "";
+            if (state == State.EXPANDED) {
+                detail = ", " + change.unconverted(connection) + " rows not converted";
+            }
+            System.out.println(change + ": " + state + detail);
+        }
+        for (String fk[] : FOREIGN_KEYS) {
+            System.out.println(fk[1] + ": " + (foreignKeyExists(connection, fk[0], fk[1]) ? "present" : "missing"));
+        }
+    }
+
+    private void expand(Connection connection) throws SQLException
+    {
+        for (ColumnChange change : CHANGES) {
+            State state = change.state(connection);
+            if (state == State.NOT_STARTED) {
+                StringBuilder alter = new StringBuilder("ALTER TABLE " + change.table);
+                alter.append(" MODIFY ").append(change.column).append(' ')
+                        .append(columnType(connection, change.table, change.column)).append(" NULL");
+                alter.append(", ADD COLUMN ").append(change.shadow()).append(' ').append(change.type).append(" NULL");
+                for (Map.Entry<String, List<String>> index : indexesOn(connection, change.table, change.column)
+                        .entrySet()) {
+                    List<String> columns = new ArrayList<String>();
+                    for (String column : index.getValue()) {
+                        columns.add(column.equalsIgnoreCase(change.column) ? change.shadow() : column);
+                    }
+                    alter.append(", ADD INDEX ").append(index.getKey()).append(SHADOW).append(" (")
+                            .append(String.join(", ", columns)).append(')');
+                }
+                alter.append(", ALGORITHM=INPLACE, LOCK=NONE");
+                execute(connection, alter.toString());
+                state = State.EXPANDED;
+            }
+            if (state == State.EXPANDED) {
+                // Recreated on every run so that a changed conversion takes effect.
+                // A trigger keeps the sql_mode it was created with.
+                setSqlMode(connection, "''");
+                try {
+                    for (String event : new String[] { "INSERT", "UPDATE" }) {
+                        String trigger = change.trigger(event);
+                        execute(connection, "DROP TRIGGER IF EXISTS " + trigger);
+                        execute(connection, "CREATE TRIGGER " + trigger + " BEFORE " + event + " ON " + change.table
+                                + " FOR EACH ROW SET NEW." + change.shadow() + " = "
+                                + change.convert("NEW." + change.column));
+                    }
+                }
+                finally {
+                    restoreSqlMode(connection);
+                }
+            }
+            System.out.println(change + ": " + state);
+        }
+    }
+
+    private void backfill(Connection connection) throws Exception
+    {
+        for (ColumnChange change : CHANGES) {
+            if (change.state(connection) != State.EXPANDED) {
+                continue;
+            }
+            long bounds[] = idRange(connection, change.table);
+            String sql = "UPDATE " + change.table + " SET " + change.shadow() + " = " + change.convert(change.column)
+                    + " WHERE id BETWEEN ? AND ?";
+            PreparedStatement ps = connection.prepareStatement(sql);
+            // Conversion failures become NULLs for verify to report.
+            setSqlMode(connection, "''");
+            try {
+                int size = chunkSize;
+                long rows = 0;
+                long lastReport = System.currentTimeMillis();
+                for (long low = bounds[0]; low <= bounds[1]; ) {
+                    long high = low + size - 1;
+                    long start = System.currentTimeMillis();
+                    ps.setLong(1, low);
+                    ps.setLong(2, high);
+                    rows += ps.executeUpdate();
+                    long elapsed = System.currentTimeMillis() - start;
+                    low = high + 1;
+
+                    // Back off when a chunk holds its row locks too long, and
+                    // grow back towards chunkSize when chunks are quick.
+                    if (elapsed > maxChunkMillis && size > 1) {
+                        size /= 2;
+                    }
+                    else if (elapsed < maxChunkMillis / 4 && size < chunkSize) {
+                        size = Math.min(chunkSize, size * 2);
+                    }
+                    if (System.currentTimeMillis() - lastReport > 10000) {
+                        System.out.println(String.format("%s: %d rows, id %d of %d, chunk %d", change, rows,
+                                low - 1, bounds[1], size));
+                        lastReport = System.currentTimeMillis();
+                    }
+                    if (pauseMillis > 0) {
+                        Thread.sleep(pauseMillis);
+                    }
+                }
+                System.out.println(change + ": backfilled " + rows + " rows, " + change.unconverted(connection)
+                        + " not converted");
+            }
+            finally {
+                ps.close();
+                restoreSqlMode(connection);
+            }
+        }
+    }
+
+    /**
+     * Returns true if every value has been converted and no row would violate
+     * a missing foreign key.
+     */
+    private boolean verify(Connection connection) throws SQLException
+    {
+        boolean ok = true;
+        for (ColumnChange change : CHANGES) {
+            State state = change.state(connection);
+            if (state == State.EXPANDED || state == State.RENAMED) {
+                List<Long> ids = change.unconvertedIDs(connection, 10);
+                if (!ids.isEmpty()) {
+                    System.out.println(change + ": " + change.unconverted(connection)
+                            + " values cannot be converted, e.g. ids " + ids);
+                    ok = false;
+                }
+            }
+        }
+        for (String fk[] : FOREIGN_KEYS) {
+            if (foreignKeyExists(connection, fk[0], fk[1])) {
+                continue;
+            }
+            String column = fk[2];
+            for (ColumnChange change : CHANGES) {
+                if (change.table.equals(fk[0]) && change.column.equals(fk[2])
+                        && change.state(connection) == State.EXPANDED) {
+                    column = change.shadow();
+                }
+            }
+            long orphans = queryLong(connection, "SELECT COUNT(*) FROM " + fk[0] + " c WHERE NOT EXISTS (SELECT 1 FROM "
+                    + fk[3] + " p WHERE p.id = c." + column + ")");
+            if (orphans > 0) {
+                System.out.println(fk[1] + ": " + orphans + " rows of " + fk[0] + " have no " + fk[3]);
+                ok = false;
+            }
+        }
+        for (String key[] : NATURAL_KEYS) {
+            long duplicates = queryLong(connection, "SELECT COUNT(*) FROM (SELECT 1 FROM " + key[0] + " GROUP BY "
+                    + key[1] + " HAVING COUNT(*) > 1) d");
+            if (duplicates > 0) {
+                System.out.println(key[0] + " (" + key[1] + "): " + duplicates + " duplicated values (not enforced)");
+            }
+        }
+        System.out.println(ok ? "verify: ok" : "verify: failed");
+        return ok;
+    }
+
+    private void cutover(Connection connection) throws SQLException
+    {
+        if (!verify(connection)) {
+            throw new IllegalStateException("Fix the rows reported by verify before the cutover");
+        }
+        for (ColumnChange change : CHANGES) {
+            State state = change.state(connection);
+            if (state == State.EXPANDED) {
+                // Writers are blocked only while the triggers are dropped and
+                // the columns renamed; both are metadata changes. Every table
+                // is locked because ALTER TABLE under LOCK TABLES needs the
+                // tables related by foreign keys to be locked too.
+                execute(connection, "LOCK TABLES " + ALL_TABLES.replace(",", " WRITE,") + " WRITE");
+                try {
+                    execute(connection, "DROP TRIGGER IF EXISTS " + change.trigger("INSERT"));
+                    execute(connection, "DROP TRIGGER IF EXISTS " + change.trigger("UPDATE"));
+                    execute(connection, "ALTER TABLE " + change.table + " RENAME COLUMN " + change.column + " TO "
+                            + change.retired() + ", RENAME COLUMN " + change.shadow() + " TO " + change.column);
+                }
+                finally {
+                    execute(connection, "UNLOCK TABLES");
+                }
+                state = State.RENAMED;
+            }
+            if (state == State.RENAMED) {
+                StringBuilder alter = new StringBuilder("ALTER TABLE " + change.table);
+                Map<String, List<String>> retiredIndexes = indexesOn(connection, change.table, change.retired());
+                for (String index : retiredIndexes.keySet()) {
+                    alter.append(" DROP INDEX ").append(index).append(',');
+                }
+                alter.append(" DROP COLUMN ").append(change.retired());
+                alter.append(", MODIFY ").append(change.column).append(' ').append(change.type).append(" NOT NULL");
+                alter.append(", ALGORITHM=INPLACE, LOCK=NONE");
+                // An in-place change to NOT NULL needs a strict sql_mode.
+                setSqlMode(connection, "TRIM(BOTH ',' FROM CONCAT(@@SESSION.sql_mode, ',STRICT_TRANS_TABLES'))");
+                try {
+                    execute(connection, alter.toString());
+                }
+                finally {
+                    restoreSqlMode(connection);
+                }
+                for (String index : retiredIndexes.keySet()) {
+                    execute(connection, "ALTER TABLE " + change.table + " RENAME INDEX " + index + SHADOW + " TO "
+                            + index);
+                }
+                state = State.DONE;
+            }
+            System.out.println(change + ": " + state);
+        }
+
+        // verify() has checked for orphans, so the foreign keys can be added
+        // in place without the server checking every row again.
+        execute(connection, "SET SESSION foreign_key_checks = 0");
+        try {
+            for (String fk[] : FOREIGN_KEYS) {
+                if (!foreignKeyExists(connection, fk[0], fk[1])) {
+                    execute(connection, "ALTER TABLE " + fk[0] + " ADD CONSTRAINT " + fk[1] + " FOREIGN KEY (" + fk[2]
+                            + ") REFERENCES " + fk[3] + " (id), ALGORITHM=INPLACE, LOCK=NONE");
+                }
+            }
+        }
+        finally {
+            execute(connection, "SET SESSION foreign_key_checks = 1");
+        }
+        execute(connection, "ANALYZE TABLE " + ALL_TABLES);
+        System.out.println("cutover: done");
+    }
+
+    /**
+     * Sets the session sql_mode to the given SQL expression, keeping the
+     * current one for restoreSqlMode().
+     */
+    private static void setSqlMode(Connection connection, String mode) throws SQLException
+    {
+        execute(connection, "SET @saved_sql_mode = @@SESSION.sql_mode");
+        execute(connection, "SET SESSION sql_mode = " + mode);
+    }
+
+    private static void restoreSqlMode(Connection connection) throws SQLException
+    {
+        execute(connection, "SET SESSION sql_mode = @saved_sql_mode");
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException
+    {
+        if (!sql.startsWith("SET ")) {
+            System.out.println("  " + sql);
+        }
+        Statement stmt = connection.createStatement();
+        try {
+            stmt.execute(sql);
+        }
+        finally {
+            stmt.close();
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException
+    {
+        Statement stmt = connection.createStatement();
+        try {
+            ResultSet rs = stmt.executeQuery(sql);
+            rs.next();
+            return rs.getLong(1);
+        }
+        finally {
+            stmt.close();
+        }
+    }
+
+    private static long[] idRange(Connection connection, String table) throws SQLException
+    {
+        Statement stmt = connection.createStatement();
+        try {
+            ResultSet rs = stmt.executeQuery("SELECT COALESCE(MIN(id), 1), COALESCE(MAX(id), 0) FROM " + table);
+            rs.next();
+            return new long[] { rs.getLong(1), rs.getLong(2) };
+        }
+        finally {
+            stmt.close();
+        }
+    }
+
+    final static String columnSQL = "SELECT DATA_TYPE, COLUMN_TYPE FROM information_schema.COLUMNS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND LOWER(TABLE_NAME) = ? AND LOWER(COLUMN_NAME) = ?";
+
+    /**
+     * Returns { DATA_TYPE, COLUMN_TYPE } of the column, or null if it does not
+     * exist.
+     */
+    private static String[] column(Connection connection, String table, String column) throws SQLException
+    {
+        PreparedStatement ps = connection.prepareStatement(columnSQL);
+        try {
+            ps.setString(1, table.toLowerCase());
+            ps.setString(2, column.toLowerCase());
+            ResultSet rs = ps.executeQuery();
+            return rs.next() ? new String[] { rs.getString(1).toLowerCase(), rs.getString(2) } : null;
+        }
+        finally {
+            ps.close();
+        }
+    }
+
+    private static String columnType(Connection connection, String table, String column) throws SQLException
+    {
+        return column(connection, table, column)[1];
+    }
+
+    final static String indexesSQL = "SELECT INDEX_NAME, COLUMN_NAME FROM information_schema.STATISTICS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND LOWER(TABLE_NAME) = ? AND INDEX_NAME IN ("
+            + "SELECT INDEX_NAME FROM information_schema.STATISTICS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND LOWER(TABLE_NAME) = ? AND LOWER(COLUMN_NAME) = ?) "
+            + "ORDER BY INDEX_NAME, SEQ_IN_INDEX";
+
+    /**
+     * Returns the columns of every secondary index that contains the given
+     * column, keyed by index name.
+     */
+    private static Map<String, List<String>> indexesOn(Connection connection, String table, String column)
+            throws SQLException
+    {
+        Map<String, List<String>> result = new LinkedHashMap<String, List<String>>();
+        PreparedStatement ps = connection.prepareStatement(indexesSQL);
+        try {
+            ps.setString(1, table.toLowerCase());
+            ps.setString(2, table.toLowerCase());
+            ps.setString(3, column.toLowerCase());
+            ResultSet rs = ps.executeQuery();
+            while (rs.next()) {
+                String index = rs.getString(1);
+                if (index.equals("PRIMARY")) {
+                    continue;
+                }
+                if (!result.containsKey(index)) {
+                    result.put(index, new ArrayList<String>());
+                }
+                result.get(index).add(rs.getString(2));
+            }
+            return result;
+        }
+        finally {
+            ps.close();
+        }
+    }
+
+    final static String foreignKeySQL = "SELECT COUNT(*) FROM information_schema.TABLE_CONSTRAINTS "
+            + "WHERE TABLE_SCHEMA = DATABASE() AND LOWER(TABLE_NAME) = ? AND CONSTRAINT_NAME = ? "
+            + "AND CONSTRAINT_TYPE = 'FOREIGN KEY'";
+
+    private static boolean foreignKeyExists(Connection connection, String table, String name) throws SQLException
+    {
+        PreparedStatement ps = connection.prepareStatement(foreignKeySQL);
+        try {
+            ps.setString(1, table.toLowerCase());
+            ps.setString(2, name);
+            ResultSet rs = ps.executeQuery();
+            rs.next();
+            return rs.getLong(1) > 0;
+        }
+        finally {
+            ps.close();
+        }
+    }
+
+    /**
+     * One column moving to its v2 type, through a shadow column named
+     * column_v2. The old column is renamed column_v1 during the cutover and
+     * then dropped.
+     */
+    private static class ColumnChange
+    {
+        private String table;
+        private String column;
+        private String dataType;
+        private String type;
+        private String conversion;
+
+        ColumnChange(String table, String column, String dataType, String type, String conversion)
+        {
+            this.table = table;
+            this.column = column;
+            this.dataType = dataType;
+            this.type = type;
+            this.conversion = conversion;
+        }
+
+        String shadow()
+        {
+            return column + SHADOW;
+        }
+
+        String retired()
+        {
+            return column + RETIRED;
+        }
+
+        String trigger(String event)
+        {
+            return "v2_" + table + "_" + column.toLowerCase() + (event.equals("INSERT") ? "_ins" : "_upd");
+        }
+
+        String convert(String source)
+        {
+            return conversion.replace("{col}", source);
+        }
+
+        State state(Connection connection) throws SQLException
+        {
+            if (column(connection, table, retired()) != null) {
+                return State.RENAMED;
+            }
+            if (column(connection, table, shadow()) != null) {
+                return State.EXPANDED;
+            }
+            String current[] = column(connection, table, column);
+            if (current == null) {
+                throw new IllegalStateException("No column " + this);
+            }
+            return current[0].equals(dataType) ? State.DONE : State.NOT_STARTED;
+        }
+
+        private String unconvertedWhere(Connection connection) throws SQLException
+        {
+            return state(connection) == State.RENAMED ? retired() + " IS NOT NULL AND " + column + " IS NULL"
+                    : column + " IS NOT NULL AND " + shadow() + " IS NULL";
+        }
+
+        long unconverted(Connection connection) throws SQLException
+        {
+            return queryLong(connection, "SELECT COUNT(*) FROM " + table + " WHERE " + unconvertedWhere(connection));
+        }
+
+        List<Long> unconvertedIDs(Connection connection, int limit) throws SQLException
+        {
+            List<Long> ids = new ArrayList<Long>();
+            Statement stmt = connection.createStatement();
+            try {
+                ResultSet rs = stmt.executeQuery("SELECT id FROM " + table + " WHERE " + unconvertedWhere(connection)
+                        + " ORDER BY id LIMIT " + limit);
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+            finally {
+                stmt.close();
+            }
+            return ids;
+        }
+
+        @Override
+        public String toString()
+        {
+            return table + "." + column + " -> " + type;
+        }
+    }
+}
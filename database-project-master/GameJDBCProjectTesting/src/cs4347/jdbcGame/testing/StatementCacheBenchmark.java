@@ -0,0 +1,129 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.dao.CreditCardDAO;
+import cs4347.jdbcGame.dao.GameDAO;
+import cs4347.jdbcGame.dao.impl.CreditCardDAOImpl;
+import cs4347.jdbcGame.dao.impl.GameDAOImpl;
+import cs4347.jdbcGame.util.StatementCache;
+import cs4347.jdbcGame.util.TestingUtil;
+
+/**
+ * Measures the latency of GameDAO.retrieve and
+ * CreditCardDAO.retrieveCreditCardsForPlayer with and without statement
+ * caching. Three configurations are compared:
+ * 
+ * - no caching at all,
+ * - the per-connection StatementCache used by the DAOs,
+ * - DBCP's pool-level poolPreparedStatements (StatementCache disabled).
+ * 
+ * Each configuration is run twice: once reusing a single connection for every
+ * call (the loader pattern) and once borrowing a connection per call (the
+ * service pattern). For server-side prepared statements add
+ * 'useServerPrepStmts=true' to the url in dbconfig.properties; without it the
+ * MySQL driver prepares statements on the client.
+ * 
+ * Usage: StatementCacheBenchmark [iterations]
+ */
+public class StatementCacheBenchmark
+{
+    public static void main(String args[])
+    {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        boolean enabled = StatementCache.isEnabled();
+        try {
+            Properties props = DataSourceManager.getPropertiesFromClasspath();
+            props.setProperty("poolPreparedStatements", "false");
+            DataSource plainDS = DataSourceManager.buildDataSource(props);
+            props.setProperty("poolPreparedStatements", "true");
+            DataSource pooledDS = DataSourceManager.buildDataSource(props);
+
+            List<Long> gameIDs = TestingUtil.getGameIDs(plainDS, 10);
+            List<Long> playerIDs = TestingUtil.getPlayerIDs(plainDS, 10);
+
+            run("no cache", plainDS, false, iterations, gameIDs, playerIDs);
+            run("StatementCache", plainDS, true, iterations, gameIDs, playerIDs);
+            run("poolPreparedStatements", pooledDS, false, iterations, gameIDs, playerIDs);
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+        finally {
+            StatementCache.setEnabled(enabled);
+        }
+    }
+
+    private static void run(String name, DataSource ds, boolean statementCache, int iterations, List<Long> gameIDs,
+            List<Long> playerIDs) throws Exception
+    {
+        StatementCache.setEnabled(statementCache);
+
+        // Warm up the JIT and the pool before measuring.
+        singleConnection(ds, iterations / 10, gameIDs, playerIDs);
+        connectionPerCall(ds, iterations / 10, gameIDs, playerIDs);
+
+        StatementCache.resetCounters();
+        long single = singleConnection(ds, iterations, gameIDs, playerIDs);
+        long perCall = connectionPerCall(ds, iterations, gameIDs, playerIDs);
+
+        System.out.println(String.format("%-24s single connection: %6.1f us/op   connection per call: %6.1f us/op   %s",
+                name, single / 1000.0 / iterations, perCall / 1000.0 / iterations,
+                statementCache ? StatementCache.getStats() : ""));
+    }
+
+    private static long singleConnection(DataSource ds, int iterations, List<Long> gameIDs, List<Long> playerIDs)
+            throws Exception
+    {
+        GameDAO gameDAO = new GameDAOImpl();
+        CreditCardDAO ccDAO = new CreditCardDAOImpl();
+
+        Connection connection = ds.getConnection();
+        try {
+            long start = System.nanoTime();
+            for (int idx = 0; idx < iterations; idx++) {
+                gameDAO.retrieve(connection, gameIDs.get(idx % gameIDs.size()));
+                ccDAO.retrieveCreditCardsForPlayer(connection, playerIDs.get(idx % playerIDs.size()));
+            }
+            return System.nanoTime() - start;
+        }
+        finally {
+            connection.close();
+        }
+    }
+
+    private static long connectionPerCall(DataSource ds, int iterations, List<Long> gameIDs, List<Long> playerIDs)
+            throws Exception
+    {
+        GameDAO gameDAO = new GameDAOImpl();
+        CreditCardDAO ccDAO = new CreditCardDAOImpl();
+
+        long start = System.nanoTime();
+        for (int idx = 0; idx < iterations; idx++) {
+            Connection connection = ds.getConnection();
+            try {
+                gameDAO.retrieve(connection, gameIDs.get(idx % gameIDs.size()));
+                ccDAO.retrieveCreditCardsForPlayer(connection, playerIDs.get(idx % playerIDs.size()));
+            }
+            finally {
+                connection.close();
+            }
+        }
+        return System.nanoTime() - start;
+    }
+}
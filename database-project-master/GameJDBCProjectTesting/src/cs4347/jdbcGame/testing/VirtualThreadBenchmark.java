@@ -0,0 +1,180 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of every team member to the Provost Office for academic 
+ * dishonesty. 
+ */
+
+package cs4347.jdbcGame.testing;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+import javax.sql.DataSource;
+
+import cs4347.jdbcGame.services.AsyncGameService;
+import cs4347.jdbcGame.services.impl.AsyncGameServiceImpl;
+import cs4347.jdbcGame.services.impl.GameServiceImpl;
+import cs4347.jdbcGame.util.ServiceExecutor;
+import cs4347.jdbcGame.util.TestingUtil;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Compares the throughput of GameService.retrieve() run through a
+ * ServiceExecutor on platform threads and on virtual threads. Both executors
+ * run as many calls at a time as the getDataSource() pool has connections;
+ * 'inFlight' calls are submitted at once, as if that many request handlers
+ * were waiting on the service, and the latency of a call is measured from
+ * submit() to completion.
+ * 
+ * The virtual thread run also records the jdk.VirtualThreadPinned JFR event
+ * and prints where carrier threads were pinned, which points at a synchronized
+ * block or method held across blocking I/O. With the bundled Connector/J
+ * 8.0.12 expect every call to show up there: the driver executes each
+ * statement inside synchronized (getConnectionMutex()), so on JDK 21 to 23 the
+ * virtual thread run cannot beat the platform one until the driver is
+ * upgraded to 8.0.33 or later. Virtual threads need JDK 21; on older JDKs only
+ * the platform thread run is made. The virtual thread run has never been
+ * made, since no JDK 21 was available, so there are no numbers for it yet.
+ * 
+ * Usage: VirtualThreadBenchmark [calls] [inFlight]
+ */
+public class VirtualThreadBenchmark
+{
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    public static void main(String args[])
+    {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        int inFlight = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        try {
+            DataSource ds = DataSourceManager.getDataSource();
+            int threads = DataSourceManager.getServiceExecutor().getThreads();
+            List<Long> gameIDs = TestingUtil.getGameIDs(ds, 1000);
+            System.out.println("Pool: " + threads + " connections, " + inFlight + " calls in flight");
+
+            run("platform threads", ds, threads, false, calls, inFlight, gameIDs);
+            if (!ServiceExecutor.virtualThreadsAvailable()) {
+                System.out.println("Virtual threads are not available on Java " + System.getProperty("java.version"));
+                return;
+            }
+
+            File jfr = File.createTempFile("pinning", ".jfr");
+            try {
+                Recording recording = new Recording();
+                recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+                recording.start();
+                run("virtual threads", ds, threads, true, calls, inFlight, gameIDs);
+                recording.stop();
+                recording.dump(jfr.toPath());
+                recording.close();
+                reportPinning(jfr);
+            }
+            finally {
+                jfr.delete();
+            }
+        } catch (Exception ex) {
+            ex.printStackTrace();
+        }
+    }
+
+    private static void run(String name, DataSource ds, int threads, boolean virtual, int calls, int inFlight,
+            List<Long> gameIDs) throws Exception
+    {
+        // Callers wait for room rather than being turned away.
+        ServiceExecutor executor = new ServiceExecutor(threads, Math.max(0, inFlight - threads), Long.MAX_VALUE,
+                virtual);
+        try {
+            AsyncGameService gameService = new AsyncGameServiceImpl(new GameServiceImpl(ds), executor);
+            Random random = new Random(4347);
+
+            // Warm up the pool and the statement caches before measuring.
+            CompletableFuture<?> warmUp[] = new CompletableFuture<?>[threads * 10];
+            for (int idx = 0; idx < warmUp.length; idx++) {
+                warmUp[idx] = gameService.retrieve(gameIDs.get(random.nextInt(gameIDs.size())));
+            }
+            CompletableFuture.allOf(warmUp).join();
+
+            long latencies[] = new long[calls];
+            CompletableFuture<?> futures[] = new CompletableFuture<?>[calls];
+            long start = System.nanoTime();
+            for (int idx = 0; idx < calls; idx++) {
+                int call = idx;
+                long submitted = System.nanoTime();
+                futures[idx] = gameService.retrieve(gameIDs.get(random.nextInt(gameIDs.size())))
+                        .whenComplete((game, ex) -> latencies[call] = System.nanoTime() - submitted);
+            }
+            CompletableFuture.allOf(futures).join();
+            long elapsed = System.nanoTime() - start;
+
+            Arrays.sort(latencies);
+            System.out.println(String.format(
+                    "%-17s %8d calls  %9.0f calls/s  p50: %8.3f ms  p99: %8.3f ms  (%s)", name, calls,
+                    calls / (elapsed / 1e9), percentile(latencies, 50) / 1e6, percentile(latencies, 99) / 1e6,
+                    executor.isVirtual() ? "virtual" : "platform"));
+        }
+        finally {
+            executor.close();
+        }
+    }
+
+    private static void reportPinning(File jfr) throws Exception
+    {
+        Map<String, Integer> sites = new HashMap<String, Integer>();
+        int events = 0;
+        for (RecordedEvent event : RecordingFile.readAllEvents(jfr.toPath())) {
+            if (!event.getEventType().getName().equals(PINNED_EVENT)) {
+                continue;
+            }
+            events++;
+            sites.merge(site(event), 1, Integer::sum);
+        }
+        System.out.println("Pinned virtual threads: " + events);
+        sites.entrySet().stream().sorted((a, b) -> b.getValue() - a.getValue()).limit(10)
+                .forEach(site -> System.out.println(String.format("  %6d  %s", site.getValue(), site.getKey())));
+    }
+
+    /**
+     * The innermost frame of this project on the pinned thread's stack, or the
+     * top frame if there is none.
+     */
+    private static String site(RecordedEvent event)
+    {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "(no stack trace)";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith("cs4347.")) {
+                return format(frame);
+            }
+        }
+        return format(frames.get(0));
+    }
+
+    private static String format(RecordedFrame frame)
+    {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+                + frame.getLineNumber();
+    }
+
+    private static long percentile(long sorted[], int percent)
+    {
+        int idx = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(idx, sorted.length - 1))];
+    }
+}
@@ -15,6 +15,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -269,6 +270,158 @@ public class CreditCardDAOImplTestCase
         }
     }
 
+    @Test
+    public void testCreateAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            CreditCardDAO dao = new CreditCardDAOImpl();
+            Long playerID = TestingUtil.getPlayerID(ds);
+
+            List<CreditCard> ccards = new ArrayList<CreditCard>();
+            for (int idx = 0; idx < 5; idx++) {
+                CreditCard ccard = buildCreditCard();
+                ccard.setPlayerID(playerID);
+                ccards.add(ccard);
+            }
+            // A batch size of 2 forces several executeBatch() round trips.
+            List<Long> keys = dao.createAll(connection, ccards, 2);
+            assertEquals(5, keys.size());
+            for (int idx = 0; idx < ccards.size(); idx++) {
+                assertEquals(keys.get(idx), ccards.get(idx).getId());
+                assertNotNull(dao.retrieve(connection, keys.get(idx)));
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testUpdateAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            CreditCardDAO dao = new CreditCardDAOImpl();
+            Long playerID = TestingUtil.getPlayerID(ds);
+
+            List<CreditCard> ccards = new ArrayList<CreditCard>();
+            for (int idx = 0; idx < 3; idx++) {
+                CreditCard ccard = buildCreditCard();
+                ccard.setPlayerID(playerID);
+                ccards.add(ccard);
+            }
+            dao.createAll(connection, ccards);
+            for (CreditCard ccard : ccards) {
+                ccard.setCcName("New CC Name");
+            }
+
+            int rows = dao.updateAll(connection, ccards);
+            assertEquals(3, rows);
+            for (CreditCard ccard : ccards) {
+                assertEquals("New CC Name", dao.retrieve(connection, ccard.getId()).getCcName());
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testDeleteAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            CreditCardDAO dao = new CreditCardDAOImpl();
+            Long playerID = TestingUtil.getPlayerID(ds);
+
+            List<CreditCard> ccards = new ArrayList<CreditCard>();
+            for (int idx = 0; idx < 3; idx++) {
+                CreditCard ccard = buildCreditCard();
+                ccard.setPlayerID(playerID);
+                ccards.add(ccard);
+            }
+            List<Long> keys = dao.createAll(connection, ccards);
+
+            int rows = dao.deleteAll(connection, keys);
+            assertEquals(3, rows);
+            for (Long key : keys) {
+                assertNull(dao.retrieve(connection, key));
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testExpDateForms() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            CreditCardDAO dao = new CreditCardDAOImpl();
+            Long playerID = TestingUtil.getPlayerID(ds);
+
+            // The forms accepted on input all come back as "M/yy".
+            String forms[][] = { { "12/25", "12/25" }, { "01/25", "1/25" }, { "3/2027", "3/27" },
+                    { "16-Nov", "11/16" } };
+            for (String form[] : forms) {
+                CreditCard cc = buildCreditCard();
+                cc.setExpDate(form[0]);
+                Long id = dao.create(connection, cc, playerID).getId();
+                assertEquals(form[1], dao.retrieve(connection, id).getExpDate());
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    @Test(expected = DAOException.class)
+    public void testCreateBadExpDate() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            CreditCardDAO dao = new CreditCardDAOImpl();
+            CreditCard cc = buildCreditCard();
+            cc.setExpDate("next year");
+            dao.create(connection, cc, TestingUtil.getPlayerID(ds));
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
     private CreditCard buildCreditCard()
     {
         CreditCard cc = new CreditCard();
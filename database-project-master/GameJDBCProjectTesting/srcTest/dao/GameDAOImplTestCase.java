@@ -13,11 +13,15 @@ package dao;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.sql.Connection;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
@@ -28,6 +32,7 @@ import cs4347.jdbcGame.dao.impl.GameDAOImpl;
 import cs4347.jdbcGame.entity.Game;
 import cs4347.jdbcGame.testing.DataSourceManager;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.StatementCache;
 
 public class GameDAOImplTestCase
 {
@@ -263,6 +268,94 @@ public class GameDAOImplTestCase
         }
     }
 
+    @Test
+    public void testCreateAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            GameDAO dao = new GameDAOImpl();
+
+            List<Game> games = new ArrayList<Game>();
+            for (int idx = 0; idx < 5; idx++) {
+                games.add(buildGame());
+            }
+            // A batch size of 2 forces several executeBatch() round trips.
+            List<Long> keys = dao.createAll(connection, games, 2);
+            assertEquals(5, keys.size());
+            for (int idx = 0; idx < games.size(); idx++) {
+                assertEquals(keys.get(idx), games.get(idx).getId());
+                assertNotNull(dao.retrieve(connection, keys.get(idx)));
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testRetrieveAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            GameDAO dao = new GameDAOImpl();
+
+            Game g1 = dao.create(connection, buildGame());
+            Game g2 = dao.create(connection, buildGame());
+            // Unknown and duplicate IDs are ignored; order follows the request.
+            List<Long> ids = Arrays.asList(g2.getId(), -1L, g1.getId(), g2.getId());
+            Map<Long, Game> games = dao.retrieveAll(connection, ids);
+            assertEquals(2, games.size());
+            assertEquals(Arrays.asList(g2.getId(), g1.getId()), new ArrayList<Long>(games.keySet()));
+            assertEquals(g1.getTitle(), games.get(g1.getId()).getTitle());
+
+            assertTrue(dao.retrieveAll(connection, new ArrayList<Long>()).isEmpty());
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testRetrieveStatementCache() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        boolean enabled = StatementCache.isEnabled();
+        StatementCache.setEnabled(true);
+        try {
+            GameDAO dao = new GameDAOImpl();
+
+            Game game = dao.create(connection, buildGame());
+            dao.retrieve(connection, game.getId());
+            long hits = StatementCache.getHits();
+            // The second retrieve on the same connection reuses the statement.
+            Game game2 = dao.retrieve(connection, game.getId());
+            assertNotNull(game2);
+            assertTrue(StatementCache.getHits() > hits);
+        }
+        finally {
+            StatementCache.setEnabled(enabled);
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
     private Game buildGame()
     {
         Game result = new Game();
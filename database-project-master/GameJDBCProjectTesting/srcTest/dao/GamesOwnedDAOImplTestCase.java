@@ -16,6 +16,7 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -28,6 +29,7 @@ import cs4347.jdbcGame.dao.impl.GamesOwnedDAOImpl;
 import cs4347.jdbcGame.entity.GamesOwned;
 import cs4347.jdbcGame.testing.DataSourceManager;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
 import cs4347.jdbcGame.util.TestingUtil;
 
 public class GamesOwnedDAOImplTestCase
@@ -228,6 +230,35 @@ public class GamesOwnedDAOImplTestCase
         }
     }
 
+    @Test
+    public void testForEachByGame() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        try {
+            GamesOwnedDAO dao = new GamesOwnedDAOImpl();
+            Long playerID = TestingUtil.getPlayerID(ds);
+            Long gameID = TestingUtil.retrieveGamesOwnedForPlayer(ds, playerID).get(0);
+
+            long expectedCents = 0;
+            List<GamesOwned> gamesOwned = dao.retrieveByGame(connection, gameID);
+            for (GamesOwned go : gamesOwned) {
+                expectedCents += DAOUtil.toPrice(go.getPurchasePrice()).movePointRight(2).longValueExact();
+            }
+
+            long[] totalCents = new long[1];
+            long rows = dao.forEachByGame(connection, gameID, 100, (id, pID, gID, purchaseDay, cents) -> {
+                assertEquals(gameID.longValue(), gID);
+                totalCents[0] += cents;
+            });
+            assertEquals(gamesOwned.size(), rows);
+            assertEquals(expectedCents, totalCents[0]);
+        }
+        finally {
+            connection.close();
+        }
+    }
+
     @Test
     public void testRetrieveByPlayer() throws Exception
     {
@@ -361,6 +392,36 @@ public class GamesOwnedDAOImplTestCase
         }
     }
 
+    @Test
+    public void testCreateAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            GamesOwnedDAO dao = new GamesOwnedDAOImpl();
+
+            List<GamesOwned> gamesOwned = new ArrayList<GamesOwned>();
+            for (int idx = 0; idx < 5; idx++) {
+                gamesOwned.add(buildGamesOwned(ds));
+            }
+            // A batch size of 2 forces several executeBatch() round trips.
+            List<Long> keys = dao.createAll(connection, gamesOwned, 2);
+            assertEquals(5, keys.size());
+            for (int idx = 0; idx < gamesOwned.size(); idx++) {
+                assertEquals(keys.get(idx), gamesOwned.get(idx).getId());
+                assertNotNull(dao.retrieveID(connection, keys.get(idx)));
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
     // Initializes a new GameOwned include valid player and game ids.
     private GamesOwned buildGamesOwned(DataSource ds) throws Exception
     {
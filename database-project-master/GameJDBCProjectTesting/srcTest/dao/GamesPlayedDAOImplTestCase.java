@@ -16,8 +16,11 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -28,6 +31,7 @@ import cs4347.jdbcGame.dao.impl.GamesPlayedDAOImpl;
 import cs4347.jdbcGame.entity.GamesPlayed;
 import cs4347.jdbcGame.testing.DataSourceManager;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.DAOUtil;
 import cs4347.jdbcGame.util.TestingUtil;
 
 public class GamesPlayedDAOImplTestCase
@@ -257,6 +261,103 @@ public class GamesPlayedDAOImplTestCase
         }
     }
 
+    @Test
+    public void testStreamByGame() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        try {
+            GamesPlayedDAO dao = new GamesPlayedDAOImpl();
+            Long playerID = TestingUtil.getPlayerID(ds);
+            Long gameID = TestingUtil.retrieveGamesPlayedForPlayer(ds, playerID).get(0);
+            int expected = dao.retrieveByGame(connection, gameID).size();
+
+            long count;
+            try (Stream<GamesPlayed> stream = dao.streamByGame(connection, gameID, DAOUtil.STREAM_ROW_BY_ROW)) {
+                count = stream.peek(gp -> assertEquals(gameID, gp.getGameID())).count();
+            }
+            assertEquals(expected, count);
+
+            // The statement is released on close, so the connection is usable again.
+            assertTrue(dao.count(connection) > 0);
+        }
+        finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testForEachByGame() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        try {
+            GamesPlayedDAO dao = new GamesPlayedDAOImpl();
+            Long playerID = TestingUtil.getPlayerID(ds);
+            Long gameID = TestingUtil.retrieveGamesPlayedForPlayer(ds, playerID).get(0);
+
+            long expectedScore = 0;
+            List<GamesPlayed> gamesPlayed = dao.retrieveByGame(connection, gameID);
+            for (GamesPlayed gp : gamesPlayed) {
+                expectedScore += gp.getScore();
+            }
+
+            long[] totalScore = new long[1];
+            long rows = dao.forEachByGame(connection, gameID, 100, (id, pID, gID, finishedDay, score, scoreNull) -> {
+                assertEquals(gameID.longValue(), gID);
+                totalScore[0] += score;
+            });
+            assertEquals(gamesPlayed.size(), rows);
+            assertEquals(expectedScore, totalScore[0]);
+        }
+        finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testLeaderboard() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        try {
+            GamesPlayedDAO dao = new GamesPlayedDAOImpl();
+            Long playerID = TestingUtil.getPlayerID(ds);
+            Long gameID = TestingUtil.retrieveGamesPlayedForPlayer(ds, playerID).get(0);
+
+            // The same order sorted in Java: best score first, earlier play first.
+            List<GamesPlayed> expected = dao.retrieveByGame(connection, gameID);
+            expected.sort(Comparator.comparingInt(GamesPlayed::getScore).reversed()
+                    .thenComparing(GamesPlayed::getId));
+            int position = 0;
+            while (!expected.get(position).getPlayerID().equals(playerID)) {
+                position++;
+            }
+
+            List<GamesPlayed> top = dao.topScores(connection, gameID, 5);
+            assertEquals(Math.min(5, expected.size()), top.size());
+            for (int idx = 0; idx < top.size(); idx++) {
+                assertEquals(expected.get(idx).getId(), top.get(idx).getId());
+            }
+
+            assertEquals(Long.valueOf(position + 1), dao.rankOf(connection, playerID, gameID));
+
+            List<GamesPlayed> around = dao.scoresAround(connection, playerID, gameID, 2);
+            List<GamesPlayed> window = expected.subList(Math.max(0, position - 2),
+                    Math.min(expected.size(), position + 3));
+            assertEquals(window.size(), around.size());
+            for (int idx = 0; idx < around.size(); idx++) {
+                assertEquals(window.get(idx).getId(), around.get(idx).getId());
+            }
+
+            assertNull(dao.rankOf(connection, playerID, -1L));
+            assertTrue(dao.scoresAround(connection, playerID, -1L, 2).isEmpty());
+        }
+        finally {
+            connection.close();
+        }
+    }
+
     @Test
     public void testRetrieveByGameFailed() throws Exception
     {
@@ -367,6 +468,36 @@ public class GamesPlayedDAOImplTestCase
         }
     }
 
+    @Test
+    public void testCreateAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            GamesPlayedDAO dao = new GamesPlayedDAOImpl();
+
+            List<GamesPlayed> gamesPlayed = new ArrayList<GamesPlayed>();
+            for (int idx = 0; idx < 5; idx++) {
+                gamesPlayed.add(buildGamesPlayed(ds));
+            }
+            // A batch size of 2 forces several executeBatch() round trips.
+            List<Long> keys = dao.createAll(connection, gamesPlayed, 2);
+            assertEquals(5, keys.size());
+            for (int idx = 0; idx < gamesPlayed.size(); idx++) {
+                assertEquals(keys.get(idx), gamesPlayed.get(idx).getId());
+                assertNotNull(dao.retrieveID(connection, keys.get(idx)));
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
     // Initializes a new GamesPlayed include valid player and game ids.
     private GamesPlayed buildGamesPlayed(DataSource ds) throws Exception
     {
@@ -17,6 +17,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.sql.Connection;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 
@@ -24,11 +25,15 @@ import javax.sql.DataSource;
 
 import org.junit.Test;
 
+import cs4347.jdbcGame.dao.CreditCardDAO;
 import cs4347.jdbcGame.dao.PlayerDAO;
+import cs4347.jdbcGame.dao.impl.CreditCardDAOImpl;
 import cs4347.jdbcGame.dao.impl.PlayerDAOImpl;
+import cs4347.jdbcGame.entity.CreditCard;
 import cs4347.jdbcGame.entity.Player;
 import cs4347.jdbcGame.testing.DataSourceManager;
 import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.Page;
 
 public class PlayerDAOImplTestCase
 {
@@ -247,6 +252,122 @@ public class PlayerDAOImplTestCase
         }
     }
 
+    @Test
+    public void testRetrieveByJoinDatePage() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            PlayerDAO dao = new PlayerDAOImpl();
+            Date startDate = sdf.parse("1/1/2017");
+            Date endDate = sdf.parse("1/1/2019");
+
+            Page<Player> first = dao.retrieveByJoinDatePage(connection, startDate, endDate, 3, null);
+            assertEquals(3, first.getItems().size());
+            assertNotNull(first.getNextCursor());
+
+            // The second page starts strictly after the last (join_date, id) of the first.
+            Player last = first.getItems().get(2);
+            Page<Player> second = dao.retrieveByJoinDatePage(connection, startDate, endDate, 3, first.getNextCursor());
+            for (Player player : second.getItems()) {
+                int cmp = player.getJoinDate().compareTo(last.getJoinDate());
+                assertTrue(cmp > 0 || (cmp == 0 && player.getId() > last.getId()));
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    @Test(expected = DAOException.class)
+    public void testRetrieveByJoinDatePageBadCursor() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        try {
+            PlayerDAO dao = new PlayerDAOImpl();
+            dao.retrieveByJoinDatePage(connection, sdf.parse("1/1/2017"), sdf.parse("1/1/2019"), 3, "not a cursor");
+        }
+        finally {
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testCreateAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            PlayerDAO dao = new PlayerDAOImpl();
+
+            List<Player> players = new ArrayList<Player>();
+            for (int idx = 0; idx < 5; idx++) {
+                players.add(buildPlayer());
+            }
+            // A batch size of 2 forces several executeBatch() round trips.
+            List<Long> keys = dao.createAll(connection, players, 2);
+            assertEquals(5, keys.size());
+            for (int idx = 0; idx < players.size(); idx++) {
+                assertEquals(keys.get(idx), players.get(idx).getId());
+                assertNotNull(dao.retrieve(connection, keys.get(idx)));
+            }
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    @Test
+    public void testRetrieveWithCreditCards() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // Do not commit any changes made by this test.
+        connection.setAutoCommit(false);
+        try {
+            PlayerDAO dao = new PlayerDAOImpl();
+            CreditCardDAO ccDAO = new CreditCardDAOImpl();
+
+            Player p1 = dao.create(connection, buildPlayer());
+            for (int idx = 0; idx < 2; idx++) {
+                CreditCard cc = new CreditCard();
+                cc.setCcName("Card " + idx);
+                cc.setCcNumber("4000111122223333");
+                cc.setExpDate("12/25");
+                cc.setSecurityCode(123);
+                ccDAO.create(connection, cc, p1.getId());
+            }
+            Player p2 = dao.create(connection, buildPlayer());
+
+            Player withCards = dao.retrieveWithCreditCards(connection, p1.getId());
+            assertEquals(p1.getEmail(), withCards.getEmail());
+            assertEquals(2, withCards.getCreditCards().size());
+            assertEquals(p1.getId(), withCards.getCreditCards().get(0).getPlayerID());
+
+            Player withoutCards = dao.retrieveWithCreditCards(connection, p2.getId());
+            assertEquals(0, withoutCards.getCreditCards().size());
+
+            assertNull(dao.retrieveWithCreditCards(connection, -1L));
+        }
+        finally {
+            // Do not commit changes made by this test.
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
     private Player buildPlayer()
     {
         Player p = new Player();
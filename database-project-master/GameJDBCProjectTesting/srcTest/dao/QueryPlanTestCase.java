@@ -0,0 +1,384 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package dao;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import cs4347.jdbcGame.dao.impl.CreditCardDAOImpl;
+import cs4347.jdbcGame.dao.impl.GameDAOImpl;
+import cs4347.jdbcGame.dao.impl.GameRevenueDAOImpl;
+import cs4347.jdbcGame.dao.impl.GamesOwnedDAOImpl;
+import cs4347.jdbcGame.dao.impl.GamesPlayedDAOImpl;
+import cs4347.jdbcGame.dao.impl.PlayerDAOImpl;
+import cs4347.jdbcGame.dao.impl.PlayerStatsDAOImpl;
+import cs4347.jdbcGame.testing.DataSourceManager;
+
+/**
+ * Runs EXPLAIN on every SELECT, UPDATE and DELETE string held in a static
+ * field of the dao.impl classes and checks the plan against the expectations
+ * registered below. A query fails when it falls back to a full table scan or
+ * stops using its expected index. A new SQL field fails the suite until it is
+ * registered here. A query also fails when the server has to convert a
+ * column to compare it with its parameter, which keeps it from using an index
+ * even when the plan happens to look right on a small table.
+ * 
+ * Needs a database created with SQLSchemaScript.sql (or upgraded with
+ * SQLIndexes.sql) and seeded by PopulateTables.
+ */
+public class QueryPlanTestCase
+{
+    // Accepts whatever plan the optimizer picks, including a full scan.
+    private static final String ANY = null;
+
+    private static final Class<?>[] DAO_CLASSES = { CreditCardDAOImpl.class, GameDAOImpl.class,
+            GamesOwnedDAOImpl.class, GamesPlayedDAOImpl.class, PlayerDAOImpl.class, PlayerStatsDAOImpl.class,
+            GameRevenueDAOImpl.class };
+
+    private static final Map<String, Expectation> EXPECTATIONS = new LinkedHashMap<String, Expectation>();
+
+    /*
+     * Parameters are given as one character per placeholder: L is an ID
+     * (the smallest ID of the table, so primary key lookups find a row), D a
+     * date, S a string, N an int and F a float. A "%s" IN-list is explained
+     * with two IDs. Keys are listed in the order EXPLAIN returns the tables.
+     */
+    static {
+        expect(CreditCardDAOImpl.class, "selectSQL", "creditcard", "L", "PRIMARY");
+        expect(CreditCardDAOImpl.class, "retrieveAllSQL", "creditcard", "LL", "PRIMARY");
+        expect(CreditCardDAOImpl.class, "retrieveCardsForPlayerSQL", "creditcard", "L", "idx_creditcard_player");
+        expect(CreditCardDAOImpl.class, "retrieveCardsForPlayersSQL", "creditcard", "LL", "idx_creditcard_player");
+        expect(CreditCardDAOImpl.class, "updateSQL", "creditcard", "SSDNLL", "PRIMARY");
+        expect(CreditCardDAOImpl.class, "deleteSQL", "creditcard", "L", "PRIMARY");
+        expect(CreditCardDAOImpl.class, "deleteAllSQL", "creditcard", "LL", "PRIMARY");
+        expect(CreditCardDAOImpl.class, "deleteForPlayerSQL", "creditcard", "L", "idx_creditcard_player");
+        expect(CreditCardDAOImpl.class, "deleteForPlayersSQL", "creditcard", "LL", "idx_creditcard_player");
+        expect(CreditCardDAOImpl.class, "countSQL", "creditcard", "", ANY);
+
+        expect(GameDAOImpl.class, "selectSQL", "game", "L", "PRIMARY");
+        expect(GameDAOImpl.class, "retrieveAllSQL", "game", "LL", "PRIMARY");
+        expect(GameDAOImpl.class, "updateSQL", "game", "SSDSL", "PRIMARY");
+        expect(GameDAOImpl.class, "deleteSQL", "game", "L", "PRIMARY");
+        expect(GameDAOImpl.class, "countSQL", "game", "", ANY);
+        expect(GameDAOImpl.class, "forEachSQL", "game", "", ANY);
+        expect(GameDAOImpl.class, "retrieveByTitleSQL", "game", "S", "idx_game_title");
+        expect(GameDAOImpl.class, "retrieveByRelDate", "game", "DD", "idx_game_release_date");
+        expect(GameDAOImpl.class, "releaseDatePageSQL", "game", "DDN", "idx_game_release_date");
+        expect(GameDAOImpl.class, "releaseDatePageAfterSQL", "game", "DDDDLN", "idx_game_release_date");
+
+        expect(GamesOwnedDAOImpl.class, "selectSQL", "gamesowned", "L", "PRIMARY");
+        expect(GamesOwnedDAOImpl.class, "retrieveForUpdateSQL", "gamesowned", "L", "PRIMARY");
+        expect(GamesOwnedDAOImpl.class, "retrieveAllSQL", "gamesowned", "LL", "PRIMARY");
+        expect(GamesOwnedDAOImpl.class, "retrievePlayerGameID", "gamesowned", "LL", "idx_gamesowned_player_game");
+        expect(GamesOwnedDAOImpl.class, "retrieveByGameSQL", "gamesowned", "L", "idx_gamesowned_game");
+        expect(GamesOwnedDAOImpl.class, "retrieveByPlayerSQL", "gamesowned", "L", "idx_gamesowned_player_game");
+        expect(GamesOwnedDAOImpl.class, "streamByGameSQL", "gamesowned", "L", "idx_gamesowned_game");
+        expect(GamesOwnedDAOImpl.class, "forEachSQL", "gamesowned", "", ANY);
+        expect(GamesOwnedDAOImpl.class, "forEachByGameSQL", "gamesowned", "L", "idx_gamesowned_game");
+        expect(GamesOwnedDAOImpl.class, "updateSQL", "gamesowned", "LLDFL", "PRIMARY");
+        expect(GamesOwnedDAOImpl.class, "deleteSQL", "gamesowned", "L", "PRIMARY");
+        expect(GamesOwnedDAOImpl.class, "deleteForPlayerSQL", "gamesowned", "L", "idx_gamesowned_player_game");
+        expect(GamesOwnedDAOImpl.class, "deleteForPlayersSQL", "gamesowned", "LL", "idx_gamesowned_player_game");
+        expect(GamesOwnedDAOImpl.class, "countSQL", "gamesowned", "", ANY);
+
+        expect(GamesPlayedDAOImpl.class, "selectSQL", "gamesplayed", "L", "PRIMARY");
+        expect(GamesPlayedDAOImpl.class, "retrieveForUpdateSQL", "gamesplayed", "L", "PRIMARY");
+        expect(GamesPlayedDAOImpl.class, "retrieveAllSQL", "gamesplayed", "LL", "PRIMARY");
+        expect(GamesPlayedDAOImpl.class, "retrievePlayerGameID", "gamesplayed", "LL", "idx_gamesplayed_player_game");
+        expect(GamesPlayedDAOImpl.class, "retrievePlayerID", "gamesplayed", "L", "idx_gamesplayed_player_game");
+        expect(GamesPlayedDAOImpl.class, "retrieveGameID", "gamesplayed", "L", "idx_gamesplayed_game_score");
+        expect(GamesPlayedDAOImpl.class, "streamByGameSQL", "gamesplayed", "L", "idx_gamesplayed_game_score");
+        expect(GamesPlayedDAOImpl.class, "forEachSQL", "gamesplayed", "", ANY);
+        expect(GamesPlayedDAOImpl.class, "forEachByGameSQL", "gamesplayed", "L", "idx_gamesplayed_game_score");
+        expect(GamesPlayedDAOImpl.class, "topScoresSQL", "gamesplayed", "LN", "idx_gamesplayed_game_score");
+        expect(GamesPlayedDAOImpl.class, "bestScoreSQL", "gamesplayed", "LL", "idx_gamesplayed_player_game");
+        expect(GamesPlayedDAOImpl.class, "countAheadSQL", "gamesplayed", "LNNL", "idx_gamesplayed_game_score");
+        expect(GamesPlayedDAOImpl.class, "scoresAboveSQL", "gamesplayed", "LNNLN", "idx_gamesplayed_game_score");
+        expect(GamesPlayedDAOImpl.class, "scoresBelowSQL", "gamesplayed", "LNNLN", "idx_gamesplayed_game_score");
+        expect(GamesPlayedDAOImpl.class, "updateSQL", "gamesplayed", "LLDNL", "PRIMARY");
+        expect(GamesPlayedDAOImpl.class, "deleteSQL", "gamesplayed", "L", "PRIMARY");
+        expect(GamesPlayedDAOImpl.class, "deleteForPlayerSQL", "gamesplayed", "L", "idx_gamesplayed_player_game");
+        expect(GamesPlayedDAOImpl.class, "deleteForPlayersSQL", "gamesplayed", "LL", "idx_gamesplayed_player_game");
+        expect(GamesPlayedDAOImpl.class, "countSQL", "gamesplayed", "", ANY);
+
+        expect(PlayerDAOImpl.class, "retrieveSQL", "player", "L", "PRIMARY");
+        expect(PlayerDAOImpl.class, "retrieveAllSQL", "player", "LL", "PRIMARY");
+        expect(PlayerDAOImpl.class, "selectWithCardsSQL", "player", "", ANY, "idx_creditcard_player");
+        expect(PlayerDAOImpl.class, "retrieveWithCardsSQL", "player", "L", "PRIMARY", "idx_creditcard_player");
+        expect(PlayerDAOImpl.class, "updateSQL", "player", "SSDSL", "PRIMARY");
+        expect(PlayerDAOImpl.class, "deleteSQL", "player", "L", "PRIMARY");
+        expect(PlayerDAOImpl.class, "deleteAllSQL", "player", "LL", "PRIMARY");
+        expect(PlayerDAOImpl.class, "countSQL", "player", "", ANY);
+        expect(PlayerDAOImpl.class, "retrieveByJoinDateSQL", "player", "DD", "idx_player_join_date");
+        expect(PlayerDAOImpl.class, "joinDatePageSQL", "player", "DDN", "idx_player_join_date");
+        expect(PlayerDAOImpl.class, "joinDatePageAfterSQL", "player", "DDDDLN", "idx_player_join_date");
+        expect(PlayerDAOImpl.class, "retrieveByJoinDateWithCardsSQL", "player", "DD", "idx_player_join_date",
+                "idx_creditcard_player");
+
+        // PLAYER_STATS is keyed by player ID and filled by PopulateTables.
+        expect(PlayerStatsDAOImpl.class, "ownedRemovedSQL", "player", "FLLL", "PRIMARY", "idx_gamesowned_player_game",
+                "idx_gamesplayed_player_game");
+        expect(PlayerStatsDAOImpl.class, "playedRemovedSQL", "player", "LLLL", "PRIMARY", "idx_gamesplayed_player_game",
+                "idx_gamesowned_player_game", "idx_gamesplayed_player_game");
+        expect(PlayerStatsDAOImpl.class, "retrieveSQL", "player", "L", "PRIMARY");
+        expect(PlayerStatsDAOImpl.class, "retrieveAllSQL", "player", "LL", "PRIMARY");
+        expect(PlayerStatsDAOImpl.class, "playerIDRangeSQL", "player", "", ANY);
+        expect(PlayerStatsDAOImpl.class, "countRangeSQL", "player", "LL", "PRIMARY");
+        expect(PlayerStatsDAOImpl.class, "deleteSQL", "player", "L", "PRIMARY");
+        expect(PlayerStatsDAOImpl.class, "deleteForPlayersSQL", "player", "LL", "PRIMARY");
+
+        // The per-player queries join a grouped GAMES_OWNED subquery, which is
+        // materialized before it is joined on the primary key.
+        expect(GameRevenueDAOImpl.class, "purchaseRemovedSQL", "game", "FLD", "PRIMARY");
+        expect(GameRevenueDAOImpl.class, "deleteEmptySQL", "game", "LD", "PRIMARY");
+        expect(GameRevenueDAOImpl.class, "purchasesRemovedForPlayersSQL", "player", "LL", ANY, "PRIMARY",
+                "idx_gamesowned_player_game");
+        expect(GameRevenueDAOImpl.class, "deleteEmptyForPlayersSQL", "player", "LL", ANY, "PRIMARY",
+                "idx_gamesowned_player_game");
+        expect(GameRevenueDAOImpl.class, "dailyForGameSQL", "game", "LDD", "PRIMARY");
+        expect(GameRevenueDAOImpl.class, "dailySQL", "game", "DD", "idx_gamerevenuedaily_day");
+        expect(GameRevenueDAOImpl.class, "gameIDRangeSQL", "game", "", ANY);
+        expect(GameRevenueDAOImpl.class, "deleteRangeSQL", "game", "LL", "PRIMARY");
+    }
+
+    // Chosen so that every range is narrow but not empty.
+    private static final String[] DATES = { "2018-01-01", "2018-02-01", "2018-01-10", "2018-01-10" };
+
+    // An ID column compared with LIKE; the value is converted to a string on every row.
+    private static final Pattern ID_LIKE = Pattern.compile("(?i)\\b\\w*id\\s+like\\s+\\?");
+
+    // MySQL warning "Cannot use ... access on index ... due to type or collation conversion".
+    private static final int ER_WARN_INDEX_NOT_APPLICABLE = 1739;
+
+    // A column wrapped in a cast in the rewritten query shown by EXPLAIN.
+    private static final Pattern COLUMN_CAST = Pattern.compile("cast\\(`");
+
+    @Test
+    public void testEveryQueryHasAnExpectation() throws Exception
+    {
+        Map<String, String> queries = findQueries();
+        TreeSet<String> unregistered = new TreeSet<String>(queries.keySet());
+        unregistered.removeAll(EXPECTATIONS.keySet());
+        TreeSet<String> stale = new TreeSet<String>(EXPECTATIONS.keySet());
+        stale.removeAll(queries.keySet());
+
+        assertTrue("SQL without a plan expectation: " + unregistered, unregistered.isEmpty());
+        assertTrue("Plan expectations for missing SQL fields: " + stale, stale.isEmpty());
+    }
+
+    @Test
+    public void testNoLikeOnIDColumns() throws Exception
+    {
+        List<String> failures = new ArrayList<String>();
+        for (Map.Entry<String, String> entry : findQueries().entrySet()) {
+            if (ID_LIKE.matcher(entry.getValue()).find()) {
+                failures.add(entry.getKey());
+            }
+        }
+        assertTrue("ID columns compared with LIKE instead of '=': " + failures, failures.isEmpty());
+    }
+
+    @Test
+    public void testQueryPlans() throws Exception
+    {
+        Map<String, String> queries = findQueries();
+        DataSource ds = DataSourceManager.getDataSource();
+        Connection connection = ds.getConnection();
+        // EXPLAIN of UPDATE and DELETE changes nothing, but be safe.
+        connection.setAutoCommit(false);
+        try {
+            Statement stmt = connection.createStatement();
+            stmt.execute("ANALYZE TABLE creditcard, game, gamesowned, gamesplayed, player, playerstats, gamerevenuedaily");
+            stmt.close();
+
+            List<String> failures = new ArrayList<String>();
+            for (Map.Entry<String, Expectation> entry : EXPECTATIONS.entrySet()) {
+                String sql = queries.get(entry.getKey());
+                if (sql == null) {
+                    continue;
+                }
+                String problem = check(connection, sql, entry.getValue());
+                if (problem != null) {
+                    failures.add(entry.getKey() + ": " + problem);
+                }
+            }
+            if (!failures.isEmpty()) {
+                fail(failures.size() + " queries lost their index or convert a column:\n"
+                        + String.join("\n", failures));
+            }
+        }
+        finally {
+            connection.rollback();
+            connection.setAutoCommit(true);
+            connection.close();
+        }
+    }
+
+    private String check(Connection connection, String sql, Expectation expectation) throws Exception
+    {
+        String explain = "EXPLAIN " + sql.trim().replaceAll(";$", "").replace("%s", "?, ?");
+        long minID = minID(connection, expectation.table);
+
+        PreparedStatement ps = connection.prepareStatement(explain);
+        try {
+            int dates = 0;
+            for (int idx = 0; idx < expectation.params.length(); idx++) {
+                switch (expectation.params.charAt(idx)) {
+                case 'L':
+                    ps.setLong(idx + 1, minID);
+                    break;
+                case 'D':
+                    ps.setDate(idx + 1, java.sql.Date.valueOf(DATES[dates++]));
+                    break;
+                case 'S':
+                    ps.setString(idx + 1, "A");
+                    break;
+                case 'N':
+                    ps.setInt(idx + 1, 10);
+                    break;
+                case 'F':
+                    ps.setFloat(idx + 1, 1.0f);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter type in " + expectation.params);
+                }
+            }
+
+            ResultSet rs = ps.executeQuery();
+            List<String> plan = new ArrayList<String>();
+            int row = 0;
+            String problem = null;
+            while (rs.next()) {
+                String type = rs.getString("type");
+                String key = rs.getString("key");
+                plan.add(rs.getString("table") + "/" + type + "/" + key);
+                if (row >= expectation.keys.length) {
+                    problem = "unexpected extra table";
+                }
+                else {
+                    String expected = expectation.keys[row];
+                    if (expected != ANY && ("ALL".equals(type) || !expected.equals(key))) {
+                        problem = "expected index " + expected;
+                    }
+                }
+                row++;
+            }
+            if (problem == null && row != expectation.keys.length) {
+                problem = "expected " + expectation.keys.length + " tables";
+            }
+            if (problem == null) {
+                problem = conversionWarning(connection);
+            }
+            return problem == null ? null : problem + ", plan was " + plan;
+        }
+        finally {
+            ps.close();
+        }
+    }
+
+    /**
+     * Returns a description of the first implicit column conversion reported
+     * by the EXPLAIN just run on this connection, or null if there was none.
+     */
+    private String conversionWarning(Connection connection) throws Exception
+    {
+        Statement stmt = connection.createStatement();
+        try {
+            ResultSet rs = stmt.executeQuery("SHOW WARNINGS");
+            while (rs.next()) {
+                int code = rs.getInt("Code");
+                String message = rs.getString("Message");
+                if (code == ER_WARN_INDEX_NOT_APPLICABLE) {
+                    return "type conversion: " + message;
+                }
+                if (message != null && COLUMN_CAST.matcher(message).find()) {
+                    return "column cast in rewritten query: " + message;
+                }
+            }
+            return null;
+        }
+        finally {
+            stmt.close();
+        }
+    }
+
+    private long minID(Connection connection, String table) throws Exception
+    {
+        Statement stmt = connection.createStatement();
+        try {
+            ResultSet rs = stmt.executeQuery("SELECT MIN(id) FROM " + table);
+            rs.next();
+            return rs.getLong(1);
+        }
+        finally {
+            stmt.close();
+        }
+    }
+
+    /**
+     * Returns every static SQL string of the DAO classes other than INSERTs,
+     * keyed by "Class.field".
+     */
+    private static Map<String, String> findQueries() throws Exception
+    {
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        for (Class<?> daoClass : DAO_CLASSES) {
+            for (Field field : daoClass.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) || field.getType() != String.class) {
+                    continue;
+                }
+                field.setAccessible(true);
+                String sql = (String) field.get(null);
+                String verb = sql.trim().split("\\s+", 2)[0].toUpperCase();
+                if (verb.equals("SELECT") || verb.equals("UPDATE") || verb.equals("DELETE")) {
+                    result.put(daoClass.getSimpleName() + "." + field.getName(), sql);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void expect(Class<?> daoClass, String field, String table, String params, String... keys)
+    {
+        EXPECTATIONS.put(daoClass.getSimpleName() + "." + field, new Expectation(table, params, keys));
+    }
+
+    private static class Expectation
+    {
+        private String table;
+        private String params;
+        private String[] keys;
+
+        Expectation(String table, String params, String[] keys)
+        {
+            this.table = table;
+            this.params = params;
+            this.keys = keys;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.entity.Player;
+import cs4347.jdbcGame.services.AsyncGameService;
+import cs4347.jdbcGame.services.AsyncGamesOwnedService;
+import cs4347.jdbcGame.services.AsyncPlayerService;
+import cs4347.jdbcGame.services.impl.AsyncGameServiceImpl;
+import cs4347.jdbcGame.services.impl.AsyncGamesOwnedServiceImpl;
+import cs4347.jdbcGame.services.impl.AsyncPlayerServiceImpl;
+import cs4347.jdbcGame.services.impl.GameServiceImpl;
+import cs4347.jdbcGame.services.impl.GamesOwnedServiceImpl;
+import cs4347.jdbcGame.services.impl.PlayerServiceImpl;
+import cs4347.jdbcGame.testing.DataSourceManager;
+import cs4347.jdbcGame.util.DAOException;
+import cs4347.jdbcGame.util.ServiceExecutor;
+import cs4347.jdbcGame.util.TestingUtil;
+
+public class AsyncServiceTestCase
+{
+    @Test
+    public void testFanOut() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        ServiceExecutor executor = DataSourceManager.getServiceExecutor();
+        AsyncPlayerService playerService = new AsyncPlayerServiceImpl(new PlayerServiceImpl(ds), executor);
+        AsyncGameService gameService = new AsyncGameServiceImpl(new GameServiceImpl(ds), executor);
+        AsyncGamesOwnedService ownedService = new AsyncGamesOwnedServiceImpl(new GamesOwnedServiceImpl(ds),
+                executor);
+
+        Long playerID = TestingUtil.getPlayerID(ds);
+        Long gameID = TestingUtil.getGameID(ds);
+        CompletableFuture<Player> player = playerService.retrieve(playerID);
+        CompletableFuture<Game> game = gameService.retrieve(gameID);
+        CompletableFuture<Integer> owned = ownedService.count();
+        CompletableFuture.allOf(player, game, owned).join();
+
+        assertEquals(playerID, player.get().getId());
+        assertEquals(gameID, game.get().getId());
+        assertTrue(owned.get() >= 0);
+    }
+
+    @Test
+    public void testFailure() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        AsyncGameService gameService = new AsyncGameServiceImpl(new GameServiceImpl(ds),
+                DataSourceManager.getServiceExecutor());
+        try {
+            gameService.retrieveAll(Arrays.asList(1L, null)).get();
+            fail("NULL ID accepted");
+        } catch (ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof DAOException);
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws Exception
+    {
+        ServiceExecutor executor = new ServiceExecutor(1, 1, 0);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CompletableFuture<Integer> running = executor.submit(() -> {
+                awaitQuietly(release);
+                return 1;
+            });
+            CompletableFuture<Integer> queued = executor.submit(() -> 2);
+            assertEquals(2, executor.getInFlight());
+
+            CompletableFuture<Integer> rejected = executor.submit(() -> 3);
+            try {
+                rejected.get();
+                fail("Saturated executor accepted a call");
+            } catch (ExecutionException ex) {
+                assertTrue(ex.getCause() instanceof RejectedExecutionException);
+            }
+
+            release.countDown();
+            assertEquals(Integer.valueOf(1), running.get());
+            assertEquals(Integer.valueOf(2), queued.get());
+            assertEquals(Integer.valueOf(4), executor.submit(() -> 4).get());
+        }
+        finally {
+            executor.close();
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception
+    {
+        ServiceExecutor executor = new ServiceExecutor(2, 20, 1000, true);
+        try {
+            assertEquals(ServiceExecutor.virtualThreadsAvailable(), executor.isVirtual());
+
+            // Never more calls running than threads, whichever kind runs them.
+            AtomicInteger running = new AtomicInteger();
+            AtomicInteger maxRunning = new AtomicInteger();
+            CompletableFuture<?> calls[] = new CompletableFuture<?>[20];
+            for (int idx = 0; idx < calls.length; idx++) {
+                calls[idx] = executor.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    sleepQuietly(5);
+                    running.decrementAndGet();
+                    return null;
+                });
+            }
+            CompletableFuture.allOf(calls).join();
+            assertTrue(maxRunning.get() <= 2);
+        }
+        finally {
+            executor.close();
+        }
+    }
+
+    private static void sleepQuietly(long millis)
+    {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
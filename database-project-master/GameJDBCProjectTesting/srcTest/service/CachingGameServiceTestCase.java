@@ -0,0 +1,110 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.services.impl.CachingGameService;
+import cs4347.jdbcGame.services.impl.GameServiceImpl;
+import cs4347.jdbcGame.testing.DataSourceManager;
+
+public class CachingGameServiceTestCase
+{
+    @Test
+    public void testRetrieveHit() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        CachingGameService gameService = new CachingGameService(new GameServiceImpl(dataSource), 100, 60000);
+
+        Game g1 = gameService.create(buildGame());
+        Game g2 = gameService.retrieve(g1.getId());
+        assertNotNull(g2);
+        assertEquals(g1.getTitle(), g2.getTitle());
+        assertEquals(1, gameService.getHits());
+        assertEquals(0, gameService.getMisses());
+    }
+
+    @Test
+    public void testUpdateInvalidates() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        CachingGameService gameService = new CachingGameService(new GameServiceImpl(dataSource), 100, 60000);
+
+        Game g1 = gameService.create(buildGame());
+        g1.setTitle("Updated Title");
+        gameService.update(g1);
+
+        Game g2 = gameService.retrieve(g1.getId());
+        assertEquals("Updated Title", g2.getTitle());
+        assertEquals(1, gameService.getMisses());
+    }
+
+    @Test
+    public void testDeleteInvalidates() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        CachingGameService gameService = new CachingGameService(new GameServiceImpl(dataSource), 100, 60000);
+
+        Game g1 = gameService.create(buildGame());
+        gameService.delete(g1.getId());
+        assertNull(gameService.retrieve(g1.getId()));
+    }
+
+    @Test
+    public void testSizeBound() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        CachingGameService gameService = new CachingGameService(new GameServiceImpl(dataSource), 2, 60000);
+
+        Game g1 = gameService.create(buildGame());
+        gameService.create(buildGame());
+        gameService.create(buildGame());
+        assertEquals(2, gameService.size());
+        assertEquals(1, gameService.getEvictions());
+
+        // The least recently used game was evicted and is loaded again.
+        assertNotNull(gameService.retrieve(g1.getId()));
+        assertEquals(1, gameService.getMisses());
+    }
+
+    @Test
+    public void testExpiry() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        CachingGameService gameService = new CachingGameService(new GameServiceImpl(dataSource), 100, 1);
+
+        Game g1 = gameService.create(buildGame());
+        Thread.sleep(10);
+        assertNotNull(gameService.retrieve(g1.getId()));
+        assertEquals(1, gameService.getExpirations());
+        assertTrue(gameService.getHitRatio() < 1.0);
+    }
+
+    private Game buildGame()
+    {
+        Game result = new Game();
+        result.setTitle("Test Title");
+        result.setDescription("Test Description");
+        result.setReleaseDate(new Date());
+        result.setVersion("1.2.3");
+        return result;
+    }
+}
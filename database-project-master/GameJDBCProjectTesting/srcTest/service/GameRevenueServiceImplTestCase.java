@@ -0,0 +1,174 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import cs4347.jdbcGame.entity.GameRevenue;
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.services.GameRevenueService;
+import cs4347.jdbcGame.services.GameRevenueService.Period;
+import cs4347.jdbcGame.services.GamesOwnedService;
+import cs4347.jdbcGame.services.impl.GameRevenueServiceImpl;
+import cs4347.jdbcGame.services.impl.GamesOwnedServiceImpl;
+import cs4347.jdbcGame.testing.DataSourceManager;
+import cs4347.jdbcGame.util.TestingUtil;
+
+public class GameRevenueServiceImplTestCase
+{
+    // After anything in the sample data, so the buckets only hold this test's purchases.
+    private static final java.sql.Date START = java.sql.Date.valueOf("2999-03-01");
+    private static final java.sql.Date END = java.sql.Date.valueOf("2999-03-31");
+
+    @Test
+    public void testPurchasesUpdateBuckets() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        GameRevenueService revenueService = new GameRevenueServiceImpl(ds);
+        GamesOwnedService ownedService = new GamesOwnedServiceImpl(ds);
+        Long gameID = TestingUtil.getGameID(ds);
+
+        GamesOwned go1 = ownedService.create(buildGamesOwned(ds, gameID, "2999-03-03", 10.0f));
+        GamesOwned go2 = ownedService.create(buildGamesOwned(ds, gameID, "2999-03-04", 5.25f));
+        try {
+            List<GameRevenue> days = revenueService.revenue(gameID, START, END, Period.DAY);
+            assertEquals(2, days.size());
+            assertEquals(new BigDecimal("10.00"), days.get(0).getRevenue());
+            assertEquals(new BigDecimal("5.25"), days.get(1).getRevenue());
+
+            int purchases = 0;
+            for (GameRevenue week : revenueService.revenue(gameID, START, END, Period.WEEK)) {
+                assertEquals(DayOfWeek.MONDAY, ((java.sql.Date) week.getPeriodStart()).toLocalDate().getDayOfWeek());
+                purchases += week.getPurchases();
+            }
+            assertEquals(2, purchases);
+
+            List<GameRevenue> months = revenueService.revenue(gameID, START, END, Period.MONTH);
+            assertEquals(1, months.size());
+            assertEquals(START.toString(), months.get(0).getPeriodStart().toString());
+            assertEquals(2, months.get(0).getPurchases());
+            assertEquals(new BigDecimal("15.25"), months.get(0).getRevenue());
+
+            // Moving a purchase to another day moves its revenue too.
+            go2.setPurchaseDate(java.sql.Date.valueOf("2999-03-03"));
+            go2.setPurchasePrice(7.5f);
+            ownedService.update(go2);
+            days = revenueService.revenue(gameID, START, END, Period.DAY);
+            assertEquals(1, days.size());
+            assertEquals(2, days.get(0).getPurchases());
+            assertEquals(new BigDecimal("17.50"), days.get(0).getRevenue());
+        }
+        finally {
+            ownedService.delete(go1.getId());
+            ownedService.delete(go2.getId());
+        }
+        assertTrue(revenueService.revenue(gameID, START, END, Period.DAY).isEmpty());
+    }
+
+    @Test
+    public void testBackfillMatchesIncremental() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        GameRevenueService revenueService = new GameRevenueServiceImpl(ds);
+        GamesOwnedService ownedService = new GamesOwnedServiceImpl(ds);
+        Long gameID = TestingUtil.getGameID(ds);
+
+        GamesOwned go = ownedService.create(buildGamesOwned(ds, gameID, "2999-03-10", 19.99f));
+        try {
+            List<GameRevenue> incremental = revenueService.revenueForAllGames(START, END, Period.MONTH);
+            revenueService.backfill(7);
+            List<GameRevenue> backfilled = revenueService.revenueForAllGames(START, END, Period.MONTH);
+            assertEquals(incremental.size(), backfilled.size());
+            for (int idx = 0; idx < incremental.size(); idx++) {
+                assertEquals(incremental.get(idx).getGameID(), backfilled.get(idx).getGameID());
+                assertEquals(incremental.get(idx).getPurchases(), backfilled.get(idx).getPurchases());
+                assertEquals(incremental.get(idx).getRevenue(), backfilled.get(idx).getRevenue());
+            }
+        }
+        finally {
+            ownedService.delete(go.getId());
+        }
+    }
+
+    @Test
+    public void testConcurrentUpdatesOfOneRow() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        GameRevenueService revenueService = new GameRevenueServiceImpl(ds);
+        final GamesOwnedService ownedService = new GamesOwnedServiceImpl(ds);
+        Long gameID = TestingUtil.getGameID(ds);
+
+        final GamesOwned go = ownedService.create(buildGamesOwned(ds, gameID, "2999-03-05", 1.0f));
+        try {
+            // Each thread moves the same purchase to its own day and price. Whatever
+            // order they commit in, the buckets must hold exactly the final row.
+            final List<Exception> failures = new ArrayList<Exception>();
+            List<Thread> threads = new ArrayList<Thread>();
+            for (int idx = 0; idx < 8; idx++) {
+                final int n = idx;
+                threads.add(new Thread(() -> {
+                    GamesOwned copy = new GamesOwned();
+                    copy.setId(go.getId());
+                    copy.setPlayerID(go.getPlayerID());
+                    copy.setGameID(go.getGameID());
+                    copy.setPurchaseDate(java.sql.Date.valueOf("2999-03-" + (10 + n)));
+                    copy.setPurchasePrice(n + 2);
+                    try {
+                        ownedService.update(copy);
+                    }
+                    catch (Exception ex) {
+                        synchronized (failures) {
+                            failures.add(ex);
+                        }
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertTrue(failures.toString(), failures.isEmpty());
+
+            GamesOwned last = ownedService.retrieveByID(go.getId());
+            List<GameRevenue> days = revenueService.revenue(gameID, START, END, Period.DAY);
+            assertEquals(1, days.size());
+            assertEquals(last.getPurchaseDate().toString(), days.get(0).getPeriodStart().toString());
+            assertEquals(1, days.get(0).getPurchases());
+            assertEquals(new BigDecimal(last.getPurchasePrice()).setScale(2), days.get(0).getRevenue());
+        }
+        finally {
+            ownedService.delete(go.getId());
+        }
+        assertTrue(revenueService.revenue(gameID, START, END, Period.DAY).isEmpty());
+    }
+
+    private GamesOwned buildGamesOwned(DataSource ds, Long gameID, String day, float price) throws Exception
+    {
+        GamesOwned go = new GamesOwned();
+        go.setPlayerID(TestingUtil.getPlayerID(ds));
+        go.setGameID(gameID);
+        go.setPurchaseDate(java.sql.Date.valueOf(day));
+        go.setPurchasePrice(price);
+        return go;
+    }
+}
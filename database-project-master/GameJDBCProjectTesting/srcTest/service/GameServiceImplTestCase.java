@@ -16,8 +16,11 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import javax.sql.DataSource;
 
@@ -27,6 +30,7 @@ import cs4347.jdbcGame.entity.Game;
 import cs4347.jdbcGame.services.GameService;
 import cs4347.jdbcGame.services.impl.GameServiceImpl;
 import cs4347.jdbcGame.testing.DataSourceManager;
+import cs4347.jdbcGame.util.Page;
 import cs4347.jdbcGame.util.TestingUtil;
 
 public class GameServiceImplTestCase
@@ -106,6 +110,32 @@ public class GameServiceImplTestCase
         assertEquals(36, gameList.size());
     }
     
+    @Test
+    public void testRetrieveByReleaseDatePage() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        GameService gameService = new GameServiceImpl(dataSource);
+
+        Date startDate = sdf.parse("1/1/2005");
+        Date endDate = sdf.parse("1/1/2010");
+
+        // Walking the pages must visit every game of the unpaged query once.
+        List<Game> paged = new ArrayList<Game>();
+        String cursor = null;
+        do {
+            Page<Game> page = gameService.retrieveByReleaseDatePage(startDate, endDate, 5, cursor);
+            assertTrue(page.getItems().size() <= 5);
+            paged.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        Set<Long> ids = new HashSet<Long>();
+        for (Game game : paged) {
+            assertTrue(ids.add(game.getId()));
+        }
+        assertEquals(gameService.retrieveByReleaseDate(startDate, endDate).size(), paged.size());
+    }
+
     @Test
     public void testUpdate() throws Exception
     {
@@ -17,6 +17,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.sql.DataSource;
 
@@ -104,6 +105,22 @@ public class GamesOwnedServiceImplTestCase
         assertEquals(gameID, goList.get(0).getGameID());
     }
 
+    @Test
+    public void testStreamByGame() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        GamesOwnedService goService = new GamesOwnedServiceImpl(DataSourceManager.getStreamingDataSource());
+
+        Long playerID = TestingUtil.getPlayerID(ds);
+        Long gameID = TestingUtil.retrieveGamesOwnedForPlayer(ds, playerID).get(0);
+        int expected = goService.retrieveByGame(gameID).size();
+
+        // A fetch size smaller than the result forces several cursor fetches.
+        try (Stream<GamesOwned> stream = goService.streamByGame(gameID, 2)) {
+            assertEquals(expected, stream.count());
+        }
+    }
+
     @Test
     public void testRetrieveByPlayer() throws Exception
     {
@@ -0,0 +1,169 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.services.GamesPlayedService;
+import cs4347.jdbcGame.services.impl.GamesPlayedServiceImpl;
+import cs4347.jdbcGame.services.impl.LeaderboardGamesPlayedService;
+import cs4347.jdbcGame.testing.DataSourceManager;
+import cs4347.jdbcGame.util.TestingUtil;
+
+public class LeaderboardGamesPlayedServiceTestCase
+{
+    @Test
+    public void testMatchesDatabase() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        GamesPlayedService dbService = new GamesPlayedServiceImpl(ds);
+        LeaderboardGamesPlayedService service = new LeaderboardGamesPlayedService(dbService, ds);
+        service.rebuild();
+
+        Long playerID = TestingUtil.getPlayerID(ds);
+        Long gameID = TestingUtil.retrieveGamesPlayedForPlayer(ds, playerID).get(0);
+        assertSameLeaderboard(dbService, service, playerID, gameID);
+    }
+
+    @Test
+    public void testWritesUpdateLeaderboard() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        GamesPlayedService dbService = new GamesPlayedServiceImpl(ds);
+        LeaderboardGamesPlayedService service = new LeaderboardGamesPlayedService(dbService, ds);
+
+        Long playerID = TestingUtil.getPlayerID(ds);
+        Long gameID = TestingUtil.getGameID(ds);
+        // Loads the game before the writes below.
+        service.topScores(gameID, 1);
+
+        GamesPlayed gp = service.create(buildGamesPlayed(playerID, gameID, Integer.MAX_VALUE));
+        try {
+            assertEquals(gp.getId(), service.topScores(gameID, 1).get(0).getId());
+            assertEquals(Long.valueOf(1), service.rankOf(playerID, gameID));
+            assertSameLeaderboard(dbService, service, playerID, gameID);
+
+            gp.setScore(-1);
+            service.update(gp);
+            assertSameLeaderboard(dbService, service, playerID, gameID);
+        }
+        finally {
+            service.delete(gp.getId());
+        }
+        assertSameLeaderboard(dbService, service, playerID, gameID);
+        assertNull(service.rankOf(-1L, gameID));
+    }
+
+    @Test
+    public void testNullScoresNotRanked() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        GamesPlayedService dbService = new GamesPlayedServiceImpl(ds);
+        Long playerID = TestingUtil.getPlayerID(ds);
+        Long gameID = TestingUtil.getGameID(ds);
+
+        // Below a NULL score read as 0, so the two orders differ if NULL is ranked.
+        GamesPlayed negative = dbService.create(buildGamesPlayed(playerID, gameID, -1));
+        long nullID;
+        Connection connection = ds.getConnection();
+        try {
+            // GamesPlayed cannot hold a NULL score, so the row is written directly.
+            PreparedStatement ps = connection.prepareStatement(
+                    "INSERT INTO gamesplayed (player_ID, game_ID, time_finished, score) VALUES (?, ?, ?, NULL)",
+                    Statement.RETURN_GENERATED_KEYS);
+            ps.setLong(1, playerID);
+            ps.setLong(2, gameID);
+            ps.setDate(3, new java.sql.Date(System.currentTimeMillis()));
+            ps.executeUpdate();
+            ResultSet keys = ps.getGeneratedKeys();
+            keys.next();
+            nullID = keys.getLong(1);
+            ps.close();
+        }
+        finally {
+            connection.close();
+        }
+
+        try {
+            LeaderboardGamesPlayedService service = new LeaderboardGamesPlayedService(dbService, ds);
+            service.rebuild();
+            assertSameLeaderboard(dbService, service, playerID, gameID);
+            service.invalidate(gameID);
+            assertSameLeaderboard(dbService, service, playerID, gameID);
+        }
+        finally {
+            dbService.delete(negative.getId());
+            connection = ds.getConnection();
+            try {
+                Statement stmt = connection.createStatement();
+                stmt.executeUpdate("DELETE FROM gamesplayed WHERE id = " + nullID);
+                stmt.close();
+            }
+            finally {
+                connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void testUnknownGameNotKept() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        LeaderboardGamesPlayedService service = new LeaderboardGamesPlayedService(new GamesPlayedServiceImpl(ds),
+                ds);
+        for (long gameID = -1; gameID > -100; gameID--) {
+            assertTrue(service.topScores(gameID, 10).isEmpty());
+            assertNull(service.rankOf(1L, gameID));
+        }
+        assertEquals(0, service.size());
+    }
+
+    private void assertSameLeaderboard(GamesPlayedService expected, GamesPlayedService actual, Long playerID,
+            Long gameID) throws Exception
+    {
+        assertSameIDs(expected.topScores(gameID, 10), actual.topScores(gameID, 10));
+        assertEquals(expected.rankOf(playerID, gameID), actual.rankOf(playerID, gameID));
+        assertSameIDs(expected.scoresAround(playerID, gameID, 3), actual.scoresAround(playerID, gameID, 3));
+    }
+
+    private void assertSameIDs(List<GamesPlayed> expected, List<GamesPlayed> actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int idx = 0; idx < expected.size(); idx++) {
+            assertEquals(expected.get(idx).getId(), actual.get(idx).getId());
+            assertEquals(expected.get(idx).getScore(), actual.get(idx).getScore());
+        }
+    }
+
+    private GamesPlayed buildGamesPlayed(Long playerID, Long gameID, int score)
+    {
+        GamesPlayed gp = new GamesPlayed();
+        gp.setGameID(gameID);
+        gp.setPlayerID(playerID);
+        gp.setTimeFinished(new Date());
+        gp.setScore(score);
+        return gp;
+    }
+}
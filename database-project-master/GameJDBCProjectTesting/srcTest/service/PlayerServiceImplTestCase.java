@@ -16,18 +16,27 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 import javax.sql.DataSource;
 
 import org.junit.Test;
 
 import cs4347.jdbcGame.entity.CreditCard;
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.entity.GamesPlayed;
 import cs4347.jdbcGame.entity.Player;
+import cs4347.jdbcGame.services.GamesOwnedService;
+import cs4347.jdbcGame.services.GamesPlayedService;
 import cs4347.jdbcGame.services.PlayerService;
+import cs4347.jdbcGame.services.impl.GamesOwnedServiceImpl;
+import cs4347.jdbcGame.services.impl.GamesPlayedServiceImpl;
 import cs4347.jdbcGame.services.impl.PlayerServiceImpl;
 import cs4347.jdbcGame.testing.DataSourceManager;
+import cs4347.jdbcGame.util.TestingUtil;
 
 public class PlayerServiceImplTestCase
 {
@@ -132,6 +141,37 @@ public class PlayerServiceImplTestCase
         assertEquals(p2ccCount + 1, p3.getCreditCards().size());
     }
 
+    /**
+     * Test that update inserts new cards, updates changed ones and deletes the
+     * ones dropped from the player's list.
+     */
+    @Test
+    public void testUpdateCCDiff() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        PlayerService playerService = new PlayerServiceImpl(dataSource);
+
+        Player p1 = buildPlayerWithCC();
+        Player p2 = playerService.create(p1);
+
+        CreditCard kept = p2.getCreditCards().get(0);
+        kept.setCcName("New CC Name");
+        p2.getCreditCards().remove(1);
+        p2.getCreditCards().add(buildCreditCard());
+        playerService.update(p2);
+
+        Player p3 = playerService.retrieve(p2.getId());
+        assertEquals(2, p3.getCreditCards().size());
+        int matches = 0;
+        for (CreditCard cc : p3.getCreditCards()) {
+            if (cc.getId().equals(kept.getId())) {
+                assertEquals("New CC Name", cc.getCcName());
+                matches++;
+            }
+        }
+        assertEquals(1, matches);
+    }
+
     @Test
     public void testDelete() throws Exception
     {
@@ -148,6 +188,75 @@ public class PlayerServiceImplTestCase
         assertEquals(0, ccCount);
     }
 
+    @Test
+    public void testDeleteCascade() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        PlayerService playerService = new PlayerServiceImpl(dataSource);
+        GamesOwnedService gamesOwnedService = new GamesOwnedServiceImpl(dataSource);
+        GamesPlayedService gamesPlayedService = new GamesPlayedServiceImpl(dataSource);
+
+        Player p1 = playerService.create(buildPlayerWithCC());
+        Long playerID = p1.getId();
+        Long gameID = TestingUtil.getGameID(dataSource);
+
+        GamesOwned go = new GamesOwned();
+        go.setPlayerID(playerID);
+        go.setGameID(gameID);
+        go.setPurchaseDate(new Date());
+        go.setPurchasePrice(1.0f);
+        gamesOwnedService.create(go);
+
+        GamesPlayed gp = new GamesPlayed();
+        gp.setPlayerID(playerID);
+        gp.setGameID(gameID);
+        gp.setTimeFinished(new Date());
+        gp.setScore(100);
+        gamesPlayedService.create(gp);
+
+        assertEquals(1, playerService.delete(playerID));
+        assertEquals(0, gamesOwnedService.retrieveByPlayer(playerID).size());
+        assertEquals(0, gamesPlayedService.retrieveByPlayer(playerID).size());
+    }
+
+    @Test
+    public void testDeletePlayers() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        PlayerService playerService = new PlayerServiceImpl(dataSource);
+
+        List<Long> playerIDs = new ArrayList<Long>();
+        for (int idx = 0; idx < 3; idx++) {
+            playerIDs.add(playerService.create(buildPlayerWithCC()).getId());
+        }
+
+        int count = playerService.deletePlayers(playerIDs);
+        assertEquals(3, count);
+        for (Long playerID : playerIDs) {
+            assertNull(playerService.retrieve(playerID));
+            assertEquals(0, playerService.countCreditCardsForPlayer(playerID));
+        }
+    }
+
+    @Test
+    public void testRetrieveAll() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        PlayerService playerService = new PlayerServiceImpl(dataSource);
+
+        List<Long> playerIDs = new ArrayList<Long>();
+        for (int idx = 0; idx < 3; idx++) {
+            playerIDs.add(playerService.create(buildPlayerWithCC()).getId());
+        }
+
+        Map<Long, Player> players = playerService.retrieveAll(playerIDs);
+        assertEquals(playerIDs, new ArrayList<Long>(players.keySet()));
+        for (Player player : players.values()) {
+            assertEquals(playerService.countCreditCardsForPlayer(player.getId()), player.getCreditCards().size());
+        }
+        playerService.deletePlayers(playerIDs);
+    }
+
     @Test
     public void testCount() throws Exception
     {
@@ -173,6 +282,36 @@ public class PlayerServiceImplTestCase
         assertTrue(playerList.size() > 0);
     }
 
+    @Test
+    public void testRetrieveByJoinDateWithCC() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        PlayerService playerService = new PlayerServiceImpl(dataSource);
+        
+        Date startDate = sdf.parse("1/1/2017");
+        Date endDate = sdf.parse("1/1/2019");
+        
+        List<Player> playerList = playerService.retrieveByJoinDate(startDate, endDate, true);
+        assertTrue(playerList.size() > 0);
+        for (Player player : playerList) {
+            assertEquals(playerService.countCreditCardsForPlayer(player.getId()), player.getCreditCards().size());
+        }
+    }
+
+    @Test
+    public void testRetrieveByJoinDateEmpty() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        PlayerService playerService = new PlayerServiceImpl(dataSource);
+
+        Date startDate = sdf.parse("1/1/1900");
+        Date endDate = sdf.parse("1/2/1900");
+
+        // Both forms return an empty list, not null.
+        assertTrue(playerService.retrieveByJoinDate(startDate, endDate).isEmpty());
+        assertTrue(playerService.retrieveByJoinDate(startDate, endDate, true).isEmpty());
+    }
+
     private Player buildPlayerWithCC()
     {
         Player p = new Player();
@@ -0,0 +1,117 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import cs4347.jdbcGame.entity.GamesOwned;
+import cs4347.jdbcGame.entity.GamesPlayed;
+import cs4347.jdbcGame.entity.PlayerStats;
+import cs4347.jdbcGame.services.GamesOwnedService;
+import cs4347.jdbcGame.services.GamesPlayedService;
+import cs4347.jdbcGame.services.PlayerStatsService;
+import cs4347.jdbcGame.services.impl.GamesOwnedServiceImpl;
+import cs4347.jdbcGame.services.impl.GamesPlayedServiceImpl;
+import cs4347.jdbcGame.services.impl.PlayerStatsServiceImpl;
+import cs4347.jdbcGame.testing.DataSourceManager;
+import cs4347.jdbcGame.util.TestingUtil;
+
+public class PlayerStatsServiceImplTestCase
+{
+    @Test
+    public void testWritesUpdateStats() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        PlayerStatsService statsService = new PlayerStatsServiceImpl(ds);
+        GamesOwnedService ownedService = new GamesOwnedServiceImpl(ds);
+        GamesPlayedService playedService = new GamesPlayedServiceImpl(ds);
+
+        statsService.rebuildAll(4, 100);
+        Long playerID = TestingUtil.getPlayerID(ds);
+        Long gameID = TestingUtil.getGameID(ds);
+        PlayerStats before = statsService.retrieve(playerID);
+
+        // Dated after anything in the sample data, so it becomes the last activity.
+        java.sql.Date later = java.sql.Date.valueOf("2999-01-01");
+        GamesOwned go = new GamesOwned();
+        go.setPlayerID(playerID);
+        go.setGameID(gameID);
+        go.setPurchaseDate(later);
+        go.setPurchasePrice(12.5f);
+        go = ownedService.create(go);
+
+        GamesPlayed gp = new GamesPlayed();
+        gp.setPlayerID(playerID);
+        gp.setGameID(gameID);
+        gp.setTimeFinished(later);
+        gp.setScore(Integer.MAX_VALUE);
+        gp = playedService.create(gp);
+
+        PlayerStats after = statsService.retrieve(playerID);
+        assertEquals(before.getGamesOwned() + 1, after.getGamesOwned());
+        assertEquals(before.getTotalSpend().add(new BigDecimal("12.50")), after.getTotalSpend());
+        assertEquals(before.getGamesPlayed() + 1, after.getGamesPlayed());
+        assertEquals(Integer.valueOf(Integer.MAX_VALUE), after.getBestScore());
+        assertEquals(later.toString(), after.getLastActivity().toString());
+
+        // A rebuild from the tables agrees with the incremental totals.
+        statsService.rebuildAll(4, 100);
+        assertSameStats(after, statsService.retrieve(playerID));
+
+        gp.setScore(0);
+        playedService.update(gp);
+        go.setPurchasePrice(2.25f);
+        ownedService.update(go);
+        PlayerStats updated = statsService.retrieve(playerID);
+        assertEquals(after.getTotalSpend().subtract(new BigDecimal("10.25")), updated.getTotalSpend());
+        statsService.rebuildAll(4, 100);
+        assertSameStats(updated, statsService.retrieve(playerID));
+
+        playedService.delete(gp.getId());
+        ownedService.delete(go.getId());
+        assertSameStats(before, statsService.retrieve(playerID));
+    }
+
+    @Test
+    public void testRetrieveAll() throws Exception
+    {
+        DataSource ds = DataSourceManager.getDataSource();
+        PlayerStatsService statsService = new PlayerStatsServiceImpl(ds);
+        statsService.rebuildAll(2, 1000);
+
+        Long playerID = TestingUtil.getPlayerID(ds);
+        Long unknownID = System.currentTimeMillis();
+        Map<Long, PlayerStats> stats = statsService.retrieveAll(Arrays.asList(unknownID, playerID));
+        assertEquals(1, stats.size());
+        assertNotNull(stats.get(playerID));
+        assertNull(stats.get(unknownID));
+    }
+
+    private void assertSameStats(PlayerStats expected, PlayerStats actual)
+    {
+        assertEquals(expected.getPlayerID(), actual.getPlayerID());
+        assertEquals(expected.getGamesOwned(), actual.getGamesOwned());
+        assertEquals(expected.getTotalSpend(), actual.getTotalSpend());
+        assertEquals(expected.getGamesPlayed(), actual.getGamesPlayed());
+        assertEquals(expected.getBestScore(), actual.getBestScore());
+        assertEquals(String.valueOf(expected.getLastActivity()), String.valueOf(actual.getLastActivity()));
+    }
+}
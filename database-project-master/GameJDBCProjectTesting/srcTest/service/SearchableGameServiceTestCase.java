@@ -0,0 +1,131 @@
+/* NOTICE: All materials provided by this project, and materials derived 
+ * from the project, are the property of the University of Texas. 
+ * Project materials, or those derived from the materials, cannot be placed 
+ * into publicly accessible locations on the web. Project materials cannot 
+ * be shared with other project teams. Making project materials publicly 
+ * accessible, or sharing with other project teams will result in the 
+ * failure of the team responsible and any team that uses the shared materials. 
+ * Sharing project materials or using shared materials will also result 
+ * in the reporting of all team members for academic dishonesty. 
+ */
+package service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.Test;
+
+import cs4347.jdbcGame.entity.Game;
+import cs4347.jdbcGame.services.impl.GameServiceImpl;
+import cs4347.jdbcGame.services.impl.SearchableGameService;
+import cs4347.jdbcGame.testing.DataSourceManager;
+
+public class SearchableGameServiceTestCase
+{
+    @Test
+    public void testRanking() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        SearchableGameService gameService = new SearchableGameService(new GameServiceImpl(dataSource), dataSource);
+        gameService.rebuild();
+
+        String word = uniqueWord();
+        String rarer = uniqueWord();
+        Game inTitle = gameService.create(buildGame(word + " Quest", "An adventure"));
+        Game inDescription = gameService.create(buildGame(rarer + " Dungeon", "A quest for the " + word));
+        Game inBoth = gameService.create(buildGame(word + " Quest II", "More " + word));
+
+        List<Long> found = gameService.search(word.toUpperCase(), 10);
+        assertEquals(Arrays.asList(inBoth.getId(), inTitle.getId(), inDescription.getId()), found);
+        // A game matching both words comes first; the others still match.
+        found = gameService.search(rarer + " " + word, 10);
+        assertEquals(inDescription.getId(), found.get(0));
+        assertEquals(3, found.size());
+        assertEquals(1, gameService.search(word, 1).size());
+    }
+
+    @Test
+    public void testWritesUpdateIndex() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        SearchableGameService gameService = new SearchableGameService(new GameServiceImpl(dataSource), dataSource);
+
+        String word = uniqueWord();
+        Game game = gameService.create(buildGame(word, null));
+        assertEquals(Arrays.asList(game.getId()), gameService.search(word, 10));
+
+        String other = uniqueWord();
+        game.setTitle(other);
+        gameService.update(game);
+        assertTrue(gameService.search(word, 10).isEmpty());
+        assertEquals(Arrays.asList(game.getId()), gameService.search(other, 10));
+
+        // A rebuild sees the same rows the writes did.
+        gameService.rebuild();
+        assertEquals(Arrays.asList(game.getId()), gameService.search(other, 10));
+
+        gameService.delete(game.getId());
+        assertTrue(gameService.search(other, 10).isEmpty());
+    }
+
+    @Test
+    public void testAutocomplete() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        SearchableGameService gameService = new SearchableGameService(new GameServiceImpl(dataSource), dataSource);
+        gameService.rebuild();
+
+        String prefix = uniqueWord();
+        Game second = gameService.create(buildGame(prefix + " Zeta", null));
+        Game first = gameService.create(buildGame(prefix.toUpperCase() + " Alpha", null));
+        gameService.create(buildGame(prefix + " Zeta", "Same title, another game"));
+
+        // Case is ignored, duplicate titles are listed once.
+        assertEquals(Arrays.asList(first.getTitle(), second.getTitle()), gameService.complete(prefix, 10));
+        assertEquals(Arrays.asList(first.getTitle()), gameService.complete(prefix.toUpperCase() + " a", 10));
+        assertEquals(1, gameService.complete(prefix, 1).size());
+
+        first.setTitle(prefix + " Omega");
+        gameService.update(first);
+        assertEquals(Arrays.asList(first.getTitle(), second.getTitle()), gameService.complete(prefix, 10));
+
+        gameService.delete(first.getId());
+        assertEquals(Arrays.asList(second.getTitle()), gameService.complete(prefix, 10));
+    }
+
+    @Test
+    public void testAutocompleteCaseVariants() throws Exception
+    {
+        DataSource dataSource = DataSourceManager.getDataSource();
+        SearchableGameService gameService = new SearchableGameService(new GameServiceImpl(dataSource), dataSource);
+        gameService.rebuild();
+
+        // Case variants of one title interleave by ID; each spelling is listed once.
+        String prefix = uniqueWord();
+        Game lower = gameService.create(buildGame(prefix + " Zeta", null));
+        Game upper = gameService.create(buildGame(prefix + " ZETA", null));
+        gameService.create(buildGame(prefix + " Zeta", "Same title, another game"));
+        assertEquals(Arrays.asList(lower.getTitle(), upper.getTitle()), gameService.complete(prefix, 10));
+    }
+
+    private String uniqueWord()
+    {
+        return "w" + Long.toString(System.nanoTime(), 36);
+    }
+
+    private Game buildGame(String title, String description)
+    {
+        Game game = new Game();
+        game.setTitle(title);
+        game.setDescription(description);
+        game.setReleaseDate(new Date());
+        game.setVersion("1.0");
+        return game;
+    }
+}
@@ -0,0 +1,48 @@
+-- Removes the GamesOwned_id, GamesPlayed_id, GamesPlayed_Game_id and
+-- CreditCard_id columns from Player and Game on a database created before
+-- SQLSchemaScript.sql dropped them. Each column could reference only one
+-- child row and the DAOs never wrote them; the relationships are held by
+-- player_ID/game_ID in GamesOwned, GamesPlayed and CreditCard, with the
+-- foreign keys and indexes added by SchemaV2Migration or the schema script.
+--
+-- The columns are only NULL, so nothing needs to be copied. Dropping the
+-- foreign keys is a metadata change; dropping the columns rebuilds the table
+-- in place while reads and writes continue.
+--
+-- Check first that nothing has been written to them:
+--   SELECT COUNT(*) FROM player WHERE COALESCE(GamesOwned_id, GamesPlayed_id,
+--       GamesPlayed_Game_id, CreditCard_id) IS NOT NULL;
+--   SELECT COUNT(*) FROM game WHERE COALESCE(GamesOwned_id, GamesPlayed_id,
+--       GamesPlayed_Game_id) IS NOT NULL;
+
+USE `games` ;
+
+ALTER TABLE `games`.`Player`
+  DROP FOREIGN KEY `fk_Player_GamesOwned`,
+  DROP FOREIGN KEY `fk_Player_GamesPlayed1`,
+  DROP FOREIGN KEY `fk_Player_CreditCard1`;
+
+ALTER TABLE `games`.`Player`
+  DROP INDEX `fk_Player_GamesOwned_idx`,
+  DROP INDEX `fk_Player_GamesPlayed1_idx`,
+  DROP INDEX `fk_Player_CreditCard1_idx`,
+  DROP COLUMN `GamesOwned_id`,
+  DROP COLUMN `GamesPlayed_id`,
+  DROP COLUMN `GamesPlayed_Game_id`,
+  DROP COLUMN `CreditCard_id`,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ALTER TABLE `games`.`Game`
+  DROP FOREIGN KEY `fk_Game_GamesOwned1`,
+  DROP FOREIGN KEY `fk_Game_GamesPlayed1`;
+
+-- The foreign keys created implicit indexes named after the constraints.
+ALTER TABLE `games`.`Game`
+  DROP INDEX `fk_Game_GamesOwned1`,
+  DROP INDEX `fk_Game_GamesPlayed1`,
+  DROP COLUMN `GamesOwned_id`,
+  DROP COLUMN `GamesPlayed_id`,
+  DROP COLUMN `GamesPlayed_Game_id`,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ANALYZE TABLE `games`.`Player`, `games`.`Game`;
@@ -0,0 +1,22 @@
+-- Adds the GameRevenueDaily rollup table to a database created before
+-- SQLSchemaScript.sql declared it. It holds one row per game and day with
+-- the number of purchases and their total price, kept current by
+-- GamesOwnedService, so revenue reports read these rows instead of
+-- GamesOwned. Purchases made before the table existed are only counted after
+-- GameRevenueService.backfill() has run once.
+
+USE `games` ;
+
+CREATE TABLE IF NOT EXISTS `games`.`GameRevenueDaily` (
+  `game_ID` BIGINT NOT NULL,
+  `day` DATE NOT NULL,
+  `purchases` INT NOT NULL,
+  `revenue` DECIMAL(14,2) NOT NULL,
+  PRIMARY KEY (`game_ID`, `day`),
+  INDEX `idx_gamerevenuedaily_day` (`day` ASC),
+  CONSTRAINT `fk_gamerevenuedaily_game`
+    FOREIGN KEY (`game_ID`)
+    REFERENCES `games`.`Game` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
+ENGINE = InnoDB;
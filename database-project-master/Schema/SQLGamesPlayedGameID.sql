@@ -0,0 +1,15 @@
+-- Changes GamesPlayed.game_ID from VARCHAR(45) to BIGINT on a database created
+-- before SQLSchemaScript.sql declared it that way. The DAOs bind game_ID as a
+-- number; against a VARCHAR column MySQL casts every row's value to compare it,
+-- so lookups by game cannot use idx_gamesplayed_game.
+--
+-- Every existing value was written by the DAOs with setLong(), so the
+-- conversion is lossless. MODIFY rebuilds the table; run it in a maintenance
+-- window on large tables.
+
+USE `games` ;
+
+ALTER TABLE `games`.`GamesPlayed`
+  MODIFY `game_ID` BIGINT NOT NULL;
+
+ANALYZE TABLE `games`.`GamesPlayed`;
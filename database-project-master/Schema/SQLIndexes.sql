@@ -0,0 +1,25 @@
+-- Adds the DAO lookup indexes to a database created before they were part of
+-- SQLSchemaScript.sql. Run once; new databases get them from the schema script.
+-- The EXPLAIN checks in QueryPlanTestCase expect these index names.
+
+USE `games` ;
+
+ALTER TABLE `games`.`GamesOwned`
+  ADD INDEX `idx_gamesowned_player_game` (`player_ID` ASC, `game_ID` ASC),
+  ADD INDEX `idx_gamesowned_game` (`game_ID` ASC);
+
+ALTER TABLE `games`.`GamesPlayed`
+  ADD INDEX `idx_gamesplayed_player_game` (`player_ID` ASC, `game_ID` ASC),
+  ADD INDEX `idx_gamesplayed_game` (`game_ID` ASC);
+
+ALTER TABLE `games`.`CreditCard`
+  ADD INDEX `idx_creditcard_player` (`player_id` ASC);
+
+ALTER TABLE `games`.`Player`
+  ADD INDEX `idx_player_join_date` (`join_date` ASC);
+
+ALTER TABLE `games`.`Game`
+  ADD INDEX `idx_game_release_date` (`release_date` ASC),
+  ADD INDEX `idx_game_title` (`title` ASC);
+
+ANALYZE TABLE `games`.`GamesOwned`, `games`.`GamesPlayed`, `games`.`CreditCard`, `games`.`Player`, `games`.`Game`;
@@ -0,0 +1,15 @@
+-- Replaces idx_gamesplayed_game with idx_gamesplayed_game_score on a database
+-- created before SQLSchemaScript.sql declared it. The new index still starts
+-- with game_ID, so it serves the lookups by game and the fk_gamesplayed_game
+-- foreign key, and it keeps each game's plays sorted best score first, so
+-- GamesPlayedDAO.topScores(), rankOf() and scoresAround() read only the rows
+-- they return or count.
+
+USE `games` ;
+
+ALTER TABLE `games`.`GamesPlayed`
+  ADD INDEX `idx_gamesplayed_game_score` (`game_ID` ASC, `score` DESC, `id` ASC),
+  DROP INDEX `idx_gamesplayed_game`,
+  ALGORITHM=INPLACE, LOCK=NONE;
+
+ANALYZE TABLE `games`.`GamesPlayed`;
@@ -0,0 +1,22 @@
+-- Adds the PlayerStats summary table to a database created before
+-- SQLSchemaScript.sql declared it. GamesOwnedService and GamesPlayedService
+-- keep it current from then on, but rows written before it existed (or by the
+-- bulk loaders, which bypass the services) are only counted after a rebuild:
+-- run PlayerStatsService.rebuildAll() once this script has finished.
+
+USE `games` ;
+
+CREATE TABLE IF NOT EXISTS `games`.`PlayerStats` (
+  `player_ID` BIGINT NOT NULL,
+  `games_owned` INT NOT NULL DEFAULT 0,
+  `total_spend` DECIMAL(12,2) NOT NULL DEFAULT 0,
+  `games_played` INT NOT NULL DEFAULT 0,
+  `best_score` BIGINT NULL,
+  `last_activity` DATE NULL,
+  PRIMARY KEY (`player_ID`),
+  CONSTRAINT `fk_playerstats_player`
+    FOREIGN KEY (`player_ID`)
+    REFERENCES `games`.`Player` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
+ENGINE = InnoDB;
@@ -25,8 +25,20 @@ CREATE TABLE IF NOT EXISTS `games`.`GamesOwned` (
   `player_ID` BIGINT NOT NULL,
   `game_ID` BIGINT NOT NULL,
   `purchase_date` DATE NOT NULL,
-  `purchase_price` FLOAT NOT NULL,
-  PRIMARY KEY (`id`))
+  `purchase_price` DECIMAL(10,2) NOT NULL,
+  PRIMARY KEY (`id`),
+  INDEX `idx_gamesowned_player_game` (`player_ID` ASC, `game_ID` ASC),
+  INDEX `idx_gamesowned_game` (`game_ID` ASC),
+  CONSTRAINT `fk_gamesowned_player`
+    FOREIGN KEY (`player_ID`)
+    REFERENCES `games`.`Player` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION,
+  CONSTRAINT `fk_gamesowned_game`
+    FOREIGN KEY (`game_ID`)
+    REFERENCES `games`.`Game` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
 ENGINE = InnoDB;
 
 
@@ -36,10 +48,22 @@ ENGINE = InnoDB;
 CREATE TABLE IF NOT EXISTS `games`.`GamesPlayed` (
   `id` BIGINT NOT NULL AUTO_INCREMENT,
   `player_ID` BIGINT NOT NULL,
-  `game_ID` VARCHAR(45) NOT NULL,
+  `game_ID` BIGINT NOT NULL,
   `time_finished` DATE NULL,
   `score` BIGINT NULL,
-  PRIMARY KEY (`id`))
+  PRIMARY KEY (`id`),
+  INDEX `idx_gamesplayed_player_game` (`player_ID` ASC, `game_ID` ASC),
+  INDEX `idx_gamesplayed_game_score` (`game_ID` ASC, `score` DESC, `id` ASC),
+  CONSTRAINT `fk_gamesplayed_player`
+    FOREIGN KEY (`player_ID`)
+    REFERENCES `games`.`Player` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION,
+  CONSTRAINT `fk_gamesplayed_game`
+    FOREIGN KEY (`game_ID`)
+    REFERENCES `games`.`Game` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
 ENGINE = InnoDB;
 
 
@@ -50,10 +74,16 @@ CREATE TABLE IF NOT EXISTS `games`.`CreditCard` (
   `id` BIGINT NOT NULL AUTO_INCREMENT,
   `cc_name` VARCHAR(45) NOT NULL,
   `cc_number` VARCHAR(45) NOT NULL,
-  `exp_date` VARCHAR(45) NOT NULL,
+  `exp_date` DATE NOT NULL,
   `security_code` INT NOT NULL,
   `player_id` BIGINT NOT NULL,
-  PRIMARY KEY (`id`))
+  PRIMARY KEY (`id`),
+  INDEX `idx_creditcard_player` (`player_id` ASC),
+  CONSTRAINT `fk_creditcard_player`
+    FOREIGN KEY (`player_id`)
+    REFERENCES `games`.`Player` (`id`)
+    ON DELETE NO ACTION
+    ON UPDATE NO ACTION)
 ENGINE = InnoDB;
 
 
@@ -66,27 +96,25 @@ CREATE TABLE IF NOT EXISTS `games`.`Player` (
   `last_name` VARCHAR(45) NOT NULL,
   `join_date` DATE NOT NULL,
   `email` VARCHAR(45) NOT NULL,
-  `GamesOwned_id` BIGINT,
-  `GamesPlayed_id` BIGINT,
-  `GamesPlayed_Game_id` BIGINT,
-  `CreditCard_id` BIGINT,
   PRIMARY KEY (`id`),
-  INDEX `fk_Player_GamesOwned_idx` (`GamesOwned_id` ASC),
-  INDEX `fk_Player_GamesPlayed1_idx` (`GamesPlayed_id` ASC, `GamesPlayed_Game_id` ASC),
-  INDEX `fk_Player_CreditCard1_idx` (`CreditCard_id` ASC),
-  CONSTRAINT `fk_Player_GamesOwned`
-    FOREIGN KEY (`GamesOwned_id`)
-    REFERENCES `games`.`GamesOwned` (`id`)
-    ON DELETE NO ACTION
-    ON UPDATE NO ACTION,
-  CONSTRAINT `fk_Player_GamesPlayed1`
-    FOREIGN KEY (`GamesPlayed_id`)
-    REFERENCES `games`.`GamesPlayed` (`id`)
-    ON DELETE NO ACTION
-    ON UPDATE NO ACTION,
-  CONSTRAINT `fk_Player_CreditCard1`
-    FOREIGN KEY (`CreditCard_id`)
-    REFERENCES `games`.`CreditCard` (`id`)
+  INDEX `idx_player_join_date` (`join_date` ASC))
+ENGINE = InnoDB;
+
+
+-- -----------------------------------------------------
+-- Table `games`.`PlayerStats`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `games`.`PlayerStats` (
+  `player_ID` BIGINT NOT NULL,
+  `games_owned` INT NOT NULL DEFAULT 0,
+  `total_spend` DECIMAL(12,2) NOT NULL DEFAULT 0,
+  `games_played` INT NOT NULL DEFAULT 0,
+  `best_score` BIGINT NULL,
+  `last_activity` DATE NULL,
+  PRIMARY KEY (`player_ID`),
+  CONSTRAINT `fk_playerstats_player`
+    FOREIGN KEY (`player_ID`)
+    REFERENCES `games`.`Player` (`id`)
     ON DELETE NO ACTION
     ON UPDATE NO ACTION)
 ENGINE = InnoDB;
@@ -99,20 +127,27 @@ CREATE TABLE IF NOT EXISTS `games`.`Game` (
   `id` BIGINT NOT NULL AUTO_INCREMENT,
   `title` VARCHAR(45) NOT NULL,
   `description` VARCHAR(255) NULL,
-  `release_date` VARCHAR(45) NOT NULL,
+  `release_date` DATE NOT NULL,
   `version` VARCHAR(45) NULL,
-  `GamesOwned_id` BIGINT,
-  `GamesPlayed_id` BIGINT,
-  `GamesPlayed_Game_id` BIGINT,
   PRIMARY KEY (`id`),
-  CONSTRAINT `fk_Game_GamesOwned1`
-    FOREIGN KEY (`GamesOwned_id`)
-    REFERENCES `games`.`GamesOwned` (`id`)
-    ON DELETE NO ACTION
-    ON UPDATE NO ACTION,
-  CONSTRAINT `fk_Game_GamesPlayed1`
-    FOREIGN KEY (`GamesPlayed_id`)
-    REFERENCES `games`.`GamesPlayed` (`id`)
+  INDEX `idx_game_release_date` (`release_date` ASC),
+  INDEX `idx_game_title` (`title` ASC))
+ENGINE = InnoDB;
+
+
+-- -----------------------------------------------------
+-- Table `games`.`GameRevenueDaily`
+-- -----------------------------------------------------
+CREATE TABLE IF NOT EXISTS `games`.`GameRevenueDaily` (
+  `game_ID` BIGINT NOT NULL,
+  `day` DATE NOT NULL,
+  `purchases` INT NOT NULL,
+  `revenue` DECIMAL(14,2) NOT NULL,
+  PRIMARY KEY (`game_ID`, `day`),
+  INDEX `idx_gamerevenuedaily_day` (`day` ASC),
+  CONSTRAINT `fk_gamerevenuedaily_game`
+    FOREIGN KEY (`game_ID`)
+    REFERENCES `games`.`Game` (`id`)
     ON DELETE NO ACTION
     ON UPDATE NO ACTION)
 ENGINE = InnoDB;